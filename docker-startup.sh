@@ -5,17 +5,26 @@ set -eu
 : "${RUN_MIGRATION:=false}"
 : "${RUN_APP:=true}"
 
-# shellcheck disable=SC2086
-java $JAVA_OPTS -jar ./*-allinone.jar waitOnDependencies ./*.yaml
+AOT_CACHE_OPTS=""
+if [ -f ./adminusers.aot ]; then
+  AOT_CACHE_OPTS="-XX:AOTCache=./adminusers.aot"
+fi
 
-if [ "$RUN_MIGRATION" == "true" ]; then
-  # shellcheck disable=SC2086
-  java $JAVA_OPTS -jar ./*-allinone.jar migrateToInitialDbState ./*.yaml
+if [ "$RUN_APP" == "true" ]; then
+  MIGRATE_OPTS=""
+  if [ "$RUN_MIGRATION" == "true" ]; then
+    MIGRATE_OPTS="--migrate"
+  fi
   # shellcheck disable=SC2086
-  java $JAVA_OPTS -jar ./*-allinone.jar db migrate ./*.yaml
+  exec java $JAVA_OPTS $AOT_CACHE_OPTS -jar ./*-allinone.jar waitMigrateAndServe $MIGRATE_OPTS ./*.yaml
 fi
 
-if [ "$RUN_APP" == "true" ]; then
+# shellcheck disable=SC2086
+java $JAVA_OPTS $AOT_CACHE_OPTS -jar ./*-allinone.jar waitOnDependencies ./*.yaml
+
+if [ "$RUN_MIGRATION" == "true" ]; then
+  # shellcheck disable=SC2086
+  java $JAVA_OPTS $AOT_CACHE_OPTS -jar ./*-allinone.jar migrateToInitialDbState ./*.yaml
   # shellcheck disable=SC2086
-  exec java $JAVA_OPTS -jar ./*-allinone.jar server ./*.yaml
+  java $JAVA_OPTS $AOT_CACHE_OPTS -jar ./*-allinone.jar db migrate ./*.yaml
 fi
@@ -0,0 +1,93 @@
+package uk.gov.pay.adminusers.benchmark;
+
+import jakarta.persistence.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static java.util.stream.Collectors.toUnmodifiableMap;
+
+/**
+ * Compares {@code UserDao.getAdminUserEmailsForGatewayAccountIds}, which binds the gateway account ids as one
+ * array parameter, with the previous implementation, which bound one positional parameter per id and grouped the
+ * rows through {@code SimpleEntry}. Most of the requested ids do not exist, as in connector's payout and dispute
+ * runs. Run with
+ * {@code mvn -Pbenchmarks test-compile exec:exec@run-benchmarks -Djmh.args="AdminEmailsBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdminEmailsBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int numberOfGatewayAccountIds;
+
+    private List<String> requestedGatewayAccountIds;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabaseState state) {
+        List<String> gatewayAccountIds = new ArrayList<>(state.gatewayAccountIds());
+        for (int i = 0; gatewayAccountIds.size() < numberOfGatewayAccountIds; i++) {
+            gatewayAccountIds.add("unknown-" + i);
+        }
+        requestedGatewayAccountIds = List.copyOf(gatewayAccountIds.subList(0, numberOfGatewayAccountIds));
+    }
+
+    @Benchmark
+    public Map<String, List<String>> arrayParameter(SeededDatabaseState state) {
+        return state.userDao.getAdminUserEmailsForGatewayAccountIds(requestedGatewayAccountIds);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> positionalParameters(SeededDatabaseState state) {
+        List<String> gatewayAccountIds = requestedGatewayAccountIds;
+        String positionalParams = IntStream.rangeClosed(1, gatewayAccountIds.size()).mapToObj(Integer::toString)
+                .map(i -> "?" + i).collect(Collectors.joining(","));
+
+        String query = "SELECT sga.gateway_account_id, users.email FROM service_gateway_accounts sga" +
+                " RIGHT JOIN user_services_roles usr" +
+                " ON usr.service_id = sga.service_id" +
+                " JOIN users ON users.id = usr.user_id" +
+                " JOIN roles ON roles.id = usr.role_id" +
+                " WHERE sga.gateway_account_id in (" + positionalParams + ")" +
+                " AND roles.name='admin'" +
+                " ORDER by sga.gateway_account_id";
+
+        Query nativeQuery = state.entityManager().createNativeQuery(query);
+        IntStream.rangeClosed(1, gatewayAccountIds.size()).forEach(i ->
+                nativeQuery.setParameter(i, gatewayAccountIds.get(i - 1)));
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> gatewayAccountIdsToAdminEmails = nativeQuery.getResultList();
+        return gatewayAccountIdsToAdminEmails.stream()
+                .map(arrayOfObject -> new SimpleEntry<>((String) arrayOfObject[0], (String) arrayOfObject[1]))
+                .collect(groupingBy(SimpleEntry::getKey))
+                .entrySet()
+                .stream()
+                .collect(toUnmodifiableMap(
+                        Map.Entry::getKey,
+                        entry -> entry.getValue().stream().map(SimpleEntry::getValue).collect(toUnmodifiableList())));
+    }
+}
@@ -0,0 +1,79 @@
+package uk.gov.pay.adminusers.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
+import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
+import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
+import uk.gov.pay.adminusers.persistence.entity.UserEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of preparing five of the most used DAO queries, from the JPQL string as the DAOs used to and from the named
+ * query definitions they use now. The queries are only created and bound, not executed, so the difference is not
+ * hidden behind a database round trip. Run with
+ * {@code mvn -Pbenchmarks test-compile exec:exec@run-benchmarks -Djmh.args="NamedQueryBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class NamedQueryBenchmark {
+
+    private record Query(String jpql, Class<?> resultClass, String parameter) {
+    }
+
+    private static final Map<String, Query> QUERIES = Map.of(
+            UserEntity.FIND_BY_EXTERNAL_ID, new Query(
+                    "SELECT u FROM UserEntity u WHERE LOWER(u.externalId) = :externalId", UserEntity.class, "externalId"),
+            UserEntity.FIND_BY_EMAIL, new Query(
+                    "SELECT u FROM UserEntity u WHERE LOWER(u.email) = LOWER(:email)", UserEntity.class, "email"),
+            GatewayAccountIdEntity.FIND_BY_GATEWAY_ACCOUNT_ID, new Query(
+                    "SELECT ga FROM GatewayAccountIdEntity ga WHERE ga.gatewayAccountId = :gatewayAccountId",
+                    GatewayAccountIdEntity.class, "gatewayAccountId"),
+            ServiceEntity.FIND_BY_EXTERNAL_ID, new Query(
+                    "SELECT s FROM ServiceEntity as s WHERE s.externalId = :externalId", ServiceEntity.class, "externalId"),
+            InviteEntity.FIND_BY_CODE, new Query(
+                    "SELECT invite FROM InviteEntity invite WHERE invite.code = :code", InviteEntity.class, "code"));
+
+    @Param({UserEntity.FIND_BY_EXTERNAL_ID, UserEntity.FIND_BY_EMAIL, GatewayAccountIdEntity.FIND_BY_GATEWAY_ACCOUNT_ID,
+            ServiceEntity.FIND_BY_EXTERNAL_ID, InviteEntity.FIND_BY_CODE})
+    public String queryName;
+
+    private EntityManager entityManager;
+    private Query query;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabaseState state) {
+        entityManager = state.entityManager();
+        query = QUERIES.get(queryName);
+    }
+
+    @Benchmark
+    public TypedQuery<?> fromJpqlString() {
+        return entityManager.createQuery(query.jpql(), query.resultClass())
+                .setParameter(query.parameter(), "value");
+    }
+
+    @Benchmark
+    public TypedQuery<?> fromNamedQuery() {
+        return entityManager.createNamedQuery(queryName, query.resultClass())
+                .setParameter(query.parameter(), "value");
+    }
+}
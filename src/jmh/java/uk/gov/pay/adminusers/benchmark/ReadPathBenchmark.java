@@ -0,0 +1,88 @@
+package uk.gov.pay.adminusers.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.adminusers.model.Service;
+import uk.gov.pay.adminusers.model.User;
+import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
+import uk.gov.pay.adminusers.persistence.entity.UserEntity;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the hot read paths used by selfservice and the event subscriber queue. Run with
+ * {@code mvn -Pbenchmarks test-compile exec:exec@run-benchmarks}; the allocation rate reported by the {@code gc}
+ * profiler is included in {@code target/jmh-result.json}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    @State(Scope.Thread)
+    public static class LoadedEntities {
+
+        UserEntity userEntity;
+        ServiceEntity serviceEntity;
+        User user;
+        Service service;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededDatabaseState state) {
+            userEntity = state.userDao.findByExternalId(state.randomUserExternalId()).orElseThrow();
+            serviceEntity = state.serviceDao.findByGatewayAccountId(state.randomGatewayAccountId()).orElseThrow();
+            user = userEntity.toUser();
+            service = serviceEntity.toService();
+        }
+    }
+
+    @Benchmark
+    public Optional<UserEntity> findUserByExternalId(SeededDatabaseState state) {
+        return state.userServices.findUserByExternalId(state.randomUserExternalId());
+    }
+
+    @Benchmark
+    public Optional<Service> findServiceByGatewayAccountId(SeededDatabaseState state) {
+        return state.serviceFinder.byGatewayAccountId(state.randomGatewayAccountId());
+    }
+
+    /**
+     * Every seeded gateway account fits in the cache with the default config, so after warmup this measures hits.
+     */
+    @Benchmark
+    public Optional<Service> findServiceByGatewayAccountIdCached(SeededDatabaseState state) {
+        return state.cachingServiceFinder.byGatewayAccountId(state.randomGatewayAccountId());
+    }
+
+    @Benchmark
+    public User userEntityToUser(LoadedEntities entities) {
+        return entities.userEntity.toUser();
+    }
+
+    @Benchmark
+    public Service serviceEntityToService(LoadedEntities entities) {
+        return entities.serviceEntity.toService();
+    }
+
+    @Benchmark
+    public User decorateUser(SeededDatabaseState state, LoadedEntities entities) {
+        return state.linksBuilder.decorate(entities.user);
+    }
+
+    @Benchmark
+    public Service decorateService(SeededDatabaseState state, LoadedEntities entities) {
+        return state.linksBuilder.decorate(entities.service);
+    }
+}
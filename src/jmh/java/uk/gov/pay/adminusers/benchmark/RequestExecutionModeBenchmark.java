@@ -0,0 +1,130 @@
+package uk.gov.pay.adminusers.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.adminusers.infra.AppWithPostgresExtension;
+import uk.gov.pay.adminusers.model.Role;
+import uk.gov.pay.adminusers.model.RoleName;
+import uk.gov.pay.adminusers.model.Service;
+import uk.gov.pay.adminusers.persistence.dao.RoleDao;
+import uk.gov.pay.adminusers.utils.DatabaseTestHelper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.dropwizard.testing.ConfigOverride.config;
+import static uk.gov.pay.adminusers.fixtures.ServiceDbFixture.serviceDbFixture;
+import static uk.gov.pay.adminusers.fixtures.UserDbFixture.userDbFixture;
+
+/**
+ * Compares serving {@code UserResource} and {@code ServiceResource} requests on Jetty's platform thread pool with
+ * serving them on virtual threads, with more concurrent clients than the server has request threads. Sample time
+ * mode reports the p99 and p99.9 latencies alongside the mean; run with
+ * {@code mvn -Pbenchmarks test-compile exec:exec@run-benchmarks -Djmh.args="RequestExecutionModeBenchmark"}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(128)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestExecutionModeBenchmark {
+
+    private static final int SERVICES_PER_USER = 3;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"32"})
+    public int serverMaxThreads;
+
+    @Param({"200"})
+    public int numberOfServices;
+
+    @Param({"1000"})
+    public int numberOfUsers;
+
+    private final List<String> userExternalIds = new ArrayList<>();
+    private final List<String> serviceExternalIds = new ArrayList<>();
+
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        AppWithPostgresExtension app = new AppWithPostgresExtension(
+                config("virtualThreads.enabled", String.valueOf(virtualThreads)),
+                config("server.maxThreads", String.valueOf(serverMaxThreads)),
+                config("server.minThreads", String.valueOf(serverMaxThreads)));
+        app.beforeAll(null);
+        Role adminRole = app.getInjector().getInstance(RoleDao.class).findByRoleName(RoleName.ADMIN).orElseThrow().toRole();
+        seed(app.getDatabaseTestHelper(), adminRole);
+
+        httpClient = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + app.getLocalPort();
+    }
+
+    private void seed(DatabaseTestHelper databaseHelper, Role role) {
+        List<Service> services = new ArrayList<>();
+        for (int i = 0; i < numberOfServices; i++) {
+            Service service = serviceDbFixture(databaseHelper).insertService();
+            services.add(service);
+            serviceExternalIds.add(service.getExternalId());
+        }
+
+        for (int i = 0; i < numberOfUsers; i++) {
+            var user = userDbFixture(databaseHelper);
+            for (int j = 0; j < SERVICES_PER_USER; j++) {
+                user.withServiceRole(services.get((i + j) % services.size()), role);
+            }
+            userExternalIds.add(user.insertUser().getExternalId());
+        }
+    }
+
+    @Benchmark
+    public int getUser() throws IOException, InterruptedException {
+        return get("/v1/api/users/" + random(userExternalIds));
+    }
+
+    @Benchmark
+    public int getService() throws IOException, InterruptedException {
+        return get("/v1/api/services/" + random(serviceExternalIds));
+    }
+
+    @Benchmark
+    public int getServiceUsers() throws IOException, InterruptedException {
+        return get("/v1/api/services/" + random(serviceExternalIds) + "/users");
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + path);
+        }
+        return response.statusCode();
+    }
+
+    private static String random(List<String> externalIds) {
+        return externalIds.get(ThreadLocalRandom.current().nextInt(externalIds.size()));
+    }
+}
@@ -0,0 +1,151 @@
+package uk.gov.pay.adminusers.benchmark;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import com.google.inject.persist.jpa.JpaPersistModule;
+import jakarta.persistence.EntityManager;
+import liquibase.Liquibase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import uk.gov.pay.adminusers.app.config.GatewayAccountServiceCacheConfig;
+import uk.gov.pay.adminusers.infra.GuicedTestEnvironment;
+import uk.gov.pay.adminusers.model.Role;
+import uk.gov.pay.adminusers.model.RoleName;
+import uk.gov.pay.adminusers.model.Service;
+import uk.gov.pay.adminusers.persistence.dao.RoleDao;
+import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
+import uk.gov.pay.adminusers.persistence.dao.UserDao;
+import uk.gov.pay.adminusers.service.GatewayAccountServiceCache;
+import uk.gov.pay.adminusers.service.LinksBuilder;
+import uk.gov.pay.adminusers.service.PasswordHasher;
+import uk.gov.pay.adminusers.service.SecondFactorAuthenticator;
+import uk.gov.pay.adminusers.service.ServiceFinder;
+import uk.gov.pay.adminusers.service.UserServices;
+import uk.gov.pay.adminusers.utils.DatabaseTestHelper;
+import uk.gov.service.payments.commons.testing.db.PostgresDockerExtension;
+import uk.gov.service.payments.commons.testing.db.PostgresTestHelper;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.mockito.Mockito.mock;
+import static uk.gov.pay.adminusers.fixtures.ServiceDbFixture.serviceDbFixture;
+import static uk.gov.pay.adminusers.fixtures.UserDbFixture.userDbFixture;
+
+/**
+ * Starts a Postgres container, runs the migrations and seeds it with services and users, each user having a role on
+ * a few services, so that the read path benchmarks exercise realistically shaped object graphs. The container is
+ * stopped at the end of the trial.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabaseState {
+
+    private static final int SERVICES_PER_USER = 3;
+
+    @Param({"200"})
+    public int numberOfServices;
+
+    @Param({"1000"})
+    public int numberOfUsers;
+
+    private PostgresDockerExtension postgres;
+    private GuicedTestEnvironment env;
+
+    private final List<String> userExternalIds = new ArrayList<>();
+    private final List<String> gatewayAccountIds = new ArrayList<>();
+
+    DatabaseTestHelper databaseHelper;
+    LinksBuilder linksBuilder;
+    UserDao userDao;
+    ServiceDao serviceDao;
+    UserServices userServices;
+    ServiceFinder serviceFinder;
+    ServiceFinder cachingServiceFinder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = new PostgresDockerExtension("15.2");
+
+        try (Connection connection = DriverManager.getConnection(postgres.getConnectionUrl(), postgres.getUsername(), postgres.getPassword())) {
+            new Liquibase("config/initial-db-state.xml", new ClassLoaderResourceAccessor(), new JdbcConnection(connection)).update("");
+            new Liquibase("it-migrations.xml", new ClassLoaderResourceAccessor(), new JdbcConnection(connection)).update("");
+        }
+
+        Properties properties = new Properties();
+        properties.put("jakarta.persistence.jdbc.driver", postgres.getDriverClass());
+        properties.put("jakarta.persistence.jdbc.url", postgres.getConnectionUrl());
+        properties.put("jakarta.persistence.jdbc.user", postgres.getUsername());
+        properties.put("jakarta.persistence.jdbc.password", postgres.getPassword());
+        env = GuicedTestEnvironment.from(new JpaPersistModule("AdminUsersUnit").properties(properties)).start();
+
+        linksBuilder = new LinksBuilder("http://localhost");
+        userDao = env.getInstance(UserDao.class);
+        serviceDao = env.getInstance(ServiceDao.class);
+        serviceFinder = new ServiceFinder(serviceDao, linksBuilder);
+        cachingServiceFinder = new ServiceFinder(serviceDao, linksBuilder, new GatewayAccountServiceCache(
+                new GatewayAccountServiceCacheConfig(), new MetricRegistry(), Ticker.systemTicker()));
+        userServices = new UserServices(userDao, new PasswordHasher(), linksBuilder, 10, () -> null,
+                mock(SecondFactorAuthenticator.class), serviceFinder);
+
+        databaseHelper = new DatabaseTestHelper(Jdbi.create(postgres.getConnectionUrl(), postgres.getUsername(), postgres.getPassword()));
+        seed();
+    }
+
+    private void seed() {
+        RoleDao roleDao = env.getInstance(RoleDao.class);
+        List<Role> roles = List.of(
+                roleDao.findByRoleName(RoleName.ADMIN).orElseThrow().toRole(),
+                roleDao.findByRoleName(RoleName.VIEW_ONLY).orElseThrow().toRole());
+
+        List<Service> services = new ArrayList<>();
+        for (int i = 0; i < numberOfServices; i++) {
+            String gatewayAccountId = String.valueOf(100_000 + i);
+            services.add(serviceDbFixture(databaseHelper).withGatewayAccountIds(gatewayAccountId).insertService());
+            gatewayAccountIds.add(gatewayAccountId);
+        }
+
+        for (int i = 0; i < numberOfUsers; i++) {
+            var user = userDbFixture(databaseHelper);
+            for (int j = 0; j < SERVICES_PER_USER; j++) {
+                user.withServiceRole(services.get((i + j) % services.size()), roles.get(j % roles.size()));
+            }
+            userExternalIds.add(user.insertUser().getExternalId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            env.stop();
+        } finally {
+            PostgresTestHelper.stop();
+        }
+    }
+
+    String randomUserExternalId() {
+        return userExternalIds.get(ThreadLocalRandom.current().nextInt(userExternalIds.size()));
+    }
+
+    List<String> gatewayAccountIds() {
+        return gatewayAccountIds;
+    }
+
+    EntityManager entityManager() {
+        return env.getInstance(EntityManager.class);
+    }
+
+    String randomGatewayAccountId() {
+        return gatewayAccountIds.get(ThreadLocalRandom.current().nextInt(gatewayAccountIds.size()));
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.pay.adminusers.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.adminusers.model.SearchServicesResponse;
+import uk.gov.pay.adminusers.model.ServiceSearchRequest;
+import uk.gov.pay.adminusers.model.ServiceSearchResult;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Compares the full-text search behind {@code POST /v1/api/services/search}, which loads every matching service
+ * aggregate, with the trigram search behind {@code summary=true}, which returns the first page of ranked summaries.
+ * The database is seeded with 100,000 extra services named after a handful of topics and places, so a whole word
+ * matches thousands of them; the full-text search finds nothing for the prefix or the typo. Run with
+ * {@code mvn -Pbenchmarks test-compile exec:exec@run-benchmarks -Djmh.args="ServiceSearchBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceSearchBenchmark {
+
+    private static final int NUMBER_OF_SERVICES = 100_000;
+    private static final int FIRST_ID = 1_000_000_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"parking", "park", "parkng"})
+    public String searchString;
+
+    private ServiceSearchRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabaseState state) {
+        String ids = format("generate_series(%d, %d) AS i", FIRST_ID, FIRST_ID + NUMBER_OF_SERVICES - 1);
+        String topics = "(ARRAY['Parking permits', 'Council tax', 'Bulky waste collection', 'Register a birth', " +
+                "'Pest control', 'Planning applications', 'Marriage certificates', 'Library fines', 'Allotment rent', " +
+                "'Street trading licences'])[1 + i % 10]";
+        String places = "(ARRAY['Gondor', 'Rivendell', 'Rohan', 'Bree', 'Hobbiton', 'Dale', 'Esgaroth', 'Lothlorien'])[1 + i % 8]";
+        state.databaseHelper.execute("INSERT INTO services(id, external_id, merchant_name, experimental_features_enabled, created_date) " +
+                "SELECT i, 'search-service-' || i, 'Borough Council of ' || " + places + " || ' ' || i, false, now() FROM " + ids);
+        state.databaseHelper.execute("INSERT INTO service_names(service_id, language, name) " +
+                "SELECT i, 'en', " + topics + " || ' in ' || " + places + " FROM " + ids);
+        state.databaseHelper.execute("ANALYZE");
+        request = new ServiceSearchRequest(searchString, "");
+    }
+
+    @Benchmark
+    public SearchServicesResponse fullTextEntities(SeededDatabaseState state) {
+        return state.serviceFinder.bySearchRequest(request);
+    }
+
+    @Benchmark
+    public List<ServiceSearchResult> trigramSummaries(SeededDatabaseState state) {
+        return state.serviceFinder.searchSummaries(request, PAGE_SIZE, 0);
+    }
+}
@@ -0,0 +1,189 @@
+package uk.gov.pay.adminusers.benchmark;
+
+import uk.gov.service.payments.commons.testing.db.PostgresDockerExtension;
+import uk.gov.service.payments.commons.testing.db.PostgresTestHelper;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Measures how long the allinone jar takes from launch to a healthy {@code /healthcheck} against a Testcontainers
+ * Postgres, migrating an empty database each time, when started the way {@code docker-startup.sh} used to (a JVM
+ * each for {@code waitOnDependencies}, {@code migrateToInitialDbState}, {@code db migrate} and {@code server}),
+ * with {@code waitMigrateAndServe --migrate} in one JVM, and with that and an ahead-of-time class cache recorded by
+ * {@code startAndStop}. The cache needs a JDK that supports {@code -XX:AOTCacheOutput}. Run with
+ * {@code mvn -Pbenchmarks package exec:exec@measure-startup}, optionally adding {@code -Dstartup.runs=5}.
+ */
+public class StartupTimeMeasurement {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Path jar;
+    private final Path config;
+    private final PostgresDockerExtension postgres;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private StartupTimeMeasurement(Path jar, Path config, PostgresDockerExtension postgres) {
+        this.jar = jar;
+        this.config = config;
+        this.postgres = postgres;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]);
+        Path config = Path.of(args[1]);
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        StartupTimeMeasurement measurement = new StartupTimeMeasurement(jar, config, new PostgresDockerExtension("15.2"));
+        try {
+            Path aotCache = Files.createTempFile("adminusers", ".aot");
+            Files.delete(aotCache);
+            measurement.recordAotCache(aotCache);
+
+            Map<String, List<Long>> results = new LinkedHashMap<>();
+            results.put("separate JVMs", measurement.measure(runs, measurement::startInSeparateJvms));
+            results.put("single JVM", measurement.measure(runs, port -> measurement.startInSingleJvm(port, List.of())));
+            results.put("single JVM with AOT cache", measurement.measure(runs,
+                    port -> measurement.startInSingleJvm(port, List.of("-XX:AOTCache=" + aotCache))));
+
+            System.out.printf("%nMillis from launch to healthy, %d runs each%n", runs);
+            results.forEach((mode, millis) -> System.out.printf("%-28s min %6d  median %6d  max %6d  %s%n", mode,
+                    millis.stream().mapToLong(Long::longValue).min().orElseThrow(),
+                    millis.stream().sorted().toList().get(millis.size() / 2),
+                    millis.stream().mapToLong(Long::longValue).max().orElseThrow(),
+                    millis));
+        } finally {
+            PostgresTestHelper.stop();
+        }
+        System.exit(0);
+    }
+
+    private interface Startup {
+        Process start(int port) throws IOException, InterruptedException;
+    }
+
+    private List<Long> measure(int runs, Startup startup) throws Exception {
+        List<Long> millis = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            resetDatabase();
+            int port = freePort();
+            long started = System.nanoTime();
+            Process server = startup.start(port);
+            try {
+                awaitHealthy(port, server);
+                millis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            } finally {
+                server.destroy();
+                server.waitFor();
+            }
+        }
+        return millis;
+    }
+
+    private Process startInSeparateJvms(int port) throws IOException, InterruptedException {
+        run(List.of(), port, "waitOnDependencies");
+        run(List.of(), port, "migrateToInitialDbState");
+        run(List.of(), port, "db", "migrate");
+        return launch(List.of(), port, "server");
+    }
+
+    private Process startInSingleJvm(int port, List<String> jvmOptions) throws IOException {
+        return launch(jvmOptions, port, "waitMigrateAndServe", "--migrate");
+    }
+
+    private void recordAotCache(Path aotCache) throws IOException, InterruptedException {
+        run(List.of("-XX:AOTCacheOutput=" + aotCache), 0, "startAndStop");
+    }
+
+    private void run(List<String> jvmOptions, int port, String... command) throws IOException, InterruptedException {
+        Process process = launch(jvmOptions, port, command);
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(format("%s exited with %d", String.join(" ", command), process.exitValue()));
+        }
+    }
+
+    private Process launch(List<String> jvmOptions, int port, String... command) throws IOException {
+        List<String> commandLine = new ArrayList<>();
+        commandLine.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        commandLine.addAll(jvmOptions);
+        commandLine.add("-Ddw.database.url=" + postgres.getConnectionUrl());
+        commandLine.add("-Ddw.database.user=" + postgres.getUsername());
+        commandLine.add("-Ddw.database.password=" + postgres.getPassword());
+        commandLine.add("-jar");
+        commandLine.add(jar.toString());
+        commandLine.addAll(List.of(command));
+        commandLine.add(config.toString());
+
+        ProcessBuilder processBuilder = new ProcessBuilder(commandLine)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        processBuilder.environment().putAll(Map.ofEntries(
+                Map.entry("PORT", String.valueOf(port)),
+                Map.entry("ADMIN_PORT", "0"),
+                Map.entry("ENVIRONMENT", "startup-measurement"),
+                Map.entry("DB_HOST", "localhost"),
+                Map.entry("DB_USER", postgres.getUsername()),
+                Map.entry("DB_PASSWORD", postgres.getPassword()),
+                Map.entry("DB_SSL_OPTION", "ssl=false"),
+                Map.entry("AWS_SQS_REGION", "eu-west-1"),
+                Map.entry("AWS_SECRET_KEY", "x"),
+                Map.entry("AWS_ACCESS_KEY", "x"),
+                Map.entry("AWS_SQS_EVENT_SUBSCRIBER_QUEUE_URL", "http://localhost"),
+                Map.entry("AWS_SQS_CONNECTOR_TASKS_QUEUE_URL", "http://localhost"),
+                Map.entry("LEDGER_URL", "http://localhost"),
+                Map.entry("NOTIFICATION_OUTBOX_ENABLED", "false")));
+        return processBuilder.start();
+    }
+
+    private void awaitHealthy(int port, Process server) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/healthcheck")).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server exited with " + server.exitValue());
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Server was not healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private void resetDatabase() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(postgres.getConnectionUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA public CASCADE");
+            statement.execute("CREATE SCHEMA public");
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
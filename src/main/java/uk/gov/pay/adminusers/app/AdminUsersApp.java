@@ -6,6 +6,7 @@ import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
 import io.dropwizard.configuration.SubstitutingSourceProvider;
 import io.dropwizard.core.Application;
 import io.dropwizard.core.setup.Bootstrap;
+import io.dropwizard.core.server.AbstractServerFactory;
 import io.dropwizard.core.setup.Environment;
 import io.dropwizard.db.DataSourceFactory;
 import io.dropwizard.jersey.jackson.JsonProcessingExceptionMapper;
@@ -21,12 +22,15 @@ import uk.gov.pay.adminusers.app.config.AdminUsersModule;
 import uk.gov.pay.adminusers.app.config.PersistenceServiceInitialiser;
 import uk.gov.pay.adminusers.app.healthchecks.DependentResourceWaitCommand;
 import uk.gov.pay.adminusers.app.healthchecks.MigrateToInitialDbState;
+import uk.gov.pay.adminusers.app.healthchecks.StartAndStopCommand;
+import uk.gov.pay.adminusers.app.healthchecks.WaitMigrateAndServeCommand;
 import uk.gov.pay.adminusers.exception.ConflictExceptionMapper;
 import uk.gov.pay.adminusers.exception.NotFoundExceptionMapper;
 import uk.gov.pay.adminusers.exception.ValidationExceptionMapper;
 import uk.gov.pay.adminusers.expungeandarchive.resource.ExpungeAndArchiveHistoricalDataResource;
 import uk.gov.pay.adminusers.filters.LoggingMDCRequestFilter;
 import uk.gov.pay.adminusers.filters.LoggingMDCResponseFilter;
+import uk.gov.pay.adminusers.queue.ConnectorTaskPublisher;
 import uk.gov.pay.adminusers.queue.managed.EventSubscriberQueueMessageReceiver;
 import uk.gov.pay.adminusers.resources.EmailResource;
 import uk.gov.pay.adminusers.resources.ForgottenPasswordResource;
@@ -38,6 +42,7 @@ import uk.gov.pay.adminusers.resources.ResetPasswordResource;
 import uk.gov.pay.adminusers.resources.ServiceResource;
 import uk.gov.pay.adminusers.resources.ToolboxEndpointResource;
 import uk.gov.pay.adminusers.resources.UserResource;
+import uk.gov.pay.adminusers.service.NotificationOutboxDispatcher;
 import uk.gov.service.payments.commons.utils.healthchecks.DatabaseHealthCheck;
 import uk.gov.service.payments.commons.utils.metrics.DatabaseMetricsService;
 import uk.gov.service.payments.logging.GovUkPayDropwizardRequestJsonLogLayoutFactory;
@@ -57,6 +62,8 @@ public class AdminUsersApp extends Application<AdminUsersConfig> {
     private static final String SERVICE_METRICS_NODE = "adminusers";
     private static final int METRICS_COLLECTION_PERIOD_SECONDS = 30;
 
+    private boolean backgroundWorkEnabled = true;
+
     @Override
     public void initialize(Bootstrap<AdminUsersConfig> bootstrap) {
         bootstrap.setConfigurationSourceProvider(
@@ -74,6 +81,8 @@ public class AdminUsersApp extends Application<AdminUsersConfig> {
 
         bootstrap.addCommand(new DependentResourceWaitCommand());
         bootstrap.addCommand(new MigrateToInitialDbState());
+        bootstrap.addCommand(new WaitMigrateAndServeCommand(this));
+        bootstrap.addCommand(new StartAndStopCommand(this));
         bootstrap.getObjectMapper().getSubtypeResolver().registerSubtypes(LogstashConsoleAppenderFactory.class);
         bootstrap.getObjectMapper().getSubtypeResolver().registerSubtypes(SentryAppenderFactory.class);
         bootstrap.getObjectMapper().getSubtypeResolver().registerSubtypes(GovUkPayDropwizardRequestJsonLogLayoutFactory.class);
@@ -81,6 +90,7 @@ public class AdminUsersApp extends Application<AdminUsersConfig> {
 
     @Override
     public void run(AdminUsersConfig configuration, Environment environment) {
+        enableVirtualThreads(configuration);
         final Injector injector = Guice.createInjector(new AdminUsersModule(configuration, environment));
         injector.getInstance(PersistenceServiceInitialiser.class);
 
@@ -111,18 +121,45 @@ public class AdminUsersApp extends Application<AdminUsersConfig> {
         environment.jersey().register(new InvalidMerchantDetailsExceptionMapper());
         environment.jersey().register(new ConflictExceptionMapper());
 
-        environment.lifecycle().manage(injector.getInstance(EventSubscriberQueueMessageReceiver.class));
+        if (backgroundWorkEnabled) {
+            environment.lifecycle().manage(injector.getInstance(EventSubscriberQueueMessageReceiver.class));
+            environment.lifecycle().manage(injector.getInstance(NotificationOutboxDispatcher.class));
+            environment.lifecycle().manage(injector.getInstance(ConnectorTaskPublisher.class));
+        }
+    }
+
+    /**
+     * Stops {@code run} from starting the work that happens outside requests: collecting database metrics, receiving
+     * from the event subscriber queue, sending from the notification outbox and publishing connector tasks. Used by
+     * {@link StartAndStopCommand}, whose run has no database or queues to talk to.
+     */
+    public void disableBackgroundWork() {
+        backgroundWorkEnabled = false;
+    }
+
+    /**
+     * The server is built from its factory after {@code run} returns, so switching Jetty's thread pool to virtual
+     * threads here applies to every request.
+     */
+    private void enableVirtualThreads(AdminUsersConfig configuration) {
+        if (configuration.getVirtualThreadsConfig().isEnabled()
+                && configuration.getServerFactory() instanceof AbstractServerFactory serverFactory) {
+            serverFactory.setEnableVirtualThreads(true);
+            logger.info("Serving requests on virtual threads");
+        }
     }
 
     private void initialiseMetrics(AdminUsersConfig configuration, Environment environment) {
-        DatabaseMetricsService metricsService = new DatabaseMetricsService(configuration.getDataSourceFactory(), environment.metrics(), "adminusers");
-
-        environment
-                .lifecycle()
-                .scheduledExecutorService("metricscollector")
-                .threads(1)
-                .build()
-                .scheduleAtFixedRate(metricsService::updateMetricData, 0, METRICS_COLLECTION_PERIOD_SECONDS / 2, TimeUnit.SECONDS);
+        if (backgroundWorkEnabled) {
+            DatabaseMetricsService metricsService = new DatabaseMetricsService(configuration.getDataSourceFactory(), environment.metrics(), "adminusers");
+
+            environment
+                    .lifecycle()
+                    .scheduledExecutorService("metricscollector")
+                    .threads(1)
+                    .build()
+                    .scheduleAtFixedRate(metricsService::updateMetricData, 0, METRICS_COLLECTION_PERIOD_SECONDS / 2, TimeUnit.SECONDS);
+        }
 
         CollectorRegistry collectorRegistry = CollectorRegistry.defaultRegistry;
         collectorRegistry.register(new DropwizardExports(environment.metrics()));
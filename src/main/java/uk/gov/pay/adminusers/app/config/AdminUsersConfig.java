@@ -29,6 +29,26 @@ public class AdminUsersConfig extends Configuration {
     @NotNull
     private Integer loginAttemptCap;
 
+    @Valid
+    @NotNull
+    private AuthenticationRateLimitConfig authenticationRateLimit = new AuthenticationRateLimitConfig();
+
+    @Valid
+    @NotNull
+    private PasswordHashingConfig passwordHashing = new PasswordHashingConfig();
+
+    @Valid
+    @NotNull
+    private VirtualThreadsConfig virtualThreads = new VirtualThreadsConfig();
+
+    @Valid
+    @NotNull
+    private NotificationOutboxConfig notificationOutbox = new NotificationOutboxConfig();
+
+    @Valid
+    @NotNull
+    private GatewayAccountServiceCacheConfig gatewayAccountServiceCache = new GatewayAccountServiceCacheConfig();
+
     @NotNull
     private NotifyConfiguration notifyConfiguration;
 
@@ -48,6 +68,7 @@ public class AdminUsersConfig extends Configuration {
     @NotNull
     private EventSubscriberQueueConfig eventSubscriberQueueConfig;
 
+    @Valid
     @NotNull
     private ConnectorTaskQueueConfig connectorTaskQueueConfig;
 
@@ -88,6 +109,31 @@ public class AdminUsersConfig extends Configuration {
         return loginAttemptCap;
     }
 
+    @JsonProperty("authenticationRateLimit")
+    public AuthenticationRateLimitConfig getAuthenticationRateLimitConfig() {
+        return authenticationRateLimit;
+    }
+
+    @JsonProperty("passwordHashing")
+    public PasswordHashingConfig getPasswordHashingConfig() {
+        return passwordHashing;
+    }
+
+    @JsonProperty("virtualThreads")
+    public VirtualThreadsConfig getVirtualThreadsConfig() {
+        return virtualThreads;
+    }
+
+    @JsonProperty("notificationOutbox")
+    public NotificationOutboxConfig getNotificationOutboxConfig() {
+        return notificationOutbox;
+    }
+
+    @JsonProperty("gatewayAccountServiceCache")
+    public GatewayAccountServiceCacheConfig getGatewayAccountServiceCacheConfig() {
+        return gatewayAccountServiceCache;
+    }
+
     public LinksConfig getLinks() {
         return links;
     }
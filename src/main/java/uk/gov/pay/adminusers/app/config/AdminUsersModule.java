@@ -5,7 +5,9 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
+import com.google.inject.matcher.Matchers;
 import com.google.inject.name.Names;
+import com.google.inject.persist.Transactional;
 import com.google.inject.persist.jpa.JpaPersistModule;
 import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
 import io.dropwizard.core.setup.Environment;
@@ -18,10 +20,15 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.SqsClientBuilder;
 import uk.gov.pay.adminusers.app.RestClientFactory;
+import uk.gov.pay.adminusers.expungeandarchive.service.ExpungeAndArchiveJobRunner;
+import uk.gov.pay.adminusers.persistence.dao.NotificationOutboxDao;
+import uk.gov.pay.adminusers.queue.ConnectorTaskPublisher;
 import uk.gov.pay.adminusers.resources.ResetPasswordValidator;
 import uk.gov.pay.adminusers.resources.UserRequestValidator;
+import uk.gov.pay.adminusers.service.AuthenticationRateLimiter;
 import uk.gov.pay.adminusers.service.ExistingUserOtpDispatcher;
 import uk.gov.pay.adminusers.service.ForgottenPasswordServices;
+import uk.gov.pay.adminusers.service.GatewayAccountServiceCache;
 import uk.gov.pay.adminusers.service.InviteServiceFactory;
 import uk.gov.pay.adminusers.service.LinksBuilder;
 import uk.gov.pay.adminusers.service.NotificationService;
@@ -37,6 +44,7 @@ import uk.gov.pay.adminusers.validations.RequestValidations;
 import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
 import java.net.URI;
+import java.time.Duration;
 import java.time.InstantSource;
 import java.util.Properties;
 
@@ -73,13 +81,20 @@ public class AdminUsersModule extends AbstractModule {
         bind(Integer.class).annotatedWith(Names.named("LOGIN_ATTEMPT_CAP")).toInstance(configuration.getLoginAttemptCap());
         bind(SecondFactorAuthenticator.class).in(Singleton.class);
         bind(UserServices.class).in(Singleton.class);
+        bind(AuthenticationRateLimiter.class).in(Singleton.class);
+        bind(GatewayAccountServiceCache.class).in(Singleton.class);
         bind(ExistingUserOtpDispatcher.class).in(Singleton.class);
         bind(ForgottenPasswordServices.class).in(Singleton.class);
         bind(ResetPasswordService.class).in(Singleton.class);
+        bind(ExpungeAndArchiveJobRunner.class).in(Singleton.class);
+        bind(ConnectorTaskPublisher.class).in(Singleton.class);
 
 
         bind(Integer.class).annotatedWith(Names.named("FORGOTTEN_PASSWORD_EXPIRY_MINUTES")).toInstance(configuration.getForgottenPasswordExpiryMinutes());
 
+        if (configuration.getVirtualThreadsConfig().isEnabled()) {
+            bindTransactionPermitInterceptor();
+        }
         install(jpaModule(configuration));
         install(new FactoryModuleBuilder().build(UserServicesFactory.class));
         install(new FactoryModuleBuilder().build(ServiceServicesFactory.class));
@@ -87,6 +102,19 @@ public class AdminUsersModule extends AbstractModule {
 
     }
 
+    /**
+     * Bound before the JPA module's own interceptor so that a permit is held for the whole transaction, including
+     * acquiring its connection.
+     */
+    private void bindTransactionPermitInterceptor() {
+        TransactionPermitInterceptor interceptor = new TransactionPermitInterceptor(
+                configuration.getDataSourceFactory().getMaxSize(),
+                configuration.getVirtualThreadsConfig().getDatabasePermitTimeoutInMillis(),
+                environment.metrics());
+        bindInterceptor(Matchers.annotatedWith(Transactional.class), Matchers.any(), interceptor);
+        bindInterceptor(Matchers.any(), Matchers.annotatedWith(Transactional.class), interceptor);
+    }
+
     private JpaPersistModule jpaModule(AdminUsersConfig configuration) {
         DataSourceFactory dbConfig = configuration.getDataSourceFactory();
         final Properties properties = new Properties();
@@ -98,10 +126,11 @@ public class AdminUsersModule extends AbstractModule {
         JPAConfiguration jpaConfiguration = configuration.getJpaConfiguration();
         properties.put("eclipselink.logging.level", jpaConfiguration.getJpaLoggingLevel());
         properties.put("eclipselink.logging.level.sql", jpaConfiguration.getSqlLoggingLevel());
-        properties.put("eclipselink.query-results-cache", jpaConfiguration.getCacheSharedDefault());
+        properties.put("eclipselink.query-results-cache", jpaConfiguration.getQueryResultsCache());
         properties.put("eclipselink.cache.shared.default", jpaConfiguration.getCacheSharedDefault());
         properties.put("eclipselink.ddl-generation.output-mode", jpaConfiguration.getDdlGenerationOutputMode());
-        properties.put("eclipselink.session.customizer", "uk.gov.pay.adminusers.app.config.AdminUsersSessionCustomiser");
+        properties.put("eclipselink.session.customizer",
+                new AdminUsersSessionCustomiser(jpaConfiguration.getEntityCaches(), environment.metrics()));
 
         final JpaPersistModule jpaModule = new JpaPersistModule("AdminUsersUnit");
         jpaModule.properties(properties);
@@ -110,12 +139,16 @@ public class AdminUsersModule extends AbstractModule {
     }
 
     @Provides
-    public NotificationService provideUserNotificationService() {
+    @Singleton
+    public NotificationService provideUserNotificationService(NotificationOutboxDao notificationOutboxDao) {
         return new NotificationService(
                 new NotifyClientProvider(configuration.getNotifyConfiguration()),
                 configuration.getNotifyConfiguration(),
                 configuration.getNotifyDirectDebitConfiguration(),
-                environment.metrics());
+                environment.metrics(),
+                configuration.getNotificationOutboxConfig().isEnabled() ? notificationOutboxDao : null,
+                Duration.ofMillis(secondFactorAuthConfig.getValidTimeWindows() * secondFactorAuthConfig.getTimeWindowInMillis()),
+                Duration.ofMinutes(configuration.getForgottenPasswordExpiryMinutes()));
     }
 
     @Provides
@@ -1,18 +1,120 @@
 package uk.gov.pay.adminusers.app.config;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import org.eclipse.persistence.config.CacheIsolationType;
 import org.eclipse.persistence.config.SessionCustomizer;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
 import org.eclipse.persistence.sessions.DatabaseLogin;
 import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 public class AdminUsersSessionCustomiser implements SessionCustomizer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdminUsersSessionCustomiser.class);
+
     private static final int QUERY_RETRY_ATTEMPT_COUNT_ZERO_BASED_INDEX = 0;
     private static final int DELAY_BETWEEN_CONNECTION_ATTEMPTS_MILLIS = 2000;
 
+    private final Map<String, EntityCacheConfig> entityCaches;
+    private final MetricRegistry metricRegistry;
+
+    public AdminUsersSessionCustomiser() {
+        this(Map.of(), null);
+    }
+
+    public AdminUsersSessionCustomiser(Map<String, EntityCacheConfig> entityCaches, MetricRegistry metricRegistry) {
+        this.entityCaches = entityCaches;
+        this.metricRegistry = metricRegistry;
+    }
+
     @Override
     public void customize(Session session) {
         DatabaseLogin datasourceLogin = (DatabaseLogin) session.getDatasourceLogin();
         datasourceLogin.setQueryRetryAttemptCount(QUERY_RETRY_ATTEMPT_COUNT_ZERO_BASED_INDEX);
         datasourceLogin.setDelayBetweenConnectionAttempts(DELAY_BETWEEN_CONNECTION_ATTEMPTS_MILLIS);
+
+        Map<String, CacheCounters> cacheCounters = new HashMap<>();
+        entityCaches.forEach((entityName, cacheConfig) -> {
+            if (cacheConfig.isEnabled()) {
+                enableSharedCache(session, entityName, cacheConfig);
+                if (metricRegistry != null) {
+                    cacheCounters.put(entityName, new CacheCounters(
+                            metricRegistry.counter(format("jpa-cache.%s.hits", entityName)),
+                            metricRegistry.counter(format("jpa-cache.%s.misses", entityName))));
+                }
+            }
+        });
+
+        if (!cacheCounters.isEmpty()) {
+            session.setProfiler(new CacheHitMissProfiler(cacheCounters));
+        }
+    }
+
+    private static void enableSharedCache(Session session, String entityName, EntityCacheConfig cacheConfig) {
+        ClassDescriptor descriptor = session.getDescriptorForAlias(entityName);
+        if (descriptor == null) {
+            throw new IllegalArgumentException(format("Cannot configure shared cache for unknown entity [%s]", entityName));
+        }
+
+        descriptor.setCacheIsolation(CacheIsolationType.SHARED);
+        descriptor.setIdentityMapSize(cacheConfig.getSize());
+        if (cacheConfig.getExpiryInSeconds() > 0) {
+            descriptor.setCacheInvalidationPolicy(new TimeToLiveCacheInvalidationPolicy(cacheConfig.getExpiryInSeconds() * 1000));
+        }
+
+        LOGGER.info("Enabled shared cache for entity",
+                kv("entity", entityName),
+                kv("size", cacheConfig.getSize()),
+                kv("expiry_in_seconds", cacheConfig.getExpiryInSeconds()));
+    }
+
+    private record CacheCounters(Counter hits, Counter misses) {
+    }
+
+    /**
+     * Only listens for the cache hit and miss events EclipseLink raises when resolving an object by primary key,
+     * so the remaining profiling hooks stay no-ops.
+     */
+    private static class CacheHitMissProfiler extends SessionProfilerAdapter {
+
+        private final Map<String, CacheCounters> cacheCounters;
+
+        CacheHitMissProfiler(Map<String, CacheCounters> cacheCounters) {
+            this.cacheCounters = cacheCounters;
+        }
+
+        @Override
+        public int getProfileWeight() {
+            return SessionProfiler.ALL;
+        }
+
+        @Override
+        public void occurred(String operationName, DatabaseQuery query, AbstractSession session) {
+            if (query == null || query.getDescriptor() == null) {
+                return;
+            }
+            CacheCounters counters = cacheCounters.get(query.getDescriptor().getAlias());
+            if (counters == null) {
+                return;
+            }
+            if (SessionProfiler.CacheHits.equals(operationName)) {
+                counters.hits().inc();
+            } else if (SessionProfiler.CacheMisses.equals(operationName)) {
+                counters.misses().inc();
+            }
+        }
     }
 }
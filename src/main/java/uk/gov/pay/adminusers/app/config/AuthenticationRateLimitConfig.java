@@ -0,0 +1,59 @@
+package uk.gov.pay.adminusers.app.config;
+
+import jakarta.validation.constraints.Min;
+
+public class AuthenticationRateLimitConfig {
+
+    private boolean globalLimitEnabled = true;
+
+    @Min(1)
+    private int globalBurstCapacity = 100;
+
+    @Min(1)
+    private int globalAttemptsPerSecond = 20;
+
+    private boolean emailLimitEnabled = false;
+
+    @Min(1)
+    private int emailBurstCapacity = 10;
+
+    @Min(1)
+    private int emailAttemptsPerMinute = 5;
+
+    @Min(1)
+    private long maximumTrackedKeys = 10_000;
+
+    public boolean isGlobalLimitEnabled() {
+        return globalLimitEnabled;
+    }
+
+    /**
+     * The number of authentication attempts this instance will start at once before the global limit applies.
+     */
+    public int getGlobalBurstCapacity() {
+        return globalBurstCapacity;
+    }
+
+    /**
+     * The sustained number of authentication attempts per second this instance allows across all email addresses.
+     */
+    public int getGlobalAttemptsPerSecond() {
+        return globalAttemptsPerSecond;
+    }
+
+    public boolean isEmailLimitEnabled() {
+        return emailLimitEnabled;
+    }
+
+    public int getEmailBurstCapacity() {
+        return emailBurstCapacity;
+    }
+
+    public int getEmailAttemptsPerMinute() {
+        return emailAttemptsPerMinute;
+    }
+
+    public long getMaximumTrackedKeys() {
+        return maximumTrackedKeys;
+    }
+}
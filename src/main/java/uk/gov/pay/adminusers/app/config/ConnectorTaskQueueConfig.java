@@ -1,10 +1,57 @@
 package uk.gov.pay.adminusers.app.config;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
 public class ConnectorTaskQueueConfig {
 
-    private int failedMessageRetryDelayInSeconds;
-    
-    public int getFailedMessageRetryDelayInSeconds() {
-        return failedMessageRetryDelayInSeconds;
+    @Min(1)
+    @Max(10)
+    private int batchSize = 10;
+
+    @Min(1)
+    private long maxBatchDelayInMillis = 200;
+
+    @Min(1)
+    private int maxSendAttempts = 10;
+
+    @Min(1)
+    private long initialRetryDelayInMillis = 1000;
+
+    @Min(1)
+    private long maxRetryDelayInMillis = 60000;
+
+    /**
+     * The most tasks sent in one SQS {@code SendMessageBatch} call; SQS accepts no more than 10.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * The longest a task waits to be sent when fewer than {@code batchSize} tasks are waiting.
+     */
+    public long getMaxBatchDelayInMillis() {
+        return maxBatchDelayInMillis;
+    }
+
+    /**
+     * How many times a task is sent before it is abandoned. Tasks SQS rejects as invalid are not retried.
+     */
+    public int getMaxSendAttempts() {
+        return maxSendAttempts;
+    }
+
+    /**
+     * The delay before a task SQS failed to accept is first retried, which doubles with each further attempt up to
+     * {@code maxRetryDelayInMillis}. With the defaults a task is retried for about four minutes before it is
+     * abandoned.
+     */
+    public long getInitialRetryDelayInMillis() {
+        return initialRetryDelayInMillis;
+    }
+
+    public long getMaxRetryDelayInMillis() {
+        return maxRetryDelayInMillis;
     }
 }
@@ -0,0 +1,26 @@
+package uk.gov.pay.adminusers.app.config;
+
+import jakarta.validation.constraints.Min;
+
+public class EntityCacheConfig {
+
+    private boolean enabled;
+
+    @Min(1)
+    private int size = 100;
+
+    @Min(0)
+    private long expiryInSeconds;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getExpiryInSeconds() {
+        return expiryInSeconds;
+    }
+}
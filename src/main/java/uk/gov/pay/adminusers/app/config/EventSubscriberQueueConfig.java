@@ -1,5 +1,7 @@
 package uk.gov.pay.adminusers.app.config;
 
+import jakarta.validation.constraints.Min;
+
 public class EventSubscriberQueueConfig {
 
     private Boolean eventSubscriberQueueEnabled;
@@ -7,6 +9,9 @@ public class EventSubscriberQueueConfig {
     private int queueSchedulerThreadDelayInMilliseconds;
     private int failedMessageRetryDelayInSeconds;
     private int queueSchedulerShutdownTimeoutInSeconds;
+    private int maxInFlightMessages;
+    @Min(1)
+    private int numberOfPollers = 1;
 
     public Boolean getEventSubscriberQueueEnabled() {
         return eventSubscriberQueueEnabled;
@@ -27,4 +32,16 @@ public class EventSubscriberQueueConfig {
     public int getQueueSchedulerShutdownTimeoutInSeconds() {
         return queueSchedulerShutdownTimeoutInSeconds;
     }
+
+    public int getMaxInFlightMessages() {
+        return maxInFlightMessages;
+    }
+
+    /**
+     * How many threads poll the queue concurrently. Each poll receives up to {@code sqs.messageMaximumBatchSize}
+     * messages, so more pollers raise throughput when messages are handled faster than one long poll returns them.
+     */
+    public int getNumberOfPollers() {
+        return numberOfPollers;
+    }
 }
@@ -1,5 +1,6 @@
 package uk.gov.pay.adminusers.app.config;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 public class ExpungeAndArchiveDataConfig {
@@ -13,6 +14,18 @@ public class ExpungeAndArchiveDataConfig {
     @NotNull
     private int archiveServicesAfterDays;
 
+    @Min(1)
+    private int archiveServicesBatchSize = 100;
+
+    @Min(1)
+    private int ledgerLookupConcurrency = 5;
+
+    @Min(1)
+    private int deleteBatchSize = 1000;
+
+    @Min(0)
+    private long pauseBetweenDeleteBatchesInMillis = 100;
+
     public boolean isExpungeAndArchiveHistoricalDataEnabled() {
         return expungeAndArchiveHistoricalDataEnabled;
     }
@@ -24,4 +37,26 @@ public class ExpungeAndArchiveDataConfig {
     public int getArchiveServicesAfterDays() {
         return archiveServicesAfterDays;
     }
+
+    public int getArchiveServicesBatchSize() {
+        return archiveServicesBatchSize;
+    }
+
+    public int getLedgerLookupConcurrency() {
+        return ledgerLookupConcurrency;
+    }
+
+    /**
+     * The most invites, forgotten passwords or users deleted in one transaction.
+     */
+    public int getDeleteBatchSize() {
+        return deleteBatchSize;
+    }
+
+    /**
+     * How long to wait between delete transactions, so that the job does not hold on to the database.
+     */
+    public long getPauseBetweenDeleteBatchesInMillis() {
+        return pauseBetweenDeleteBatchesInMillis;
+    }
 }
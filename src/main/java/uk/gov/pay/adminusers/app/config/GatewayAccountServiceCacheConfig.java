@@ -0,0 +1,26 @@
+package uk.gov.pay.adminusers.app.config;
+
+import jakarta.validation.constraints.Min;
+
+public class GatewayAccountServiceCacheConfig {
+
+    private boolean enabled = true;
+
+    @Min(1)
+    private long maximumSize = 10_000;
+
+    @Min(1)
+    private long expireAfterWriteInSeconds = 60;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getExpireAfterWriteInSeconds() {
+        return expireAfterWriteInSeconds;
+    }
+}
@@ -3,6 +3,9 @@ package uk.gov.pay.adminusers.app.config;
 
 import io.dropwizard.core.Configuration;
 
+import jakarta.validation.Valid;
+import java.util.Map;
+
 public class JPAConfiguration extends Configuration {
 
     private String jpaLoggingLevel;
@@ -11,6 +14,13 @@ public class JPAConfiguration extends Configuration {
     private String queryResultsCache;
     private String cacheSharedDefault;
 
+    /**
+     * Shared (L2) cache settings keyed by entity name, for read-only reference data such as
+     * {@code RoleEntity} and {@code PermissionEntity}. Entities not listed follow {@code cacheSharedDefault}.
+     */
+    @Valid
+    private Map<String, EntityCacheConfig> entityCaches = Map.of();
+
     public String getJpaLoggingLevel() {
         return jpaLoggingLevel;
     }
@@ -30,4 +40,8 @@ public class JPAConfiguration extends Configuration {
     public String getCacheSharedDefault() {
         return cacheSharedDefault;
     }
+
+    public Map<String, EntityCacheConfig> getEntityCaches() {
+        return entityCaches;
+    }
 }
@@ -0,0 +1,82 @@
+package uk.gov.pay.adminusers.app.config;
+
+import jakarta.validation.constraints.Min;
+
+public class NotificationOutboxConfig {
+
+    private boolean enabled = true;
+
+    @Min(1)
+    private long pollIntervalInMillis = 500;
+
+    @Min(1)
+    private int batchSize = 20;
+
+    @Min(1)
+    private long leaseInSeconds = 60;
+
+    @Min(1)
+    private int maxAttempts = 10;
+
+    @Min(1)
+    private long initialRetryDelayInSeconds = 5;
+
+    @Min(1)
+    private long maxRetryDelayInSeconds = 1800;
+
+    @Min(1)
+    private long backlogMetricsIntervalInSeconds = 60;
+
+    /**
+     * Whether user notifications are written to the outbox and sent in the background. When disabled they are sent
+     * to Notify on the request thread.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getPollIntervalInMillis() {
+        return pollIntervalInMillis;
+    }
+
+    /**
+     * The most notifications claimed by a single poll of the outbox.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * How long a claimed notification is hidden from other pollers while it is being sent.
+     */
+    public long getLeaseInSeconds() {
+        return leaseInSeconds;
+    }
+
+    /**
+     * How many times a notification is tried before it is abandoned.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * The delay before the first retry, which doubles with each further attempt up to
+     * {@code maxRetryDelayInSeconds}.
+     */
+    public long getInitialRetryDelayInSeconds() {
+        return initialRetryDelayInSeconds;
+    }
+
+    public long getMaxRetryDelayInSeconds() {
+        return maxRetryDelayInSeconds;
+    }
+
+    /**
+     * How often the backlog and oldest age gauges are refreshed. Each refresh counts the outbox, so this is kept
+     * well above {@code pollIntervalInMillis}.
+     */
+    public long getBacklogMetricsIntervalInSeconds() {
+        return backlogMetricsIntervalInSeconds;
+    }
+}
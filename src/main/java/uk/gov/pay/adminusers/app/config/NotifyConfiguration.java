@@ -3,6 +3,7 @@ package uk.gov.pay.adminusers.app.config;
 import io.dropwizard.core.Configuration;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 public class NotifyConfiguration extends Configuration {
@@ -83,6 +84,12 @@ public class NotifyConfiguration extends Configuration {
     @NotNull
     private String notifyEmailReplyToSupportId;
 
+    @Min(1)
+    private int maxConcurrentRequests;
+
+    @Min(0)
+    private long maxConcurrentRequestsWaitTimeoutInMillis;
+
     public String getCardApiKey() {
         return cardApiKey;
     }
@@ -158,4 +165,19 @@ public class NotifyConfiguration extends Configuration {
     public String getNotifyEmailReplyToSupportId() {
         return notifyEmailReplyToSupportId;
     }
+
+    /**
+     * The most requests to Notify in flight at once across the application. This limits concurrency only; the Notify
+     * client sends its requests with {@code HttpURLConnection}, whose connections are managed by the JDK.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * How long a request waits for one of the {@code maxConcurrentRequests} to finish before failing.
+     */
+    public long getMaxConcurrentRequestsWaitTimeoutInMillis() {
+        return maxConcurrentRequestsWaitTimeoutInMillis;
+    }
 }
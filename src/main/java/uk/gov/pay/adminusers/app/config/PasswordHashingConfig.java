@@ -0,0 +1,23 @@
+package uk.gov.pay.adminusers.app.config;
+
+import jakarta.validation.constraints.Min;
+
+public class PasswordHashingConfig {
+
+    @Min(0)
+    private int numberOfThreads = 0;
+
+    @Min(0)
+    private int maxQueueSize = 50;
+
+    /**
+     * The number of threads that run BCrypt, or 0 to use one per available processor.
+     */
+    public int getNumberOfThreads() {
+        return numberOfThreads > 0 ? numberOfThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+}
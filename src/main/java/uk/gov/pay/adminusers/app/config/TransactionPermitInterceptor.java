@@ -0,0 +1,76 @@
+package uk.gov.pay.adminusers.app.config;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static uk.gov.pay.adminusers.service.AdminUsersExceptions.databaseUnavailable;
+
+/**
+ * Limits the number of {@code @Transactional} calls in progress at once. Without a bounded request thread pool
+ * there is nothing else stopping every in-flight request from queueing on the database, so each outermost
+ * transaction takes a permit before it starts and releases it when it finishes; nested transactional calls on the
+ * same thread run under the permit their caller already holds.
+ */
+public class TransactionPermitInterceptor implements MethodInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionPermitInterceptor.class);
+    private static final String METRIC_PREFIX = "database-permits";
+
+    private final ThreadLocal<Boolean> holdsPermit = ThreadLocal.withInitial(() -> false);
+    private final Semaphore permits;
+    private final long timeoutInMillis;
+    private final Timer waitTime;
+    private final Meter rejections;
+
+    public TransactionPermitInterceptor(int numberOfPermits, long timeoutInMillis, MetricRegistry metricRegistry) {
+        this.permits = new Semaphore(numberOfPermits, true);
+        this.timeoutInMillis = timeoutInMillis;
+        this.waitTime = metricRegistry.timer(METRIC_PREFIX + ".wait_time");
+        this.rejections = metricRegistry.meter(METRIC_PREFIX + ".rejected");
+        metricRegistry.gauge(METRIC_PREFIX + ".in_use", () -> (Gauge<Integer>) () -> numberOfPermits - permits.availablePermits());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (holdsPermit.get()) {
+            return invocation.proceed();
+        }
+
+        acquirePermit(invocation);
+        holdsPermit.set(true);
+        try {
+            return invocation.proceed();
+        } finally {
+            holdsPermit.remove();
+            permits.release();
+        }
+    }
+
+    private void acquirePermit(MethodInvocation invocation) {
+        boolean acquired;
+        try (Timer.Context ignored = waitTime.time()) {
+            acquired = permits.tryAcquire(timeoutInMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw databaseUnavailable();
+        }
+
+        if (!acquired) {
+            rejections.mark();
+            LOGGER.warn("Rejected transaction as no database permit became available",
+                    kv("method", invocation.getMethod().getDeclaringClass().getSimpleName() + "." + invocation.getMethod().getName()),
+                    kv("timeout_in_millis", timeoutInMillis));
+            throw databaseUnavailable();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package uk.gov.pay.adminusers.app.config;
+
+import jakarta.validation.constraints.Min;
+
+public class VirtualThreadsConfig {
+
+    private boolean enabled = false;
+
+    @Min(0)
+    private long databasePermitTimeoutInMillis = 30000;
+
+    /**
+     * Whether Jetty should run requests on virtual threads. When enabled, transactions are limited to
+     * {@code database.maxSize} at a time so that the number of requests in flight is no longer bounded by the
+     * server's thread pool but the database still is.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * How long a transaction waits for one of the {@code database.maxSize} permits before failing with a 503.
+     */
+    public long getDatabasePermitTimeoutInMillis() {
+        return databasePermitTimeoutInMillis;
+    }
+}
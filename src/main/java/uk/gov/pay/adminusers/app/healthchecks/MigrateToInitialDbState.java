@@ -28,6 +28,10 @@ public class MigrateToInitialDbState extends ConfiguredCommand<AdminUsersConfig>
 
     @Override
     protected void run(Bootstrap<AdminUsersConfig> bootstrap, Namespace namespace, AdminUsersConfig configuration) {
+        migrateIfRequired(configuration);
+    }
+
+    static void migrateIfRequired(AdminUsersConfig configuration) {
         try (Connection connection = getDatabaseConnection(configuration);
              PreparedStatement statement = connection.prepareStatement("select exists (select * from pg_tables where tablename='users')");
              ResultSet resultSet = statement.executeQuery()) {
@@ -46,7 +50,7 @@ public class MigrateToInitialDbState extends ConfiguredCommand<AdminUsersConfig>
         }
     }
 
-    private void performInitialMigration(Connection connection) {
+    private static void performInitialMigration(Connection connection) {
         try {
             Liquibase migrator = new Liquibase("config/initial-db-state.xml", new ClassLoaderResourceAccessor(), new JdbcConnection(connection));
             migrator.update("");
@@ -56,7 +60,7 @@ public class MigrateToInitialDbState extends ConfiguredCommand<AdminUsersConfig>
         }
     }
 
-    private Connection getDatabaseConnection(AdminUsersConfig configuration) throws SQLException {
+    static Connection getDatabaseConnection(AdminUsersConfig configuration) throws SQLException {
         return DriverManager.getConnection(
                 configuration.getDataSourceFactory().getUrl(),
                 configuration.getDataSourceFactory().getUser(),
@@ -0,0 +1,44 @@
+package uk.gov.pay.adminusers.app.healthchecks;
+
+import io.dropwizard.core.cli.EnvironmentCommand;
+import io.dropwizard.core.setup.Bootstrap;
+import io.dropwizard.core.setup.Environment;
+import net.sourceforge.argparse4j.inf.Namespace;
+import org.eclipse.jetty.server.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.adminusers.app.AdminUsersApp;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+
+/**
+ * Starts the application's server and stops it again as soon as it is running. The application is run with its
+ * background work disabled, so the database metrics collector, queue receiver, notification outbox dispatcher and
+ * connector task publisher are never started, and nothing else connects to the database or SQS until a request is
+ * served. The Dockerfile uses it as the training run that records the ahead-of-time class cache used by
+ * {@code docker-startup.sh}, with placeholder config for everything the application needs to start.
+ */
+public class StartAndStopCommand extends EnvironmentCommand<AdminUsersConfig> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartAndStopCommand.class);
+
+    private final AdminUsersApp application;
+
+    public StartAndStopCommand(AdminUsersApp application) {
+        super(application, "startAndStop", "Starts the HTTP server and stops it again once it has started");
+        this.application = application;
+    }
+
+    @Override
+    protected void run(Bootstrap<AdminUsersConfig> bootstrap, Namespace namespace, AdminUsersConfig configuration) throws Exception {
+        application.disableBackgroundWork();
+        super.run(bootstrap, namespace, configuration);
+    }
+
+    @Override
+    protected void run(Environment environment, Namespace namespace, AdminUsersConfig configuration) throws Exception {
+        Server server = configuration.getServerFactory().build(environment);
+        server.start();
+        LOGGER.info("Server started, stopping");
+        server.stop();
+    }
+}
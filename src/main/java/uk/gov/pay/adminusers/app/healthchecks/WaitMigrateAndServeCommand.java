@@ -0,0 +1,67 @@
+package uk.gov.pay.adminusers.app.healthchecks;
+
+import io.dropwizard.core.Application;
+import io.dropwizard.core.cli.ServerCommand;
+import io.dropwizard.core.setup.Bootstrap;
+import liquibase.Liquibase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.service.payments.commons.utils.startup.ApplicationStartupDependentResourceChecker;
+import uk.gov.service.payments.commons.utils.startup.DatabaseStartupResource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Does the work of {@code waitOnDependencies}, then (with {@code --migrate}) {@code migrateToInitialDbState} and
+ * {@code db migrate}, then {@code server}, all in one JVM so that the shaded jar is only loaded and warmed up once.
+ */
+public class WaitMigrateAndServeCommand extends ServerCommand<AdminUsersConfig> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WaitMigrateAndServeCommand.class);
+    private static final String MIGRATE = "migrate";
+
+    public WaitMigrateAndServeCommand(Application<AdminUsersConfig> application) {
+        super(application, "waitMigrateAndServe",
+                "Waits for the database, optionally migrates it and then runs the application as an HTTP server");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+        subparser.addArgument("--migrate")
+                .dest(MIGRATE)
+                .action(Arguments.storeTrue())
+                .help("Migrate the database before starting the server");
+    }
+
+    @Override
+    protected void run(Bootstrap<AdminUsersConfig> bootstrap, Namespace namespace, AdminUsersConfig configuration) throws Exception {
+        new ApplicationStartupDependentResourceChecker(new DatabaseStartupResource(configuration.getDataSourceFactory()))
+                .checkAndWaitForResource();
+
+        if (namespace.getBoolean(MIGRATE)) {
+            MigrateToInitialDbState.migrateIfRequired(configuration);
+            migrate(configuration);
+        }
+
+        super.run(bootstrap, namespace, configuration);
+    }
+
+    private static void migrate(AdminUsersConfig configuration) {
+        try (Connection connection = MigrateToInitialDbState.getDatabaseConnection(configuration)) {
+            new Liquibase("migrations.xml", new ClassLoaderResourceAccessor(), new JdbcConnection(connection)).update("");
+            LOGGER.info("Database migrations applied");
+        } catch (SQLException | LiquibaseException e) {
+            LOGGER.error("Error applying database migrations", e);
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -2,51 +2,86 @@ package uk.gov.pay.adminusers.expungeandarchive.resource;
 
 import com.google.inject.Inject;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.MDC;
-import uk.gov.pay.adminusers.expungeandarchive.service.ExpungeAndArchiveHistoricalDataService;
+import uk.gov.pay.adminusers.expungeandarchive.service.ExpungeAndArchiveJob;
+import uk.gov.pay.adminusers.expungeandarchive.service.ExpungeAndArchiveJobRunner;
 
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import java.util.UUID;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static jakarta.ws.rs.core.Response.Status.CONFLICT;
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
 import static uk.gov.service.payments.logging.LoggingKeys.MDC_REQUEST_ID_KEY;
 
 @Path("/v1/tasks")
 @Tag(name = "Tasks")
 public class ExpungeAndArchiveHistoricalDataResource {
 
-    private final ExpungeAndArchiveHistoricalDataService expungeAndArchiveHistoricalDataService;
+    private final ExpungeAndArchiveJobRunner expungeAndArchiveJobRunner;
 
     @Inject
-    public ExpungeAndArchiveHistoricalDataResource(ExpungeAndArchiveHistoricalDataService expungeAndArchiveHistoricalDataService) {
-        this.expungeAndArchiveHistoricalDataService = expungeAndArchiveHistoricalDataService;
+    public ExpungeAndArchiveHistoricalDataResource(ExpungeAndArchiveJobRunner expungeAndArchiveJobRunner) {
+        this.expungeAndArchiveJobRunner = expungeAndArchiveJobRunner;
     }
+
     @POST
     @Produces(APPLICATION_JSON)
     @Operation(
-            summary = "Deletes and archives historical data based on `expungeAndArchiveDataConfig`. " +
+            summary = "Starts a background job that deletes and archives historical data based on `expungeAndArchiveDataConfig`. " +
                     "Currently,  " +
                     " 1. deletes historical users not attached to any service" +
                     " 2. deletes historical invites" +
                     " 3. deletes forgotten passwords" +
-                    " 4. archives services without transactions within the configured number of days and detaches users from service",
+                    " 4. archives services without transactions within the configured number of days and detaches users from service. " +
+                    "Returns the job, whose progress can be followed at the URL in the Location header.",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "OK"),
+                    @ApiResponse(responseCode = "202", description = "Job queued",
+                            content = @Content(schema = @Schema(implementation = ExpungeAndArchiveJob.class))),
+                    @ApiResponse(responseCode = "409", description = "A job is already queued or running",
+                            content = @Content(schema = @Schema(implementation = ExpungeAndArchiveJob.class))),
             }
     )
     @Path("/expunge-and-archive-historical-data")
-    public Response expungeAndArchiveHistoricalData() {
+    public Response expungeAndArchiveHistoricalData(@Context UriInfo uriInfo) {
         String correlationId = MDC.get(MDC_REQUEST_ID_KEY) == null ? "ExpungeAndArchiveHistoricalDataResource-" + UUID.randomUUID() : MDC.get(MDC_REQUEST_ID_KEY);
-        MDC.put(MDC_REQUEST_ID_KEY, correlationId);
 
-        expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
+        return expungeAndArchiveJobRunner.submit(correlationId)
+                .map(job -> Response.accepted(job)
+                        .location(uriInfo.getBaseUriBuilder().path("/v1/tasks/{jobId}").build(job.getJobId()))
+                        .build())
+                .orElseGet(() -> expungeAndArchiveJobRunner.getCurrentJob()
+                        .map(job -> Response.status(CONFLICT).entity(job).build())
+                        .orElseGet(() -> Response.status(CONFLICT).build()));
+    }
 
-        MDC.remove(MDC_REQUEST_ID_KEY);
-        return Response.ok().build();
+    @GET
+    @Produces(APPLICATION_JSON)
+    @Operation(
+            summary = "Get the phase, rows processed, rate and errors of an expunge and archive historical data job. " +
+                    "Jobs are only known to the instance that ran them.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(schema = @Schema(implementation = ExpungeAndArchiveJob.class))),
+                    @ApiResponse(responseCode = "404", description = "Not found")
+            }
+    )
+    @Path("/{jobId}")
+    public Response getJob(@Parameter(example = "8a2ebc3f1c6e4ad2b6dbe5a0d2f1c7e9") @PathParam("jobId") String jobId) {
+        return expungeAndArchiveJobRunner.getJob(jobId)
+                .map(job -> Response.ok(job).build())
+                .orElseGet(() -> Response.status(NOT_FOUND).build());
     }
 }
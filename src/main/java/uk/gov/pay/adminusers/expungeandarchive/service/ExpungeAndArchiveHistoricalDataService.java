@@ -1,6 +1,9 @@
 package uk.gov.pay.adminusers.expungeandarchive.service;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,33 +13,44 @@ import uk.gov.pay.adminusers.app.config.ExpungeAndArchiveDataConfig;
 import uk.gov.pay.adminusers.client.ledger.exception.LedgerException;
 import uk.gov.pay.adminusers.client.ledger.model.LedgerSearchTransactionsResponse;
 import uk.gov.pay.adminusers.client.ledger.service.LedgerService;
+import uk.gov.pay.adminusers.expungeandarchive.service.ExpungeAndArchiveJob.Phase;
+import uk.gov.pay.adminusers.persistence.dao.DeletedBatch;
 import uk.gov.pay.adminusers.persistence.dao.ForgottenPasswordDao;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
 import uk.gov.pay.adminusers.persistence.dao.ServiceRoleDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
+import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
-import uk.gov.pay.adminusers.persistence.entity.ServiceRoleEntity;
-import uk.gov.pay.adminusers.queue.ConnectorTaskQueue;
+import uk.gov.pay.adminusers.queue.ConnectorTaskPublisher;
 import uk.gov.pay.adminusers.queue.model.ConnectorTask;
 import uk.gov.pay.adminusers.queue.model.ServiceArchivedTaskData;
+import uk.gov.pay.adminusers.service.GatewayAccountServiceCache;
 
 import java.time.InstantSource;
 import java.time.ZonedDateTime;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static java.lang.String.format;
 import static java.time.ZoneOffset.UTC;
 import static java.time.temporal.ChronoUnit.DAYS;
 import static net.logstash.logback.argument.StructuredArguments.kv;
+import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 import static uk.gov.service.payments.logging.LoggingKeys.SERVICE_EXTERNAL_ID;
 import static uk.gov.service.payments.logging.LoggingKeys.USER_EXTERNAL_ID;
 
 public class ExpungeAndArchiveHistoricalDataService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ExpungeAndArchiveHistoricalDataService.class);
+    private static final String LEDGER_LOOKUP_THREAD_NAME = "expunge-and-archive-ledger-lookup-%d";
     private final UserDao userDao;
     private final InviteDao inviteDao;
     private final ForgottenPasswordDao forgottenPasswordDao;
@@ -44,8 +58,9 @@ public class ExpungeAndArchiveHistoricalDataService {
     private final ServiceRoleDao serviceRoleDao;
     private final LedgerService ledgerService;
     private final ExpungeAndArchiveDataConfig expungeAndArchiveDataConfig;
-    private final ConnectorTaskQueue connectorTaskQueue;
+    private final ConnectorTaskPublisher connectorTaskPublisher;
     private final InstantSource instantSource;
+    private final GatewayAccountServiceCache gatewayAccountServiceCache;
 
     private static final Histogram duration = Histogram.build()
             .name("expunge_and_archive_historical_data_job_duration_seconds")
@@ -53,15 +68,63 @@ public class ExpungeAndArchiveHistoricalDataService {
             .unit("seconds")
             .register();
 
-    @Inject
+    private static final Histogram ledgerLookupDuration = Histogram.build()
+            .name("expunge_and_archive_ledger_lookup_duration_seconds")
+            .help("Duration of ledger requests for the last transaction of a gateway account when checking services for archiving")
+            .unit("seconds")
+            .register();
+
+    private static final Histogram deleteBatchDuration = Histogram.build()
+            .name("expunge_and_archive_delete_batch_duration_seconds")
+            .help("Duration of each transaction deleting a batch of historical invites, forgotten passwords or users")
+            .labelNames("table")
+            .unit("seconds")
+            .register();
+
+    private static final Counter rowsDeleted = Counter.build()
+            .name("expunge_and_archive_rows_deleted_total")
+            .help("Number of historical invites, forgotten passwords or users deleted")
+            .labelNames("table")
+            .register();
+
+    private static final Histogram detachUsersDuration = Histogram.build()
+            .name("expunge_and_archive_detach_users_duration_seconds")
+            .help("Duration of removing all users from a service being archived")
+            .unit("seconds")
+            .register();
+
+    private static final Counter servicesChecked = Counter.build()
+            .name("expunge_and_archive_services_checked_total")
+            .help("Number of services checked for archiving")
+            .register();
+
+    private static final Gauge servicesRemainingToCheck = Gauge.build()
+            .name("expunge_and_archive_services_remaining_to_check")
+            .help("Number of services still to be checked for archiving by the running job")
+            .register();
+
     public ExpungeAndArchiveHistoricalDataService(UserDao userDao, InviteDao inviteDao,
                                                   ForgottenPasswordDao forgottenPasswordDao,
                                                   ServiceDao serviceDao,
                                                   ServiceRoleDao serviceRoleDao,
                                                   LedgerService ledgerService,
                                                   AdminUsersConfig adminUsersConfig,
-                                                  ConnectorTaskQueue connectorTaskQueue,
+                                                  ConnectorTaskPublisher connectorTaskPublisher,
                                                   InstantSource instantSource) {
+        this(userDao, inviteDao, forgottenPasswordDao, serviceDao, serviceRoleDao, ledgerService, adminUsersConfig,
+                connectorTaskPublisher, instantSource, GatewayAccountServiceCache.disabled());
+    }
+
+    @Inject
+    public ExpungeAndArchiveHistoricalDataService(UserDao userDao, InviteDao inviteDao,
+                                                  ForgottenPasswordDao forgottenPasswordDao,
+                                                  ServiceDao serviceDao,
+                                                  ServiceRoleDao serviceRoleDao,
+                                                  LedgerService ledgerService,
+                                                  AdminUsersConfig adminUsersConfig,
+                                                  ConnectorTaskPublisher connectorTaskPublisher,
+                                                  InstantSource instantSource,
+                                                  GatewayAccountServiceCache gatewayAccountServiceCache) {
         this.userDao = userDao;
         this.inviteDao = inviteDao;
         this.forgottenPasswordDao = forgottenPasswordDao;
@@ -69,22 +132,40 @@ public class ExpungeAndArchiveHistoricalDataService {
         this.serviceRoleDao = serviceRoleDao;
         this.ledgerService = ledgerService;
         this.expungeAndArchiveDataConfig = adminUsersConfig.getExpungeAndArchiveDataConfig();
-        this.connectorTaskQueue = connectorTaskQueue;
+        this.connectorTaskPublisher = connectorTaskPublisher;
         this.instantSource = instantSource;
+        this.gatewayAccountServiceCache = gatewayAccountServiceCache;
     }
 
     public void expungeAndArchiveHistoricalData() {
+        expungeAndArchiveHistoricalData(new ExpungeAndArchiveJob(randomUuid(), instantSource));
+    }
+
+    /**
+     * Runs the job, recording its phase, the rows it has deleted, the services it has checked and any services it
+     * could not check in {@code job}.
+     */
+    public void expungeAndArchiveHistoricalData(ExpungeAndArchiveJob job) {
         Histogram.Timer responseTimeTimer = duration.startTimer();
 
         try {
             if (expungeAndArchiveDataConfig.isExpungeAndArchiveHistoricalDataEnabled()) {
                 ZonedDateTime deleteUsersAndRelatedDataBeforeDate = getDeleteUsersAndRelatedDataBeforeDate();
 
-                int noOfInvitesDeleted = inviteDao.deleteInvites(deleteUsersAndRelatedDataBeforeDate);
-                int noOfForgottenPasswordsDeleted = forgottenPasswordDao.deleteForgottenPasswords(deleteUsersAndRelatedDataBeforeDate);
-                int noOfUsersDeleted = userDao.deleteUsersNotAssociatedWithAnyService(deleteUsersAndRelatedDataBeforeDate.toInstant());
+                job.startPhase(Phase.DELETING_INVITES);
+                int noOfInvitesDeleted = deleteInBatches("invites", job, (afterId, batchSize) ->
+                        inviteDao.deleteInvites(deleteUsersAndRelatedDataBeforeDate, afterId, batchSize));
 
-                int noOfServicesArchived = archiveServices();
+                job.startPhase(Phase.DELETING_FORGOTTEN_PASSWORDS);
+                int noOfForgottenPasswordsDeleted = deleteInBatches("forgotten_passwords", job, (afterId, batchSize) ->
+                        forgottenPasswordDao.deleteForgottenPasswords(deleteUsersAndRelatedDataBeforeDate, afterId, batchSize));
+
+                job.startPhase(Phase.DELETING_USERS);
+                int noOfUsersDeleted = deleteInBatches("users", job, (afterId, batchSize) ->
+                        userDao.deleteUsersNotAssociatedWithAnyService(deleteUsersAndRelatedDataBeforeDate.toInstant(), afterId, batchSize));
+
+                job.startPhase(Phase.ARCHIVING_SERVICES);
+                int noOfServicesArchived = archiveServices(job);
 
                 LOGGER.info("Completed expunging and archiving historical data",
                         kv("no_of_users_deleted", noOfUsersDeleted),
@@ -100,36 +181,134 @@ public class ExpungeAndArchiveHistoricalDataService {
         }
     }
 
-    private int archiveServices() {
+    /**
+     * Deletes rows in batches of {@code deleteBatchSize}, each in its own transaction, pausing for
+     * {@code pauseBetweenDeleteBatchesInMillis} between batches so that a large backlog of historical data does not
+     * hold row locks or build up WAL for long enough to slow down requests.
+     */
+    private int deleteInBatches(String table, ExpungeAndArchiveJob job, BatchDeleter batchDeleter) {
+        int batchSize = expungeAndArchiveDataConfig.getDeleteBatchSize();
+        int noOfRowsDeleted = 0;
+        int afterId = 0;
+        DeletedBatch batch;
+
+        do {
+            Histogram.Timer batchTimer = deleteBatchDuration.labels(table).startTimer();
+            try {
+                batch = batchDeleter.deleteBatch(afterId, batchSize);
+            } finally {
+                batchTimer.observeDuration();
+            }
+
+            noOfRowsDeleted += batch.rowsDeleted();
+            rowsDeleted.labels(table).inc(batch.rowsDeleted());
+            job.addRowsProcessed(batch.rowsDeleted());
+            afterId = batch.lastId();
+
+            if (batch.hasMore()) {
+                pauseBetweenDeleteBatches();
+            }
+        } while (batch.hasMore());
+
+        return noOfRowsDeleted;
+    }
+
+    private void pauseBetweenDeleteBatches() {
+        try {
+            Thread.sleep(expungeAndArchiveDataConfig.getPauseBetweenDeleteBatchesInMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while deleting historical data", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchDeleter {
+        DeletedBatch deleteBatch(int afterId, int batchSize);
+    }
+
+    /**
+     * Checks candidate services a page of {@code archiveServicesBatchSize} at a time, in id order, so that only one
+     * page of services is held in memory. The last transaction date for every gateway account in a page is fetched
+     * from ledger on a pool of {@code ledgerLookupConcurrency} threads, then the archive decisions (which touch the
+     * entity manager) are applied, and committed, one service at a time on the calling thread. Each page starts after
+     * the last service of the previous one, so a service that could not be checked is not picked up again.
+     */
+    private int archiveServices(ExpungeAndArchiveJob job) {
         ZonedDateTime archiveServicesBeforeDate = getArchiveServicesBeforeDate();
-        List<ServiceEntity> servicesToCheckForArchiving = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate);
+        int pageSize = Math.max(1, expungeAndArchiveDataConfig.getArchiveServicesBatchSize());
 
-        AtomicInteger numberOfServicesArchived = new AtomicInteger();
-        servicesToCheckForArchiving.forEach(serviceEntity -> {
+        int numberOfServicesArchived = 0;
+        servicesRemainingToCheck.set(serviceDao.countServicesToCheckForArchiving(archiveServicesBeforeDate));
 
-            try {
-                ZonedDateTime lastTransactionDateForService = getLastTransactionDateForService(serviceEntity);
-
-                if (canArchiveService(serviceEntity, lastTransactionDateForService)) {
-                    numberOfServicesArchived.getAndIncrement();
-                    archiveService(serviceEntity);
-                } else {
-                    if (serviceEntity.getFirstCheckedForArchivalDate() == null) {
-                        serviceEntity.setFirstCheckedForArchivalDate(instantSource.instant().atZone(UTC));
-                    }
+        ExecutorService ledgerLookupExecutor = Executors.newFixedThreadPool(
+                Math.max(1, expungeAndArchiveDataConfig.getLedgerLookupConcurrency()),
+                new ThreadFactoryBuilder().setNameFormat(LEDGER_LOOKUP_THREAD_NAME).setDaemon(true).build());
 
-                    ZonedDateTime skipCheckingUntilDate = calculateSkipCheckingForArchivalUntilDate(serviceEntity, lastTransactionDateForService);
-                    serviceEntity.setSkipCheckingForArchivalUntilDate(skipCheckingUntilDate);
-                    serviceDao.merge(serviceEntity);
+        try {
+            int afterId = 0;
+            List<ServiceEntity> page;
+            do {
+                page = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, afterId, pageSize);
+
+                Map<ServiceEntity, CompletableFuture<ZonedDateTime>> lastTransactionDates = new LinkedHashMap<>();
+                page.forEach(serviceEntity -> lastTransactionDates.put(serviceEntity,
+                        getLastTransactionDateForService(serviceEntity, ledgerLookupExecutor)));
+
+                for (Map.Entry<ServiceEntity, CompletableFuture<ZonedDateTime>> entry : lastTransactionDates.entrySet()) {
+                    if (checkServiceForArchiving(entry.getKey(), entry.getValue(), job)) {
+                        numberOfServicesArchived++;
+                    }
+                    job.addRowsProcessed(1);
+                    servicesChecked.inc();
+                    servicesRemainingToCheck.dec();
+                    afterId = entry.getKey().getId();
                 }
-            } catch (LedgerException e) {
+            } while (page.size() == pageSize);
+        } finally {
+            ledgerLookupExecutor.shutdownNow();
+            servicesRemainingToCheck.set(0);
+        }
+
+        return numberOfServicesArchived;
+    }
+
+    private boolean checkServiceForArchiving(ServiceEntity serviceEntity, CompletableFuture<ZonedDateTime> lastTransactionDate,
+                                             ExpungeAndArchiveJob job) {
+        ZonedDateTime lastTransactionDateForService;
+        try {
+            lastTransactionDateForService = lastTransactionDate.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof LedgerException ledgerException) {
                 LOGGER.warn("Error getting transactions",
                         SERVICE_EXTERNAL_ID, serviceEntity.getExternalId(),
-                        "error", e.getMessage());
+                        "error", ledgerException.getMessage());
+                job.recordError(format("Could not get transactions for service %s: %s", serviceEntity.getExternalId(),
+                        ledgerException.getMessage()));
+                return false;
             }
-        });
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+
+        if (canArchiveService(serviceEntity, lastTransactionDateForService)) {
+            archiveService(serviceEntity);
+            return true;
+        }
 
-        return numberOfServicesArchived.get();
+        if (serviceEntity.getFirstCheckedForArchivalDate() == null) {
+            serviceEntity.setFirstCheckedForArchivalDate(instantSource.instant().atZone(UTC));
+        }
+
+        ZonedDateTime skipCheckingUntilDate = calculateSkipCheckingForArchivalUntilDate(serviceEntity, lastTransactionDateForService);
+        serviceEntity.setSkipCheckingForArchivalUntilDate(skipCheckingUntilDate);
+        serviceDao.merge(serviceEntity);
+        return false;
     }
 
     public void archiveService(ServiceEntity serviceEntity) {
@@ -138,9 +317,10 @@ public class ExpungeAndArchiveHistoricalDataService {
         serviceEntity.setArchivedDate(instantSource.instant().atZone(UTC));
 
         serviceDao.merge(serviceEntity);
+        gatewayAccountServiceCache.invalidate(serviceEntity);
         detachUsers(serviceEntity);
 
-        connectorTaskQueue.addTaskToQueue(
+        connectorTaskPublisher.publish(
                 new ConnectorTask(new ServiceArchivedTaskData(serviceEntity.getExternalId()), "service_archived"));
 
         LOGGER.info("Archived service");
@@ -149,13 +329,16 @@ public class ExpungeAndArchiveHistoricalDataService {
 
 
     private void detachUsers(ServiceEntity serviceEntity) {
-        List<ServiceRoleEntity> serviceUsersAndRoles = serviceRoleDao.findServiceUserRoles(serviceEntity.getId());
+        List<String> detachedUserExternalIds;
+        Histogram.Timer detachTimer = detachUsersDuration.startTimer();
+        try {
+            detachedUserExternalIds = serviceRoleDao.removeAllUsersFromService(serviceEntity.getId());
+        } finally {
+            detachTimer.observeDuration();
+        }
 
-        serviceUsersAndRoles.forEach(serviceRole -> {
-            LOGGER.info("Removed user from service",
-                    kv(USER_EXTERNAL_ID, serviceRole.getUser().getExternalId()));
-            serviceRoleDao.remove(serviceRole);
-        });
+        detachedUserExternalIds.forEach(userExternalId ->
+                LOGGER.info("Removed user from service", kv(USER_EXTERNAL_ID, userExternalId)));
     }
 
     private boolean canArchiveService(ServiceEntity serviceEntity, ZonedDateTime lastTransactionDateForService) {
@@ -184,23 +367,36 @@ public class ExpungeAndArchiveHistoricalDataService {
         return skipCheckingUntilDate;
     }
 
-    private ZonedDateTime getLastTransactionDateForService(ServiceEntity serviceEntity) {
-        return serviceEntity.getGatewayAccountIds()
+    private CompletableFuture<ZonedDateTime> getLastTransactionDateForService(ServiceEntity serviceEntity,
+                                                                             ExecutorService ledgerLookupExecutor) {
+        List<CompletableFuture<ZonedDateTime>> lastTransactionDates = serviceEntity.getGatewayAccountIds()
                 .stream()
-                .map(gatewayAccountIdEntity -> getLastTransactionDateForGatewayAccount(gatewayAccountIdEntity.getGatewayAccountId()))
-                .filter(Objects::nonNull)
-                .max(Comparator.comparing(ZonedDateTime::toEpochSecond))
-                .orElse(null);
+                .map(GatewayAccountIdEntity::getGatewayAccountId)
+                .map(gatewayAccountId -> CompletableFuture.supplyAsync(
+                        () -> getLastTransactionDateForGatewayAccount(gatewayAccountId), ledgerLookupExecutor))
+                .toList();
+
+        return CompletableFuture.allOf(lastTransactionDates.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> lastTransactionDates.stream()
+                        .map(CompletableFuture::join)
+                        .filter(Objects::nonNull)
+                        .max(Comparator.comparing(ZonedDateTime::toEpochSecond))
+                        .orElse(null));
     }
 
     private ZonedDateTime getLastTransactionDateForGatewayAccount(String gatewayAccountId) {
-        LedgerSearchTransactionsResponse searchTransactions = ledgerService.searchTransactions(gatewayAccountId, 1);
+        Histogram.Timer lookupTimer = ledgerLookupDuration.startTimer();
+        try {
+            LedgerSearchTransactionsResponse searchTransactions = ledgerService.searchTransactions(gatewayAccountId, 1);
 
-        if (searchTransactions != null && !searchTransactions.getTransactions().isEmpty()) {
-            return searchTransactions.getTransactions().get(0).getCreatedDate();
-        }
+            if (searchTransactions != null && !searchTransactions.getTransactions().isEmpty()) {
+                return searchTransactions.getTransactions().get(0).getCreatedDate();
+            }
 
-        return null;
+            return null;
+        } finally {
+            lookupTimer.observeDuration();
+        }
     }
 
     private ZonedDateTime getArchiveServicesBeforeDate() {
@@ -0,0 +1,137 @@
+package uk.gov.pay.adminusers.expungeandarchive.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import uk.gov.service.payments.commons.api.json.ApiResponseDateTimeSerializer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * The progress of one run of {@link ExpungeAndArchiveHistoricalDataService}. It is updated by the thread running the
+ * job and read by requests for its status, so every field is safe to read while the job is running. Only the first
+ * {@value #MAX_ERRORS} errors are kept.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class ExpungeAndArchiveJob {
+
+    private static final int MAX_ERRORS = 100;
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    public enum Phase {
+        DELETING_INVITES, DELETING_FORGOTTEN_PASSWORDS, DELETING_USERS, ARCHIVING_SERVICES
+    }
+
+    private final String jobId;
+    private final InstantSource instantSource;
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile Phase phase;
+    private volatile Instant startedDate;
+    private volatile Instant finishedDate;
+
+    public ExpungeAndArchiveJob(String jobId, InstantSource instantSource) {
+        this.jobId = jobId;
+        this.instantSource = instantSource;
+    }
+
+    @Schema(example = "8a2ebc3f1c6e4ad2b6dbe5a0d2f1c7e9")
+    public String getJobId() {
+        return jobId;
+    }
+
+    @Schema(example = "RUNNING")
+    public Status getStatus() {
+        return status;
+    }
+
+    @Schema(example = "ARCHIVING_SERVICES")
+    public Phase getPhase() {
+        return phase;
+    }
+
+    @Schema(description = "Rows deleted plus services checked for archiving", example = "12345")
+    public long getRowsProcessed() {
+        return rowsProcessed.get();
+    }
+
+    @Schema(description = "Rows processed per second since the job started", example = "250.5")
+    public double getRowsPerSecond() {
+        Instant started = startedDate;
+        if (started == null) {
+            return 0;
+        }
+        Instant finished = finishedDate;
+        long elapsedMillis = Duration.between(started, finished == null ? instantSource.instant() : finished).toMillis();
+        return elapsedMillis == 0 ? 0 : rowsProcessed.get() * 1000.0 / elapsedMillis;
+    }
+
+    @Schema(example = "2022-04-06T23:03:41.665Z")
+    @JsonSerialize(using = ApiResponseDateTimeSerializer.class)
+    public ZonedDateTime getStartedDate() {
+        return startedDate == null ? null : startedDate.atZone(UTC);
+    }
+
+    @Schema(example = "2022-04-06T23:13:41.665Z")
+    @JsonSerialize(using = ApiResponseDateTimeSerializer.class)
+    public ZonedDateTime getFinishedDate() {
+        return finishedDate == null ? null : finishedDate.atZone(UTC);
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    void start() {
+        startedDate = instantSource.instant();
+        status = Status.RUNNING;
+    }
+
+    void startPhase(Phase phase) {
+        this.phase = phase;
+    }
+
+    void addRowsProcessed(long rows) {
+        rowsProcessed.addAndGet(rows);
+    }
+
+    void recordError(String error) {
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    void succeed() {
+        finishedDate = instantSource.instant();
+        status = Status.SUCCEEDED;
+    }
+
+    void fail(Exception e) {
+        recordError(e.toString());
+        finishedDate = instantSource.instant();
+        status = Status.FAILED;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,98 @@
+package uk.gov.pay.adminusers.expungeandarchive.service;
+
+import com.google.inject.Inject;
+import io.dropwizard.core.setup.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.time.InstantSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
+import static uk.gov.service.payments.logging.LoggingKeys.MDC_REQUEST_ID_KEY;
+
+/**
+ * Runs {@link ExpungeAndArchiveHistoricalDataService} on a single background thread, one job at a time, so that the
+ * request starting a job returns as soon as it is queued. The last {@value #MAX_RETAINED_JOBS} jobs are kept in
+ * memory for their progress to be looked up; they are only known to the instance that ran them and are lost when it
+ * restarts.
+ */
+public class ExpungeAndArchiveJobRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpungeAndArchiveJobRunner.class);
+    private static final String THREAD_NAME = "expunge-and-archive-job-%d";
+    private static final int MAX_RETAINED_JOBS = 10;
+
+    private final ExpungeAndArchiveHistoricalDataService expungeAndArchiveHistoricalDataService;
+    private final InstantSource instantSource;
+    private final ExecutorService executorService;
+    private final Map<String, ExpungeAndArchiveJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ExpungeAndArchiveJob> eldest) {
+            return size() > MAX_RETAINED_JOBS;
+        }
+    };
+    private ExpungeAndArchiveJob currentJob;
+
+    @Inject
+    public ExpungeAndArchiveJobRunner(ExpungeAndArchiveHistoricalDataService expungeAndArchiveHistoricalDataService,
+                                      InstantSource instantSource, Environment environment) {
+        this(expungeAndArchiveHistoricalDataService, instantSource, environment.lifecycle()
+                .executorService(THREAD_NAME)
+                .minThreads(1)
+                .maxThreads(1)
+                .workQueue(new ArrayBlockingQueue<>(1))
+                .build());
+    }
+
+    public ExpungeAndArchiveJobRunner(ExpungeAndArchiveHistoricalDataService expungeAndArchiveHistoricalDataService,
+                                      InstantSource instantSource, ExecutorService executorService) {
+        this.expungeAndArchiveHistoricalDataService = expungeAndArchiveHistoricalDataService;
+        this.instantSource = instantSource;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Queues a new job and returns it, or returns nothing if a job is already queued or running.
+     */
+    public synchronized Optional<ExpungeAndArchiveJob> submit(String correlationId) {
+        if (currentJob != null && !currentJob.isFinished()) {
+            return Optional.empty();
+        }
+
+        ExpungeAndArchiveJob job = new ExpungeAndArchiveJob(randomUuid(), instantSource);
+        jobs.put(job.getJobId(), job);
+        currentJob = job;
+        executorService.execute(() -> run(job, correlationId));
+        LOGGER.info("Queued expunge and archive historical data job", kv("job_id", job.getJobId()));
+        return Optional.of(job);
+    }
+
+    public synchronized Optional<ExpungeAndArchiveJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public synchronized Optional<ExpungeAndArchiveJob> getCurrentJob() {
+        return Optional.ofNullable(currentJob).filter(job -> !job.isFinished());
+    }
+
+    private void run(ExpungeAndArchiveJob job, String correlationId) {
+        MDC.put(MDC_REQUEST_ID_KEY, correlationId);
+        job.start();
+        try {
+            expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData(job);
+            job.succeed();
+        } catch (Exception e) {
+            LOGGER.error("Expunge and archive historical data job failed", kv("job_id", job.getJobId()), e);
+            job.fail(e);
+        } finally {
+            MDC.remove(MDC_REQUEST_ID_KEY);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package uk.gov.pay.adminusers.model;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+/**
+ * The fields of a service needed to list it in search results, without the rest of the service.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record ServiceSearchResult(
+        @Schema(example = "7d19aff33f8948deb97ed16b2912dcd3") String externalId,
+        @Schema(example = "{\"en\": \"Register a birth\", \"cy\": \"Cofrestru genedigaeth\"}") Map<String, String> serviceName,
+        @Schema(example = "Royal Borough of Gondor") String merchantName) {
+}
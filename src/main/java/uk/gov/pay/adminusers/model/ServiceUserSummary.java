@@ -0,0 +1,23 @@
+package uk.gov.pay.adminusers.model;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import uk.gov.service.payments.commons.api.json.ApiResponseDateTimeSerializer;
+
+import java.time.ZonedDateTime;
+
+/**
+ * The fields of a service's user needed to list a service's team members, without the user's roles in any other
+ * service.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record ServiceUserSummary(
+        @Schema(example = "93ba1ec4ed6a4238a59f16ad97b4fa12") String externalId,
+        @Schema(example = "user@somegovernmentdept.gov.uk") String email,
+        @Schema(example = "admin") RoleName role,
+        @Schema(example = "false") Boolean disabled,
+        @Schema(example = "2022-04-06T23:03:41.665Z")
+        @JsonSerialize(using = ApiResponseDateTimeSerializer.class) ZonedDateTime lastLoggedInAt) {
+}
@@ -0,0 +1,11 @@
+package uk.gov.pay.adminusers.persistence.dao;
+
+/**
+ * The outcome of deleting one batch of rows by primary key range.
+ *
+ * @param rowsDeleted the number of rows deleted
+ * @param lastId      the highest id in the range, after which the next batch starts
+ * @param hasMore     whether the batch was full, so there may be more rows to delete after {@code lastId}
+ */
+public record DeletedBatch(int rowsDeleted, int lastId, boolean hasMore) {
+}
@@ -7,6 +7,7 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import uk.gov.pay.adminusers.persistence.entity.ForgottenPasswordEntity;
 
+import java.sql.Timestamp;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Optional;
@@ -24,25 +25,17 @@ public class ForgottenPasswordDao extends JpaDao<ForgottenPasswordEntity> {
     }
 
     public Optional<ForgottenPasswordEntity> findNonExpiredByCode(String code) {
-        String query = "SELECT fp FROM ForgottenPasswordEntity fp " +
-                "WHERE fp.code = :code AND fp.date >= :expiry";
-
         ZonedDateTime expiryDateTime = ZonedDateTime.now(ZoneId.of("UTC")).minusMinutes(forgottenPasswordExpiryMinutes);
 
         return entityManager.get()
-                .createQuery(query, ForgottenPasswordEntity.class)
+                .createNamedQuery(ForgottenPasswordEntity.FIND_NON_EXPIRED_BY_CODE, ForgottenPasswordEntity.class)
                 .setParameter("code", code)
                 .setParameter("expiry", expiryDateTime)
                 .getResultList().stream().findFirst();
     }
 
-    public int deleteForgottenPasswords(ZonedDateTime deleteRecordsBeforeDate) {
-        String query = "DELETE FROM ForgottenPasswordEntity" +
-                " WHERE createdAt < :deleteRecordsBeforeDate";
-
-        return entityManager.get()
-                .createQuery(query)
-                .setParameter("deleteRecordsBeforeDate", deleteRecordsBeforeDate)
-                .executeUpdate();
+    public DeletedBatch deleteForgottenPasswords(ZonedDateTime deleteRecordsBeforeDate, int afterId, int batchSize) {
+        return deleteBatch("forgotten_passwords", "\"createdAt\" < ?3", afterId, batchSize,
+                Timestamp.from(deleteRecordsBeforeDate.toInstant()));
     }
 }
@@ -17,12 +17,8 @@ public class GovUkPayAgreementDao extends JpaDao<GovUkPayAgreementEntity> {
     }
     
     public Optional<GovUkPayAgreementEntity> findByExternalServiceId(String externalServiceId) {
-
-        String query = "SELECT agreement FROM GovUkPayAgreementEntity agreement " +
-                "WHERE agreement.service.externalId  = :externalServiceId";
-
         return entityManager.get()
-                .createQuery(query, GovUkPayAgreementEntity.class)
+                .createNamedQuery(GovUkPayAgreementEntity.FIND_BY_SERVICE_EXTERNAL_ID, GovUkPayAgreementEntity.class)
                 .setParameter("externalServiceId", externalServiceId)
                 .getResultStream()
                 .findFirst();
@@ -6,10 +6,13 @@ import com.google.inject.persist.Transactional;
 import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 
 import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static java.time.ZoneOffset.UTC;
+
 @Transactional
 public class InviteDao extends JpaDao<InviteEntity> {
 
@@ -19,45 +22,61 @@ public class InviteDao extends JpaDao<InviteEntity> {
     }
 
     public Optional<InviteEntity> findByCode(String code) {
-
-        String query = "SELECT invite FROM InviteEntity invite " +
-                "WHERE invite.code = :code";
-
         return entityManager.get()
-                .createQuery(query, InviteEntity.class)
+                .createNamedQuery(InviteEntity.FIND_BY_CODE, InviteEntity.class)
                 .setParameter("code", code)
                 .getResultList().stream().findFirst();
     }
 
     public List<InviteEntity> findByEmail(String email) {
-
-        String query = "SELECT invite FROM InviteEntity invite " +
-                "WHERE invite.email = :email";
-
         return entityManager.get()
-                .createQuery(query, InviteEntity.class)
+                .createNamedQuery(InviteEntity.FIND_BY_EMAIL, InviteEntity.class)
                 .setParameter("email", email)
                 .getResultList();
     }
 
     public List<InviteEntity> findAllByServiceId(String serviceId) {
-
-        String query = "SELECT invite FROM InviteEntity invite " +
-                "WHERE invite.service.externalId = :serviceId";
-
         return entityManager.get()
-                .createQuery(query, InviteEntity.class)
+                .createNamedQuery(InviteEntity.FIND_BY_SERVICE_EXTERNAL_ID, InviteEntity.class)
                 .setParameter("serviceId", serviceId)
                 .getResultList();
     }
 
-    public int deleteInvites(ZonedDateTime deleteRecordsBeforeDate) {
-        String query = "DELETE FROM InviteEntity ie" +
-                " WHERE ie.date < :deleteRecordsBeforeDate";
+    /**
+     * Finds the invite with the given code together with whether a user already has the invited email address,
+     * in one query. Expired and disabled invites are returned so callers can tell them apart from unknown codes.
+     */
+    public Optional<InviteWithUserExists> findByCodeWithUserExists(String code) {
+        return entityManager.get()
+                .createNamedQuery(InviteEntity.FIND_BY_CODE_WITH_USER_EXISTS, Object[].class)
+                .setParameter("code", code)
+                .getResultList().stream()
+                .map(InviteDao::toInviteWithUserExists)
+                .findFirst();
+    }
 
+    /**
+     * Finds the invites for a service that are neither disabled nor expired, each with whether a user already has
+     * the invited email address, in one query.
+     */
+    public List<InviteWithUserExists> findActiveByServiceIdWithUserExists(String serviceId) {
         return entityManager.get()
-                .createQuery(query)
-                .setParameter("deleteRecordsBeforeDate", deleteRecordsBeforeDate)
-                .executeUpdate();
+                .createNamedQuery(InviteEntity.FIND_ACTIVE_BY_SERVICE_EXTERNAL_ID_WITH_USER_EXISTS, Object[].class)
+                .setParameter("serviceId", serviceId)
+                .setParameter("now", ZonedDateTime.now(UTC))
+                .getResultList().stream()
+                .map(InviteDao::toInviteWithUserExists)
+                .toList();
+    }
+
+    private static InviteWithUserExists toInviteWithUserExists(Object[] row) {
+        return new InviteWithUserExists((InviteEntity) row[0], row[1] != null);
+    }
+
+    public record InviteWithUserExists(InviteEntity invite, boolean userExists) {
+    }
+
+    public DeletedBatch deleteInvites(ZonedDateTime deleteRecordsBeforeDate, int afterId, int batchSize) {
+        return deleteBatch("invites", "date < ?3", afterId, batchSize, Timestamp.from(deleteRecordsBeforeDate.toInstant()));
     }
 }
@@ -4,6 +4,7 @@ import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import java.util.Optional;
 
 @Transactional
@@ -37,4 +38,44 @@ public abstract class JpaDao<T> {
     public T merge(final T object) {
         return entityManager.get().merge(object);
     }
+
+    /**
+     * Deletes, in one transaction, the rows of {@code table} matching {@code predicate} among the first
+     * {@code batchSize} matching ids after {@code afterId}. The range of ids is found first and the delete is then
+     * bounded by it, so each batch locks no more than {@code batchSize} rows and the next batch starts from where
+     * this one ended rather than scanning the deleted range again. {@code predicate} is re-checked by the delete and
+     * its positional parameters, given in {@code predicateParameters}, are numbered from {@code ?3}.
+     */
+    /* default */ DeletedBatch deleteBatch(String table, String predicate, int afterId, int batchSize,
+                                           Object... predicateParameters) {
+        Query rangeQuery = entityManager.get().createNativeQuery(
+                        "SELECT count(*), max(id) FROM (" +
+                        "    SELECT id FROM " + table + " WHERE id > ?1 AND (" + predicate + ") ORDER BY id LIMIT ?2" +
+                        ") batch")
+                .setParameter(1, afterId)
+                .setParameter(2, batchSize);
+        setPredicateParameters(rangeQuery, predicateParameters);
+        Object[] range = (Object[]) rangeQuery.getSingleResult();
+
+        int rowsInRange = ((Number) range[0]).intValue();
+        if (rowsInRange == 0) {
+            return new DeletedBatch(0, afterId, false);
+        }
+        int lastId = ((Number) range[1]).intValue();
+
+        Query deleteQuery = entityManager.get()
+                .createNativeQuery("DELETE FROM " + table + " WHERE id > ?1 AND id <= ?2 AND (" + predicate + ")")
+                .setParameter(1, afterId)
+                .setParameter(2, lastId);
+        setPredicateParameters(deleteQuery, predicateParameters);
+        int rowsDeleted = deleteQuery.executeUpdate();
+
+        return new DeletedBatch(rowsDeleted, lastId, rowsInRange == batchSize);
+    }
+
+    private static void setPredicateParameters(Query query, Object... predicateParameters) {
+        for (int i = 0; i < predicateParameters.length; i++) {
+            query.setParameter(i + 3, predicateParameters[i]);
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package uk.gov.pay.adminusers.persistence.dao;
+
+import com.google.inject.Provider;
+import com.google.inject.persist.Transactional;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import uk.gov.pay.adminusers.persistence.entity.NotificationOutboxEntity;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static uk.gov.pay.adminusers.persistence.entity.UTCDateTimeConverter.UTC;
+
+@Transactional
+public class NotificationOutboxDao extends JpaDao<NotificationOutboxEntity> {
+
+    @Inject
+    public NotificationOutboxDao(Provider<EntityManager> entityManager) {
+        super(entityManager, NotificationOutboxEntity.class);
+    }
+
+    /**
+     * Takes up to {@code limit} notifications that are due to be sent and pushes their next attempt out to
+     * {@code leaseUntil}, so that neither this instance nor any other claims them again while they are being sent.
+     * Rows another transaction is already claiming are skipped rather than waited for. The results are refreshed
+     * from the database as attempts and errors are recorded with bulk updates.
+     */
+    public List<NotificationOutboxEntity> claimDue(Instant now, Instant leaseUntil, int limit) {
+        String selectQuery = "SELECT * FROM notification_outbox " +
+                "WHERE next_attempt_date <= ?1 " +
+                "ORDER BY next_attempt_date " +
+                "LIMIT ?2 " +
+                "FOR UPDATE SKIP LOCKED";
+
+        @SuppressWarnings("unchecked")
+        List<NotificationOutboxEntity> due = entityManager.get()
+                .createNativeQuery(selectQuery, NotificationOutboxEntity.class)
+                .setParameter(1, Timestamp.from(now))
+                .setParameter(2, limit)
+                .setHint(QueryHints.REFRESH, HintValues.TRUE)
+                .getResultList();
+
+        if (!due.isEmpty()) {
+            entityManager.get()
+                    .createNamedQuery(NotificationOutboxEntity.EXTEND_LEASE)
+                    .setParameter("leaseUntil", leaseUntil.atZone(UTC))
+                    .setParameter("ids", due.stream().map(NotificationOutboxEntity::getId).toList())
+                    .executeUpdate();
+        }
+        return due;
+    }
+
+    public void delete(Long id) {
+        entityManager.get()
+                .createNamedQuery(NotificationOutboxEntity.DELETE_BY_ID)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    public void scheduleRetry(Long id, int attempts, Instant nextAttemptDate, String lastError) {
+        entityManager.get()
+                .createNativeQuery("UPDATE notification_outbox SET attempts = ?1, next_attempt_date = ?2, last_error = ?3 WHERE id = ?4")
+                .setParameter(1, attempts)
+                .setParameter(2, Timestamp.from(nextAttemptDate))
+                .setParameter(3, lastError)
+                .setParameter(4, id)
+                .executeUpdate();
+    }
+
+    public Backlog getBacklog() {
+        Object[] result = (Object[]) entityManager.get()
+                .createNativeQuery("SELECT count(*), min(created_date) FROM notification_outbox")
+                .getSingleResult();
+        Instant oldestCreatedDate = result[1] == null ? null : ((Timestamp) result[1]).toInstant();
+        return new Backlog(((Number) result[0]).longValue(), Optional.ofNullable(oldestCreatedDate));
+    }
+
+    public record Backlog(long size, Optional<Instant> oldestCreatedDate) {
+    }
+}
@@ -28,12 +28,8 @@ public class RoleDao {
     }
 
     public Optional<RoleEntity> findByRoleName(RoleName roleName) {
-
-        String query = "SELECT r FROM RoleEntity r " +
-                "WHERE r.roleName = :roleName";
-
         return entityManager.get()
-                .createQuery(query, RoleEntity.class)
+                .createNamedQuery(RoleEntity.FIND_BY_ROLE_NAME, RoleEntity.class)
                 .setParameter("roleName", roleName)
                 .getResultList().stream().findFirst();
     }
@@ -2,34 +2,95 @@ package uk.gov.pay.adminusers.persistence.dao;
 
 import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.queries.CursoredStream;
+import uk.gov.pay.adminusers.model.ServiceSearchResult;
 import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
+import uk.gov.service.payments.commons.model.SupportedLanguage;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.sql.Timestamp;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static java.time.ZoneOffset.UTC;
 import static java.time.ZonedDateTime.now;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 
 @Transactional
 public class ServiceDao extends JpaDao<ServiceEntity> {
 
+    // Lower than pg_trgm's default of 0.6, so that a single mistyped letter in a short word still matches
+    private static final String WORD_SIMILARITY_THRESHOLD = "0.5";
+
+    // Written so that PostgreSQL can match NOT archived to the partial indexes on created_date and
+    // first_checked_for_archival_date and combine them in a bitmap scan
+    private static final String SERVICES_TO_CHECK_FOR_ARCHIVING = "NOT archived" +
+            " AND (created_date <= ?1" +
+            "      OR (created_date IS NULL AND first_checked_for_archival_date IS NULL)" +
+            "      OR first_checked_for_archival_date <= ?2)" +
+            " AND (skip_checking_for_archival_until_date IS NULL OR skip_checking_for_archival_until_date <= ?3)";
+
     @Inject
     public ServiceDao(Provider<EntityManager> entityManager) {
         super(entityManager, ServiceEntity.class);
     }
 
     public List<ServiceEntity> listAll() {
-        String query = "SELECT s FROM ServiceEntity as s";
         return entityManager.get()
-                .createQuery(query, ServiceEntity.class)
+                .createNamedQuery(ServiceEntity.LIST_ALL, ServiceEntity.class)
+                .getResultList();
+    }
+
+    public List<ServiceEntity> listAfterId(int afterId, int limit) {
+        return entityManager.get()
+                .createNamedQuery(ServiceEntity.LIST_AFTER_ID, ServiceEntity.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
                 .getResultList();
     }
 
+    /**
+     * Reads up to {@code limit} services with an id greater than {@code afterId} in id order through a database
+     * cursor, passing each to {@code consumer} as it is read. The persistence context is cleared every
+     * {@code fetchSize} rows so that memory use does not grow with the number of services; entities passed to the
+     * consumer must not be used after it returns.
+     */
+    public void forEachService(int afterId, int limit, int fetchSize, Consumer<ServiceEntity> consumer) {
+        EntityManager em = entityManager.get();
+        CursoredStream cursor = (CursoredStream) em
+                .createNamedQuery(ServiceEntity.LIST_AFTER_ID)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .setHint(QueryHints.CURSOR, HintValues.TRUE)
+                .setHint(QueryHints.CURSOR_PAGE_SIZE, fetchSize)
+                .setHint(QueryHints.JDBC_FETCH_SIZE, fetchSize)
+                .getSingleResult();
+
+        try {
+            int read = 0;
+            while (cursor.hasNext()) {
+                consumer.accept((ServiceEntity) cursor.next());
+                if (++read % fetchSize == 0) {
+                    cursor.clear();
+                    em.clear();
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public List<ServiceEntity> findByENServiceName(String searchString) {
         String query = "SELECT * FROM services s WHERE s.id IN (SELECT service_id FROM service_names sn WHERE to_tsvector('english', sn.name) @@ plainto_tsquery('english', ?) AND sn.language = 'en')";
@@ -46,13 +107,63 @@ public class ServiceDao extends JpaDao<ServiceEntity> {
                 .getResultList();
     }
 
-    public Optional<ServiceEntity> findByGatewayAccountId(String gatewayAccountId) {
+    /**
+     * Finds services whose English name is like {@code serviceName} or whose merchant name is like
+     * {@code merchantName}, either of which may be blank. A name is like a search string if it contains words sharing
+     * enough trigrams with it, which matches prefixes and small typos as well as whole words, and is answered from the
+     * trigram indexes. Services are ranked by their best match and only the page requested is joined to its names.
+     */
+    @SuppressWarnings("unchecked")
+    public List<ServiceSearchResult> searchByNameOrMerchantName(String serviceName, String merchantName, int limit, int offset) {
+        List<String> matches = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        if (!isBlank(serviceName)) {
+            matches.add("SELECT sn.service_id, word_similarity(?, sn.name) AS score FROM service_names sn " +
+                    "WHERE sn.language = 'en' AND ? <% sn.name");
+            parameters.addAll(List.of(serviceName, serviceName));
+        }
+        if (!isBlank(merchantName)) {
+            matches.add("SELECT s.id, word_similarity(?, s.merchant_name) FROM services s WHERE ? <% s.merchant_name");
+            parameters.addAll(List.of(merchantName, merchantName));
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        parameters.addAll(List.of(limit, offset));
+
+        String query = "SELECT s.external_id, en.name, cy.name, s.merchant_name " +
+                "FROM (SELECT service_id, max(score) AS score FROM (" + String.join(" UNION ALL ", matches) + ") matches " +
+                "GROUP BY service_id ORDER BY score DESC, service_id LIMIT ? OFFSET ?) page " +
+                "JOIN services s ON s.id = page.service_id " +
+                "LEFT JOIN service_names en ON en.service_id = s.id AND en.language = 'en' " +
+                "LEFT JOIN service_names cy ON cy.service_id = s.id AND cy.language = 'cy' " +
+                "ORDER BY page.score DESC, s.id";
+
+        EntityManager em = entityManager.get();
+        em.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)")
+                .setParameter(1, WORD_SIMILARITY_THRESHOLD)
+                .getSingleResult();
+        Query search = em.createNativeQuery(query);
+        for (int i = 0; i < parameters.size(); i++) {
+            search.setParameter(i + 1, parameters.get(i));
+        }
+        return ((List<Object[]>) search.getResultList()).stream()
+                .map(row -> new ServiceSearchResult((String) row[0], serviceNames((String) row[1], (String) row[2]), (String) row[3]))
+                .toList();
+    }
 
-        String query = "SELECT ga FROM GatewayAccountIdEntity ga " +
-                "WHERE ga.gatewayAccountId = :gatewayAccountId";
+    private static Map<String, String> serviceNames(String english, String welsh) {
+        Map<String, String> serviceNames = new LinkedHashMap<>();
+        serviceNames.put(SupportedLanguage.ENGLISH.toString(), english);
+        if (welsh != null) {
+            serviceNames.put(SupportedLanguage.WELSH.toString(), welsh);
+        }
+        return serviceNames;
+    }
 
+    public Optional<ServiceEntity> findByGatewayAccountId(String gatewayAccountId) {
         Optional<GatewayAccountIdEntity> gatewayAccount = entityManager.get()
-                .createQuery(query, GatewayAccountIdEntity.class)
+                .createNamedQuery(GatewayAccountIdEntity.FIND_BY_GATEWAY_ACCOUNT_ID, GatewayAccountIdEntity.class)
                 .setParameter("gatewayAccountId", gatewayAccountId)
                 .getResultList().stream().findFirst();
 
@@ -77,30 +188,54 @@ public class ServiceDao extends JpaDao<ServiceEntity> {
     }
 
     public Optional<ServiceEntity> findByExternalId(String serviceExternalId) {
-        String query = "SELECT s FROM ServiceEntity as s WHERE s.externalId = :externalId";
         return entityManager.get()
-                .createQuery(query, ServiceEntity.class)
+                .createNamedQuery(ServiceEntity.FIND_BY_EXTERNAL_ID, ServiceEntity.class)
                 .setParameter("externalId", serviceExternalId)
                 .getResultList()
                 .stream()
                 .findFirst();
     }
 
-    public List<ServiceEntity> findServicesToCheckForArchiving(ZonedDateTime archiveServicesBeforeDate) {
-        ZonedDateTime now = now(UTC);
+    /**
+     * Returns, in id order, up to {@code limit} services after {@code afterId} that are due to be checked for
+     * archiving. The candidates are first found as ids alone, using the partial indexes on services that are not
+     * archived, and only that page of services is then loaded, so that memory use does not grow with the number of
+     * candidates.
+     */
+    @SuppressWarnings("unchecked")
+    public List<ServiceEntity> findServicesToCheckForArchiving(ZonedDateTime archiveServicesBeforeDate, int afterId, int limit) {
+        List<Integer> ids = ((List<Number>) setServicesToCheckForArchivingParameters(entityManager.get()
+                .createNativeQuery("SELECT id FROM services WHERE " + SERVICES_TO_CHECK_FOR_ARCHIVING + " AND id > ?4 ORDER BY id LIMIT ?5"),
+                archiveServicesBeforeDate)
+                .setParameter(4, afterId)
+                .setParameter(5, limit)
+                .getResultList())
+                .stream()
+                .map(Number::intValue)
+                .toList();
 
-        String query = "SELECT s FROM ServiceEntity as s" +
-                " WHERE (s.createdDate <= :archiveServicesBeforeDate" +
-                "         OR (s.createdDate is null and s.firstCheckedForArchivalDate is null)" +
-                "         OR s.firstCheckedForArchivalDate <= :archiveServicesBeforeDate)" +
-                "   AND (s.skipCheckingForArchivalUntilDate is null " +
-                "        OR s.skipCheckingForArchivalUntilDate <= :now)" +
-                "   AND NOT s.archived";
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
         return entityManager.get()
-                .createQuery(query, ServiceEntity.class)
-                .setParameter("archiveServicesBeforeDate", archiveServicesBeforeDate)
-                .setParameter("now", now)
+                .createNamedQuery(ServiceEntity.FIND_BY_IDS, ServiceEntity.class)
+                .setParameter("ids", ids)
                 .getResultList();
     }
+
+    public long countServicesToCheckForArchiving(ZonedDateTime archiveServicesBeforeDate) {
+        return ((Number) setServicesToCheckForArchivingParameters(entityManager.get()
+                .createNativeQuery("SELECT count(*) FROM services WHERE " + SERVICES_TO_CHECK_FOR_ARCHIVING),
+                archiveServicesBeforeDate)
+                .getSingleResult())
+                .longValue();
+    }
+
+    private static Query setServicesToCheckForArchivingParameters(Query query, ZonedDateTime archiveServicesBeforeDate) {
+        return query
+                .setParameter(1, Timestamp.from(archiveServicesBeforeDate.toInstant()))
+                .setParameter(2, Timestamp.from(archiveServicesBeforeDate.toInstant()))
+                .setParameter(3, Timestamp.from(now(UTC).toInstant()));
+    }
 }
@@ -18,8 +18,21 @@ public class ServiceRoleDao extends JpaDao<ServiceRoleEntity> {
 
     public List<ServiceRoleEntity> findServiceUserRoles(Integer serviceId) {
         return entityManager.get()
-                .createQuery("select sre from ServiceRoleEntity sre where sre.service.id = :serviceId")
+                .createNamedQuery(ServiceRoleEntity.FIND_BY_SERVICE_ID, ServiceRoleEntity.class)
                 .setParameter("serviceId", serviceId)
                 .getResultList();
     }
+
+    /**
+     * Removes every user from the service in a single statement and returns the external ids of the users removed.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> removeAllUsersFromService(Integer serviceId) {
+        return entityManager.get()
+                .createNativeQuery("DELETE FROM user_services_roles usr USING users u" +
+                        " WHERE usr.service_id = ?1 AND u.id = usr.user_id" +
+                        " RETURNING u.external_id")
+                .setParameter(1, serviceId)
+                .getResultList();
+    }
 }
@@ -18,12 +18,8 @@ public class StripeAgreementDao extends JpaDao<StripeAgreementEntity> {
 
 
     public Optional<StripeAgreementEntity> findByServiceExternalId(String serviceExternalId) {
-
-        String query = "SELECT s FROM StripeAgreementEntity s " +
-                "WHERE s.service.externalId = :serviceExternalId";
-
         return entityManager.get()
-                .createQuery(query, StripeAgreementEntity.class)
+                .createNamedQuery(StripeAgreementEntity.FIND_BY_SERVICE_EXTERNAL_ID, StripeAgreementEntity.class)
                 .setParameter("serviceExternalId", serviceExternalId)
                 .getResultStream()
                 .findFirst();
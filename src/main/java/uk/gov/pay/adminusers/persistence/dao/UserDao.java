@@ -2,146 +2,167 @@ package uk.gov.pay.adminusers.persistence.dao;
 
 import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.config.QueryHints;
 import uk.gov.pay.adminusers.model.RoleName;
+import uk.gov.pay.adminusers.model.ServiceUserSummary;
 import uk.gov.pay.adminusers.persistence.entity.ServiceRoleEntity;
 import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import java.time.Instant;
-import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static java.util.Date.from;
-import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toUnmodifiableList;
-import static java.util.stream.Collectors.toUnmodifiableMap;
 
 @Transactional
 public class UserDao extends JpaDao<UserEntity> {
 
+    private static final int GATEWAY_ACCOUNT_IDS_PER_QUERY = 5_000;
+
+    /**
+     * Relationships walked by {@link UserEntity#toUser()}. Batch fetching them with {@code IN} loads each level for
+     * all users and services in the result at once, so the number of statements does not grow with the number of
+     * services a user has.
+     */
+    private static final List<String> USER_AGGREGATE_BATCH_FETCH_PATHS = List.of(
+            "u.servicesRoles",
+            "u.servicesRoles.role",
+            "u.servicesRoles.role.permissions",
+            "u.servicesRoles.service",
+            "u.servicesRoles.service.gatewayAccountIds",
+            "u.servicesRoles.service.serviceNames",
+            "u.servicesRoles.service.serviceFeatures");
+
     @Inject
     public UserDao(Provider<EntityManager> entityManager) {
         super(entityManager, UserEntity.class);
     }
 
     public Optional<UserEntity> findByExternalId(String externalId) {
-        String query = "SELECT u FROM UserEntity u " +
-                "WHERE LOWER(u.externalId) = LOWER(:externalId)";
-
-        return entityManager.get()
-                .createQuery(query, UserEntity.class)
-                .setParameter("externalId", externalId)
+        return withUserAggregate(entityManager.get().createNamedQuery(UserEntity.FIND_BY_EXTERNAL_ID, UserEntity.class))
+                .setParameter("externalId", externalId.toLowerCase(Locale.ENGLISH))
                 .getResultList().stream().findFirst();
     }
 
     public List<UserEntity> findByExternalIds(List<String> externalIds) {
-        String query = "SELECT u FROM UserEntity u WHERE LOWER(u.externalId) in :externalIds";
-
-        List<String> lowerCaseExternalIds = externalIds.stream().map(String::toLowerCase).collect(toUnmodifiableList());
+        List<String> lowerCaseExternalIds = externalIds.stream().map(externalId -> externalId.toLowerCase(Locale.ENGLISH)).collect(toUnmodifiableList());
 
-        return entityManager.get()
-                .createQuery(query, UserEntity.class)
+        return withUserAggregate(entityManager.get().createNamedQuery(UserEntity.FIND_BY_EXTERNAL_IDS, UserEntity.class))
                 .setParameter("externalIds", lowerCaseExternalIds)
                 .getResultList();
     }
 
+    /**
+     * Finds the emails of the admins of the services that own each gateway account. The ids are bound as a single
+     * array parameter, {@value #GATEWAY_ACCOUNT_IDS_PER_QUERY} at a time, so the query text and the number of bind
+     * parameters stay the same however many ids are requested. Each chunk's rows are loaded in full before they are
+     * grouped into the map, which holds every email anyway. Gateway accounts without admins are left out.
+     */
     public Map<String, List<String>> getAdminUserEmailsForGatewayAccountIds(List<String> gatewayAccountIds) {
-        if (gatewayAccountIds.size() > 0) {
-            String positionalParams = IntStream.rangeClosed(1, gatewayAccountIds.size()).mapToObj(Integer::toString)
-                    .map(i -> "?" + i).collect(Collectors.joining(","));
-
-            String query = "SELECT sga.gateway_account_id, users.email FROM service_gateway_accounts sga" +
-                    " RIGHT JOIN user_services_roles usr" +
-                    " ON usr.service_id = sga.service_id" +
-                    " JOIN users ON users.id = usr.user_id" +
-                    " JOIN roles ON roles.id = usr.role_id" +
-                    " WHERE sga.gateway_account_id in (" + positionalParams + ")" +
-                    " AND roles.name='admin'" +
-                    " ORDER by sga.gateway_account_id";
-
-            Query nativeQuery = entityManager.get().createNativeQuery(query);
-
-            IntStream.rangeClosed(1, gatewayAccountIds.size()).forEach(i ->
-                    nativeQuery.setParameter(i, gatewayAccountIds.get(i - 1)));
-
-            List<Object[]> gatewayAccountIdsToAdminEmails = nativeQuery.getResultList();
-            return gatewayAccountIdsToAdminEmails.stream()
-                    .map(arrayOfObject -> new SimpleEntry<>((String) arrayOfObject[0], (String) arrayOfObject[1]))
-                    .collect(groupingBy(SimpleEntry::getKey))
-                    .entrySet()
-                    .stream()
-                    .collect(toUnmodifiableMap(
-                            Map.Entry::getKey,
-                            abstractMap -> abstractMap.getValue().stream().map(SimpleEntry::getValue).collect(toUnmodifiableList())));
-        } else {
-            return Map.of();
+        String query = "SELECT sga.gateway_account_id, users.email FROM service_gateway_accounts sga" +
+                " JOIN user_services_roles usr ON usr.service_id = sga.service_id" +
+                " JOIN users ON users.id = usr.user_id" +
+                " JOIN roles ON roles.id = usr.role_id" +
+                " WHERE sga.gateway_account_id = ANY(CAST(?1 AS varchar[]))" +
+                " AND roles.name = 'admin'";
+
+        List<String> distinctGatewayAccountIds = gatewayAccountIds.stream().distinct().toList();
+        Map<String, List<String>> adminEmailsByGatewayAccountId = new HashMap<>();
+        for (int from = 0; from < distinctGatewayAccountIds.size(); from += GATEWAY_ACCOUNT_IDS_PER_QUERY) {
+            String[] chunk = distinctGatewayAccountIds
+                    .subList(from, Math.min(from + GATEWAY_ACCOUNT_IDS_PER_QUERY, distinctGatewayAccountIds.size()))
+                    .toArray(String[]::new);
+
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.get()
+                    .createNativeQuery(query)
+                    .setParameter(1, chunk)
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                adminEmailsByGatewayAccountId.computeIfAbsent((String) row[0], gatewayAccountId -> new ArrayList<>())
+                        .add((String) row[1]);
+            }
         }
+        return adminEmailsByGatewayAccountId;
     }
 
     public Optional<UserEntity> findByEmail(String email) {
-        String query = "SELECT u FROM UserEntity u " +
-                "WHERE LOWER(u.email) = LOWER(:email)";
-
-        return entityManager.get()
-                .createQuery(query, UserEntity.class)
+        return withUserAggregate(entityManager.get().createNamedQuery(UserEntity.FIND_BY_EMAIL, UserEntity.class))
                 .setParameter("email", email)
                 .getResultList().stream().findFirst();
     }
 
     public List<UserEntity> findByServiceId(Integer serviceId, RoleName roleName) {
+        return findByServiceId(serviceId, roleName, null, null);
+    }
 
-        String query = "SELECT s FROM ServiceRoleEntity s ";
-        
-        if (roleName != null) {
-            query += " LEFT JOIN RoleEntity re ON s.role = re ";
-        }
+    /**
+     * Finds the users of a service ordered by email, optionally only those with {@code roleName}. When
+     * {@code afterEmail} is given only users whose email sorts after it are returned, so pages can be walked by
+     * passing the last email of the previous page; {@code limit} caps the page size.
+     */
+    public List<UserEntity> findByServiceId(Integer serviceId, RoleName roleName, String afterEmail, Integer limit) {
+        TypedQuery<ServiceRoleEntity> query = entityManager.get().createNamedQuery(roleName == null
+                ? ServiceRoleEntity.FIND_USERS_BY_SERVICE_ID
+                : ServiceRoleEntity.FIND_USERS_BY_SERVICE_ID_AND_ROLE, ServiceRoleEntity.class);
+
+        return withServiceUsersParameters(query, serviceId, roleName, afterEmail, limit)
+                .getResultList().stream()
+                .map(ServiceRoleEntity::getUser)
+                .toList();
+    }
 
-        query += " WHERE s.service.id = :serviceId ";
-        
-        if (roleName != null) {
-            query += " AND re.roleName = :roleName ";
-        }
-        
-        query += " ORDER BY s.user.email";
+    /**
+     * As {@link #findByServiceId(Integer, RoleName, String, Integer)} but reads only the columns in
+     * {@link ServiceUserSummary}, so no user entities or their other service roles are loaded.
+     */
+    public List<ServiceUserSummary> findSummariesByServiceId(Integer serviceId, RoleName roleName, String afterEmail, Integer limit) {
+        TypedQuery<ServiceUserSummary> query = entityManager.get().createNamedQuery(roleName == null
+                ? ServiceRoleEntity.FIND_USER_SUMMARIES_BY_SERVICE_ID
+                : ServiceRoleEntity.FIND_USER_SUMMARIES_BY_SERVICE_ID_AND_ROLE, ServiceUserSummary.class);
 
-        TypedQuery<ServiceRoleEntity> typedQuery = entityManager.get()
-                .createQuery(query, ServiceRoleEntity.class)
-                .setParameter("serviceId", serviceId);
-        
+        return withServiceUsersParameters(query, serviceId, roleName, afterEmail, limit).getResultList();
+    }
+
+    private static <T> TypedQuery<T> withServiceUsersParameters(TypedQuery<T> query, Integer serviceId, RoleName roleName,
+                                                                String afterEmail, Integer limit) {
+        query.setParameter("serviceId", serviceId);
+        // Every email sorts after the empty string, so the first page needs no separate query
+        query.setParameter("afterEmail", afterEmail == null ? "" : afterEmail);
         if (roleName != null) {
-            typedQuery.setParameter("roleName", roleName);
+            query.setParameter("roleName", roleName);
         }
-        
-        return typedQuery.getResultList().stream()
-                .map(ServiceRoleEntity::getUser)
-                .toList();
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return query;
     }
 
     public List<UserEntity> findByServiceId(Integer serviceId) {
         return findByServiceId(serviceId, null);
     }
 
-    public int deleteUsersNotAssociatedWithAnyService(Instant deleteRecordsBeforeDate) {
-        String query = "DELETE FROM users u" +
-                " WHERE u.id in (" +
-                "    SELECT u.id FROM users u" +
-                "     LEFT OUTER JOIN user_services_roles usr " +
-                "     ON u.id = usr.user_id" +
-                "    WHERE usr.user_id is null" +
-                "      AND (last_logged_in_at < ?1 OR (\"createdAt\" < ?2 AND last_logged_in_at IS null))" +
-                " )";
-
-        return entityManager.get()
-                .createNativeQuery(query)
-                .setParameter(1, from(deleteRecordsBeforeDate))
-                .setParameter(2, from(deleteRecordsBeforeDate))
-                .executeUpdate();
+    public DeletedBatch deleteUsersNotAssociatedWithAnyService(Instant deleteRecordsBeforeDate, int afterId, int batchSize) {
+        String predicate = "NOT EXISTS (SELECT 1 FROM user_services_roles usr WHERE usr.user_id = users.id)" +
+                " AND (last_logged_in_at < ?3 OR (\"createdAt\" < ?4 AND last_logged_in_at IS null))";
+
+        return deleteBatch("users", predicate, afterId, batchSize,
+                from(deleteRecordsBeforeDate), from(deleteRecordsBeforeDate));
+    }
+
+    private static TypedQuery<UserEntity> withUserAggregate(TypedQuery<UserEntity> query) {
+        query.setHint(QueryHints.BATCH_TYPE, BatchFetchType.IN);
+        USER_AGGREGATE_BATCH_FETCH_PATHS.forEach(path -> query.setHint(QueryHints.BATCH, path));
+        return query;
     }
 }
@@ -7,6 +7,8 @@ import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.ZoneId;
@@ -17,8 +19,13 @@ import static uk.gov.pay.adminusers.model.ForgottenPassword.forgottenPassword;
 @Entity
 @Table(name = "forgotten_passwords")
 @SequenceGenerator(name = "forgotten_passwords_id_seq", sequenceName = "forgotten_passwords_id_seq", allocationSize = 1)
+@NamedQueries({
+        @NamedQuery(name = ForgottenPasswordEntity.FIND_NON_EXPIRED_BY_CODE, query = "SELECT fp FROM ForgottenPasswordEntity fp WHERE fp.code = :code AND fp.date >= :expiry")
+})
 public class ForgottenPasswordEntity extends AbstractEntity {
 
+    public static final String FIND_NON_EXPIRED_BY_CODE = "ForgottenPasswordEntity.findNonExpiredByCode";
+
     @Column(name = "date")
     @Convert(converter = UTCDateTimeConverter.class)
     private ZonedDateTime date;
@@ -8,14 +8,21 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "service_gateway_accounts")
 @SequenceGenerator(name = "service_gatewayAccounts_seq_gen", sequenceName = "service_gateway_accounts_id_seq", allocationSize = 1)
+@NamedQueries({
+        @NamedQuery(name = GatewayAccountIdEntity.FIND_BY_GATEWAY_ACCOUNT_ID, query = "SELECT ga FROM GatewayAccountIdEntity ga WHERE ga.gatewayAccountId = :gatewayAccountId")
+})
 public class GatewayAccountIdEntity {
 
+    public static final String FIND_BY_GATEWAY_ACCOUNT_ID = "GatewayAccountIdEntity.findByGatewayAccountId";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_gatewayAccounts_seq_gen")
     private Long id;
@@ -9,6 +9,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
@@ -16,8 +18,13 @@ import java.time.ZonedDateTime;
 
 @Entity
 @Table(name = "govuk_pay_agreements")
+@NamedQueries({
+        @NamedQuery(name = GovUkPayAgreementEntity.FIND_BY_SERVICE_EXTERNAL_ID, query = "SELECT agreement FROM GovUkPayAgreementEntity agreement WHERE agreement.service.externalId = :externalServiceId")
+})
 public class GovUkPayAgreementEntity {
 
+    public static final String FIND_BY_SERVICE_EXTERNAL_ID = "GovUkPayAgreementEntity.findByServiceExternalId";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "govuk_pay_agreements_id_seq_gen")
     @SequenceGenerator(name = "govuk_pay_agreements_id_seq_gen", sequenceName = "govuk_pay_agreements_id_seq", allocationSize = 1)
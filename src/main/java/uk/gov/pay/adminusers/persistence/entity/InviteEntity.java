@@ -12,6 +12,8 @@ import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.Table;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -24,8 +26,26 @@ import static uk.gov.pay.adminusers.persistence.entity.UTCDateTimeConverter.UTC;
 
 @Entity
 @Table(name = "invites")
+@NamedQueries({
+        @NamedQuery(name = InviteEntity.FIND_BY_CODE, query = "SELECT invite FROM InviteEntity invite WHERE invite.code = :code"),
+        @NamedQuery(name = InviteEntity.FIND_BY_EMAIL, query = "SELECT invite FROM InviteEntity invite WHERE invite.email = :email"),
+        @NamedQuery(name = InviteEntity.FIND_BY_SERVICE_EXTERNAL_ID, query = "SELECT invite FROM InviteEntity invite WHERE invite.service.externalId = :serviceId"),
+        @NamedQuery(name = InviteEntity.FIND_BY_CODE_WITH_USER_EXISTS, query = "SELECT invite, u.id FROM InviteEntity invite" +
+                " LEFT JOIN UserEntity u ON LOWER(u.email) = LOWER(invite.email)" +
+                " WHERE invite.code = :code"),
+        @NamedQuery(name = InviteEntity.FIND_ACTIVE_BY_SERVICE_EXTERNAL_ID_WITH_USER_EXISTS, query = "SELECT invite, u.id FROM InviteEntity invite" +
+                " LEFT JOIN UserEntity u ON LOWER(u.email) = LOWER(invite.email)" +
+                " WHERE invite.service.externalId = :serviceId AND invite.disabled = false AND invite.expiryDate >= :now" +
+                " ORDER BY invite.id")
+})
 public class InviteEntity extends AbstractEntity {
 
+    public static final String FIND_BY_CODE = "InviteEntity.findByCode";
+    public static final String FIND_BY_EMAIL = "InviteEntity.findByEmail";
+    public static final String FIND_BY_SERVICE_EXTERNAL_ID = "InviteEntity.findByServiceExternalId";
+    public static final String FIND_BY_CODE_WITH_USER_EXISTS = "InviteEntity.findByCodeWithUserExists";
+    public static final String FIND_ACTIVE_BY_SERVICE_EXTERNAL_ID_WITH_USER_EXISTS = "InviteEntity.findActiveByServiceExternalIdWithUserExists";
+
     private static final long EXPIRY_DAYS = 2L;
 
     @Column(name = "date")
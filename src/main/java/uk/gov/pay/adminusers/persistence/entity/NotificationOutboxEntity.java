@@ -0,0 +1,148 @@
+package uk.gov.pay.adminusers.persistence.entity;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+/**
+ * A Notify email or SMS waiting to be sent by the {@code NotificationOutboxDispatcher}. Rows are deleted once Notify
+ * has accepted them, or once their {@code expiryDate} has passed for notifications such as sign-in codes that are
+ * useless after a while. Not held in the shared cache because the dispatcher updates rows with bulk and native
+ * queries.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Cacheable(false)
+@SequenceGenerator(name = "notification_outbox_seq_gen", sequenceName = "notification_outbox_id_seq", allocationSize = 1)
+@NamedQueries({
+        @NamedQuery(name = NotificationOutboxEntity.EXTEND_LEASE, query = "UPDATE NotificationOutboxEntity o SET o.nextAttemptDate = :leaseUntil WHERE o.id IN :ids"),
+        @NamedQuery(name = NotificationOutboxEntity.DELETE_BY_ID, query = "DELETE FROM NotificationOutboxEntity o WHERE o.id = :id")
+})
+public class NotificationOutboxEntity {
+
+    public static final String EXTEND_LEASE = "NotificationOutboxEntity.extendLease";
+    public static final String DELETE_BY_ID = "NotificationOutboxEntity.deleteById";
+
+    public enum NotificationType {
+        EMAIL, SMS
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq_gen")
+    private Long id;
+
+    @Column(name = "notification_type")
+    @Enumerated(EnumType.STRING)
+    private NotificationType notificationType;
+
+    @Column(name = "template_id")
+    private String templateId;
+
+    @Column(name = "recipient")
+    private String recipient;
+
+    @Column(name = "personalisation", columnDefinition = "jsonb")
+    @Convert(converter = PersonalisationConverter.class)
+    private Map<String, String> personalisation;
+
+    @Column(name = "email_reply_to_id")
+    private String emailReplyToId;
+
+    @Column(name = "created_date")
+    @Convert(converter = UTCDateTimeConverter.class)
+    private ZonedDateTime createdDate;
+
+    @Column(name = "next_attempt_date")
+    @Convert(converter = UTCDateTimeConverter.class)
+    private ZonedDateTime nextAttemptDate;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "expiry_date")
+    @Convert(converter = UTCDateTimeConverter.class)
+    private ZonedDateTime expiryDate;
+
+    public NotificationOutboxEntity() {
+    }
+
+    public NotificationOutboxEntity(NotificationType notificationType, String templateId, String recipient,
+                                    Map<String, String> personalisation, String emailReplyToId, ZonedDateTime createdDate) {
+        this(notificationType, templateId, recipient, personalisation, emailReplyToId, createdDate, null);
+    }
+
+    public NotificationOutboxEntity(NotificationType notificationType, String templateId, String recipient,
+                                    Map<String, String> personalisation, String emailReplyToId, ZonedDateTime createdDate,
+                                    ZonedDateTime expiryDate) {
+        this.notificationType = notificationType;
+        this.templateId = templateId;
+        this.recipient = recipient;
+        this.personalisation = personalisation;
+        this.emailReplyToId = emailReplyToId;
+        this.createdDate = createdDate;
+        this.nextAttemptDate = createdDate;
+        this.expiryDate = expiryDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public NotificationType getNotificationType() {
+        return notificationType;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public Map<String, String> getPersonalisation() {
+        return personalisation;
+    }
+
+    public String getEmailReplyToId() {
+        return emailReplyToId;
+    }
+
+    public ZonedDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public ZonedDateTime getNextAttemptDate() {
+        return nextAttemptDate;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * When the notification stops being worth sending, or {@code null} if it never does.
+     */
+    public ZonedDateTime getExpiryDate() {
+        return expiryDate;
+    }
+}
@@ -0,0 +1,41 @@
+package uk.gov.pay.adminusers.persistence.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.util.PGobject;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.sql.SQLException;
+import java.util.Map;
+
+@Converter
+public class PersonalisationConverter implements AttributeConverter<Map<String, String>, PGobject> {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public PGobject convertToDatabaseColumn(Map<String, String> personalisation) {
+        PGobject dbPersonalisation = new PGobject();
+        dbPersonalisation.setType("jsonb");
+        try {
+            dbPersonalisation.setValue(objectMapper.writeValueAsString(personalisation));
+        } catch (SQLException | JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+        return dbPersonalisation;
+    }
+
+    @Override
+    public Map<String, String> convertToEntityAttribute(PGobject dbPersonalisation) {
+        if (dbPersonalisation == null || dbPersonalisation.getValue() == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(dbPersonalisation.getValue(), new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
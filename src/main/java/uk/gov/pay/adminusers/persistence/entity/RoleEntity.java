@@ -12,6 +12,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.Table;
 import java.util.HashSet;
 import java.util.Set;
@@ -30,8 +32,13 @@ import static uk.gov.pay.adminusers.persistence.entity.Role.ADMIN;
 @ReadOnly
 @Entity
 @Table(name = "roles")
+@NamedQueries({
+        @NamedQuery(name = RoleEntity.FIND_BY_ROLE_NAME, query = "SELECT r FROM RoleEntity r WHERE r.roleName = :roleName")
+})
 public class RoleEntity {
 
+    public static final String FIND_BY_ROLE_NAME = "RoleEntity.findByRoleName";
+
     @Id
     @Column(name = "id")
     private Integer id;
@@ -10,6 +10,8 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
@@ -38,7 +40,18 @@ import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 @Entity
 @Table(name = "services")
 @SequenceGenerator(name = "services_seq_gen", sequenceName = "services_id_seq", allocationSize = 1)
+@NamedQueries({
+        @NamedQuery(name = ServiceEntity.LIST_ALL, query = "SELECT s FROM ServiceEntity s"),
+        @NamedQuery(name = ServiceEntity.LIST_AFTER_ID, query = "SELECT s FROM ServiceEntity s WHERE s.id > :afterId ORDER BY s.id"),
+        @NamedQuery(name = ServiceEntity.FIND_BY_EXTERNAL_ID, query = "SELECT s FROM ServiceEntity s WHERE s.externalId = :externalId"),
+        @NamedQuery(name = ServiceEntity.FIND_BY_IDS, query = "SELECT s FROM ServiceEntity s WHERE s.id IN :ids ORDER BY s.id")
+})
 public class ServiceEntity {
+
+    public static final String LIST_ALL = "ServiceEntity.listAll";
+    public static final String LIST_AFTER_ID = "ServiceEntity.listAfterId";
+    public static final String FIND_BY_EXTERNAL_ID = "ServiceEntity.findByExternalId";
+    public static final String FIND_BY_IDS = "ServiceEntity.findByIds";
     
     public static final String DEFAULT_BILLING_ADDRESS_COUNTRY = "GB";
 
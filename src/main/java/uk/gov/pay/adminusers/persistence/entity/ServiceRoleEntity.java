@@ -8,12 +8,33 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MapsId;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "user_services_roles")
+@NamedQueries({
+        @NamedQuery(name = ServiceRoleEntity.FIND_BY_SERVICE_ID, query = "SELECT s FROM ServiceRoleEntity s WHERE s.service.id = :serviceId"),
+        @NamedQuery(name = ServiceRoleEntity.FIND_USERS_BY_SERVICE_ID, query = "SELECT s FROM ServiceRoleEntity s JOIN s.user u JOIN s.role r" +
+                " WHERE s.service.id = :serviceId AND u.email > :afterEmail ORDER BY u.email"),
+        @NamedQuery(name = ServiceRoleEntity.FIND_USERS_BY_SERVICE_ID_AND_ROLE, query = "SELECT s FROM ServiceRoleEntity s JOIN s.user u JOIN s.role r" +
+                " WHERE s.service.id = :serviceId AND r.roleName = :roleName AND u.email > :afterEmail ORDER BY u.email"),
+        @NamedQuery(name = ServiceRoleEntity.FIND_USER_SUMMARIES_BY_SERVICE_ID, query = "SELECT NEW uk.gov.pay.adminusers.model.ServiceUserSummary(u.externalId, u.email, r.roleName, u.disabled, u.lastLoggedInAt)" +
+                " FROM ServiceRoleEntity s JOIN s.user u JOIN s.role r" +
+                " WHERE s.service.id = :serviceId AND u.email > :afterEmail ORDER BY u.email"),
+        @NamedQuery(name = ServiceRoleEntity.FIND_USER_SUMMARIES_BY_SERVICE_ID_AND_ROLE, query = "SELECT NEW uk.gov.pay.adminusers.model.ServiceUserSummary(u.externalId, u.email, r.roleName, u.disabled, u.lastLoggedInAt)" +
+                " FROM ServiceRoleEntity s JOIN s.user u JOIN s.role r" +
+                " WHERE s.service.id = :serviceId AND r.roleName = :roleName AND u.email > :afterEmail ORDER BY u.email")
+})
 public class ServiceRoleEntity {
 
+    public static final String FIND_BY_SERVICE_ID = "ServiceRoleEntity.findByServiceId";
+    public static final String FIND_USERS_BY_SERVICE_ID = "ServiceRoleEntity.findUsersByServiceId";
+    public static final String FIND_USERS_BY_SERVICE_ID_AND_ROLE = "ServiceRoleEntity.findUsersByServiceIdAndRole";
+    public static final String FIND_USER_SUMMARIES_BY_SERVICE_ID = "ServiceRoleEntity.findUserSummariesByServiceId";
+    public static final String FIND_USER_SUMMARIES_BY_SERVICE_ID_AND_ROLE = "ServiceRoleEntity.findUserSummariesByServiceIdAndRole";
+
     @EmbeddedId
     private UserServiceId userServiceId;
 
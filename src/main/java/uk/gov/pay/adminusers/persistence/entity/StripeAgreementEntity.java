@@ -9,6 +9,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
@@ -20,8 +22,13 @@ import java.time.ZonedDateTime;
 @Table(name = "stripe_agreements")
 @SequenceGenerator(name = "stripe_agreements_id_seq_gen", sequenceName = "stripe_agreements_id_seq", allocationSize = 1)
 
+@NamedQueries({
+        @NamedQuery(name = StripeAgreementEntity.FIND_BY_SERVICE_EXTERNAL_ID, query = "SELECT s FROM StripeAgreementEntity s WHERE s.service.externalId = :serviceExternalId")
+})
 public class StripeAgreementEntity {
 
+    public static final String FIND_BY_SERVICE_EXTERNAL_ID = "StripeAgreementEntity.findByServiceExternalId";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stripe_agreements_id_seq_gen")
     private int id;
@@ -11,6 +11,8 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
@@ -27,8 +29,17 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 @Entity
 @Table(name = "users")
 @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 1)
+@NamedQueries({
+        @NamedQuery(name = UserEntity.FIND_BY_EXTERNAL_ID, query = "SELECT u FROM UserEntity u WHERE LOWER(u.externalId) = :externalId"),
+        @NamedQuery(name = UserEntity.FIND_BY_EXTERNAL_IDS, query = "SELECT u FROM UserEntity u WHERE LOWER(u.externalId) IN :externalIds"),
+        @NamedQuery(name = UserEntity.FIND_BY_EMAIL, query = "SELECT u FROM UserEntity u WHERE LOWER(u.email) = LOWER(:email)")
+})
 public class UserEntity extends AbstractEntity {
 
+    public static final String FIND_BY_EXTERNAL_ID = "UserEntity.findByExternalId";
+    public static final String FIND_BY_EXTERNAL_IDS = "UserEntity.findByExternalIds";
+    public static final String FIND_BY_EMAIL = "UserEntity.findByEmail";
+
     @Column(name = "external_id")
     private String externalId;
 
@@ -0,0 +1,252 @@
+package uk.gov.pay.adminusers.queue;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.Managed;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.ConnectorTaskQueueConfig;
+import uk.gov.pay.adminusers.queue.model.ConnectorTask;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Sends {@link ConnectorTask}s to the connector tasks queue in the background using SQS {@code SendMessageBatch}.
+ * Published tasks are buffered and a single thread sends them once {@code batchSize} are waiting or
+ * {@code maxBatchDelayInMillis} has passed, whichever is first. Tasks that SQS fails to accept are held back and
+ * retried with exponential backoff until {@code maxSendAttempts} is reached, except that ones SQS rejects as invalid
+ * are abandoned straight away. Tasks still waiting when the application stops are sent, ignoring any backoff, before
+ * it shuts down.
+ */
+public class ConnectorTaskPublisher implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorTaskPublisher.class);
+    private static final String THREAD_NAME = "connector-task-publisher";
+    private static final String METRIC_PREFIX = "connector-task-publisher";
+    private static final int SHUTDOWN_TIMEOUT_IN_SECONDS = 10;
+
+    private final SqsClient sqsClient;
+    private final ObjectMapper objectMapper;
+    private final String queueUrl;
+    private final int batchSize;
+    private final long maxBatchDelayInMillis;
+    private final int maxSendAttempts;
+    private final long initialRetryDelayInMillis;
+    private final long maxRetryDelayInMillis;
+    private final InstantSource instantSource;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final LinkedBlockingQueue<PendingTask> buffer = new LinkedBlockingQueue<>();
+    private final List<PendingTask> retries = new ArrayList<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final Meter sent;
+    private final Meter retried;
+    private final Meter abandoned;
+    private final Histogram batchSizes;
+    private final Timer flushLatency;
+
+    @Inject
+    public ConnectorTaskPublisher(SqsClient sqsClient, ObjectMapper objectMapper, AdminUsersConfig adminUsersConfig,
+                                  InstantSource instantSource, Environment environment) {
+        this(sqsClient, objectMapper, adminUsersConfig.getSqsConfig().getConnectorTasksQueueUrl(),
+                adminUsersConfig.getConnectorTaskQueueConfig(), instantSource,
+                environment.lifecycle().scheduledExecutorService(THREAD_NAME).threads(1).build(),
+                environment.metrics());
+    }
+
+    public ConnectorTaskPublisher(SqsClient sqsClient, ObjectMapper objectMapper, String queueUrl,
+                                  ConnectorTaskQueueConfig config, InstantSource instantSource,
+                                  ScheduledExecutorService scheduledExecutorService, MetricRegistry metricRegistry) {
+        this.sqsClient = sqsClient;
+        this.objectMapper = objectMapper;
+        this.queueUrl = queueUrl;
+        this.batchSize = config.getBatchSize();
+        this.maxBatchDelayInMillis = config.getMaxBatchDelayInMillis();
+        this.maxSendAttempts = config.getMaxSendAttempts();
+        this.initialRetryDelayInMillis = config.getInitialRetryDelayInMillis();
+        this.maxRetryDelayInMillis = config.getMaxRetryDelayInMillis();
+        this.instantSource = instantSource;
+        this.scheduledExecutorService = scheduledExecutorService;
+
+        this.sent = metricRegistry.meter(METRIC_PREFIX + ".sent");
+        this.retried = metricRegistry.meter(METRIC_PREFIX + ".retried");
+        this.abandoned = metricRegistry.meter(METRIC_PREFIX + ".abandoned");
+        this.batchSizes = metricRegistry.histogram(METRIC_PREFIX + ".batch_size");
+        this.flushLatency = metricRegistry.timer(METRIC_PREFIX + ".flush_latency");
+    }
+
+    @Override
+    public void start() {
+        scheduledExecutorService.scheduleWithFixedDelay(this::flush, maxBatchDelayInMillis, maxBatchDelayInMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffers the task to be sent with the next batch. Returns straight away; a task that cannot be serialised is
+     * logged and dropped.
+     */
+    public void publish(ConnectorTask task) {
+        try {
+            buffer.add(new PendingTask(task, objectMapper.writeValueAsString(task), 0, Instant.MIN));
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Error adding task to queue",
+                    kv("task_name", task.getTaskType()),
+                    kv("error", e.getMessage()));
+            return;
+        }
+
+        if (buffer.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduledExecutorService.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Sends the retries that are due and the tasks buffered when it is called, {@code batchSize} at a time. A task
+     * that fails again is held back until its next retry is due, so a flush never waits on SQS more than once per
+     * batch.
+     */
+    /* default */ void flush() {
+        flush(instantSource.instant());
+    }
+
+    private synchronized void flush(Instant now) {
+        flushRequested.set(false);
+        try {
+            List<PendingTask> due = new ArrayList<>();
+            for (Iterator<PendingTask> iterator = retries.iterator(); iterator.hasNext(); ) {
+                PendingTask pendingTask = iterator.next();
+                if (!pendingTask.notBefore().isAfter(now)) {
+                    due.add(pendingTask);
+                    iterator.remove();
+                }
+            }
+            buffer.drainTo(due);
+
+            for (int from = 0; from < due.size(); from += batchSize) {
+                send(due.subList(from, Math.min(from + batchSize, due.size())));
+            }
+        } catch (Exception e) {
+            LOGGER.error("Connector task publisher flush failed", e);
+        }
+    }
+
+    private void send(List<PendingTask> batch) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .messageBody(batch.get(i).messageBody())
+                    .build());
+        }
+        batchSizes.update(batch.size());
+
+        SendMessageBatchResponse response;
+        try (Timer.Context ignored = flushLatency.time()) {
+            response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(queueUrl)
+                    .entries(entries)
+                    .build());
+        } catch (SdkException e) {
+            batch.forEach(pendingTask -> handleFailure(pendingTask, e.getMessage(), false));
+            return;
+        }
+
+        for (SendMessageBatchResultEntry successful : response.successful()) {
+            ConnectorTask task = batch.get(Integer.parseInt(successful.id())).task();
+            sent.mark();
+            LOGGER.info("Task added to queue",
+                    kv("task_type", task.getTaskType()),
+                    kv("message_id", successful.messageId()));
+        }
+        for (BatchResultErrorEntry failed : response.failed()) {
+            handleFailure(batch.get(Integer.parseInt(failed.id())), failed.message(),
+                    Boolean.TRUE.equals(failed.senderFault()));
+        }
+    }
+
+    private void handleFailure(PendingTask pendingTask, String error, boolean rejected) {
+        int attempts = pendingTask.attempts() + 1;
+        if (rejected || attempts >= maxSendAttempts) {
+            abandoned.mark();
+            LOGGER.error("Error adding task to queue",
+                    kv("task_name", pendingTask.task().getTaskType()),
+                    kv("attempts", attempts),
+                    kv("error", error));
+        } else {
+            retried.mark();
+            Instant nextAttemptDate = instantSource.instant().plus(retryDelay(attempts));
+            retries.add(new PendingTask(pendingTask.task(), pendingTask.messageBody(), attempts, nextAttemptDate));
+            LOGGER.warn("Failed to add task to queue, will retry",
+                    kv("task_name", pendingTask.task().getTaskType()),
+                    kv("attempts", attempts),
+                    kv("next_attempt_date", nextAttemptDate.toString()),
+                    kv("error", error));
+        }
+    }
+
+    /* default */ Duration retryDelay(int attempts) {
+        long multiplier = 1L << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(Math.min(maxRetryDelayInMillis, initialRetryDelayInMillis * multiplier));
+    }
+
+    @Override
+    public void stop() {
+        LOGGER.info("Shutting down connector task publisher");
+        scheduledExecutorService.shutdown();
+        try {
+            if (!scheduledExecutorService.awaitTermination(SHUTDOWN_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Connector task publisher still sending after shutdown wait time, will now be forcefully stopped");
+                scheduledExecutorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduledExecutorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        sendRemainingTasks();
+    }
+
+    private synchronized void sendRemainingTasks() {
+        for (int attempt = 0; attempt < maxSendAttempts && !(buffer.isEmpty() && retries.isEmpty()); attempt++) {
+            flush(Instant.MAX);
+        }
+        retries.forEach(pendingTask -> LOGGER.error("Error adding task to queue",
+                kv("task_name", pendingTask.task().getTaskType()),
+                kv("attempts", pendingTask.attempts()),
+                kv("error", "Application stopped before the task could be sent")));
+        retries.clear();
+    }
+
+    private record PendingTask(ConnectorTask task, String messageBody, int attempts, Instant notBefore) {
+    }
+}
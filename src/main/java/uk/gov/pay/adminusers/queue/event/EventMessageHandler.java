@@ -81,41 +81,61 @@ public class EventMessageHandler {
         this.objectMapper = objectMapper;
     }
 
-    public void processMessages() throws QueueException {
-        List<EventMessage> eventMessages = eventSubscriberQueue.retrieveEvents();
-        for (EventMessage message : eventMessages) {
-            try {
-                EventType eventType = EventType.byType(message.getEvent().getEventType());
-
-                logger.info("Retrieved event queue message with id [{}] for resource external id [{}]",
-                        message.getQueueMessage().getMessageId(), message.getEvent().getResourceExternalId());
-
-                switch (eventType) {
-                    case DISPUTE_CREATED:
-                        handleDisputeCreatedMessage(message.getEvent());
-                        break;
-                    case DISPUTE_EVIDENCE_SUBMITTED:
-                        handleDisputeEvidenceSubmittedMessage(message.getEvent());
-                        break;
-                    case DISPUTE_LOST:
-                        handleDisputeLostMessage(message.getEvent());
-                        break;
-                    case DISPUTE_WON:
-                        handleDisputeWonMessage(message.getEvent());
-                        break;
-                    default:
-                        logger.info("Unknown event type: {}", message.getEvent().getEventType());
-                }
-
-                eventSubscriberQueue.markMessageAsProcessed(message.getQueueMessage());
-            } catch (Exception e) {
-                Sentry.captureException(e);
-                logger.warn("An error occurred handling the event message",
-                        kv("sqs_message_id", message.getQueueMessage().getMessageId()),
-                        kv("resource_external_id", message.getEvent().getResourceExternalId()),
-                        kv("error", e.getMessage())
-                );
+    public List<EventMessage> retrieveEvents() throws QueueException {
+        return eventSubscriberQueue.retrieveEvents();
+    }
+
+    /**
+     * Handles a single message, deleting it from the queue once handled. A message that cannot be handled is made
+     * visible again after the failed message retry delay rather than waiting for its visibility timeout.
+     *
+     * @return whether the message was handled
+     */
+    public boolean processMessage(EventMessage message) {
+        try {
+            EventType eventType = EventType.byType(message.getEvent().getEventType());
+
+            logger.info("Retrieved event queue message with id [{}] for resource external id [{}]",
+                    message.getQueueMessage().getMessageId(), message.getEvent().getResourceExternalId());
+
+            switch (eventType) {
+                case DISPUTE_CREATED:
+                    handleDisputeCreatedMessage(message.getEvent());
+                    break;
+                case DISPUTE_EVIDENCE_SUBMITTED:
+                    handleDisputeEvidenceSubmittedMessage(message.getEvent());
+                    break;
+                case DISPUTE_LOST:
+                    handleDisputeLostMessage(message.getEvent());
+                    break;
+                case DISPUTE_WON:
+                    handleDisputeWonMessage(message.getEvent());
+                    break;
+                default:
+                    logger.info("Unknown event type: {}", message.getEvent().getEventType());
             }
+
+            eventSubscriberQueue.markMessageAsProcessed(message.getQueueMessage());
+            return true;
+        } catch (Exception e) {
+            Sentry.captureException(e);
+            logger.warn("An error occurred handling the event message",
+                    kv("sqs_message_id", message.getQueueMessage().getMessageId()),
+                    kv("resource_external_id", message.getEvent().getResourceExternalId()),
+                    kv("error", e.getMessage())
+            );
+            scheduleForRetry(message);
+            return false;
+        }
+    }
+
+    private void scheduleForRetry(EventMessage message) {
+        try {
+            eventSubscriberQueue.scheduleMessageForRetry(message.getQueueMessage());
+        } catch (QueueException e) {
+            logger.warn("Failed to schedule event message for retry",
+                    kv("sqs_message_id", message.getQueueMessage().getMessageId()),
+                    kv("error", e.getMessage()));
         }
     }
 
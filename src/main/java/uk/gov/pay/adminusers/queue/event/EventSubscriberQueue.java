@@ -3,7 +3,14 @@ package uk.gov.pay.adminusers.queue.event;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
 import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.SqsConfig;
 import uk.gov.pay.adminusers.queue.model.Event;
 import uk.gov.pay.adminusers.queue.model.EventMessage;
 import uk.gov.pay.adminusers.queue.model.SNSMessage;
@@ -14,38 +21,80 @@ import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
 import jakarta.inject.Inject;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
+/**
+ * Receives events from the event subscriber queue. Messages are received with the SQS client rather than through
+ * {@link AbstractQueue#retrieveMessages()} so that their {@code SentTimestamp} can be requested too, letting the
+ * receiver measure how long each event waited on the queue.
+ */
 public class EventSubscriberQueue extends AbstractQueue {
 
+    private static final String ALL_MESSAGE_ATTRIBUTES = "All";
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    private final SqsClient sqsClient;
+    private final String queueUrl;
+    private final int messageMaximumWaitTimeInSeconds;
+    private final int messageMaximumBatchSize;
+
     @Inject
-    public EventSubscriberQueue(SqsQueueService sqsQueueService, AdminUsersConfig adminUsersConfig, ObjectMapper objectMapper) {
+    public EventSubscriberQueue(SqsQueueService sqsQueueService, SqsClient sqsClient, AdminUsersConfig adminUsersConfig,
+                                ObjectMapper objectMapper) {
         super(sqsQueueService,
                 objectMapper,
                 adminUsersConfig.getSqsConfig().getEventSubscriberQueueUrl(),
                 adminUsersConfig.getEventSubscriberQueueConfig().getFailedMessageRetryDelayInSeconds());
+        SqsConfig sqsConfig = adminUsersConfig.getSqsConfig();
+        this.sqsClient = sqsClient;
+        this.queueUrl = sqsConfig.getEventSubscriberQueueUrl();
+        this.messageMaximumWaitTimeInSeconds = sqsConfig.getMessageMaximumWaitTimeInSeconds();
+        this.messageMaximumBatchSize = sqsConfig.getMessageMaximumBatchSize();
     }
-    
+
     public List<EventMessage> retrieveEvents() throws QueueException {
-        List<QueueMessage> queueMessages = retrieveMessages();
+        ReceiveMessageResponse response = receiveMessages();
+        List<QueueMessage> queueMessages = QueueMessage.of(response);
 
-        return queueMessages
-                .stream()
-                .map(this::deserializeMessage)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<EventMessage> eventMessages = new ArrayList<>(queueMessages.size());
+        for (int i = 0; i < queueMessages.size(); i++) {
+            EventMessage eventMessage = deserializeMessage(queueMessages.get(i), sentTimestamp(response.messages().get(i)));
+            if (eventMessage != null) {
+                eventMessages.add(eventMessage);
+            }
+        }
+        return eventMessages;
     }
 
-    private EventMessage deserializeMessage(QueueMessage queueMessage) {
+    private ReceiveMessageResponse receiveMessages() throws QueueException {
+        try {
+            return sqsClient.receiveMessage(ReceiveMessageRequest.builder()
+                    .queueUrl(queueUrl)
+                    .messageAttributeNames(ALL_MESSAGE_ATTRIBUTES)
+                    .messageSystemAttributeNames(MessageSystemAttributeName.SENT_TIMESTAMP)
+                    .waitTimeSeconds(messageMaximumWaitTimeInSeconds)
+                    .maxNumberOfMessages(messageMaximumBatchSize)
+                    .build());
+        } catch (SdkException e) {
+            logger.error("Failed to receive messages from SQS queue - {}", e.getMessage());
+            throw new QueueException(e.getMessage());
+        }
+    }
+
+    private static Instant sentTimestamp(Message message) {
+        String sentTimestamp = message.attributes().get(MessageSystemAttributeName.SENT_TIMESTAMP);
+        return sentTimestamp == null ? null : Instant.ofEpochMilli(Long.parseLong(sentTimestamp));
+    }
+
+    private EventMessage deserializeMessage(QueueMessage queueMessage, Instant sentTimestamp) {
         try {
             SNSMessage snsMessage = objectMapper.readValue(queueMessage.getMessageBody(), SNSMessage.class);
             Event event = objectMapper.readValue(snsMessage.getMessage(), Event.class);
-            
-            return EventMessage.of(event, queueMessage);
+
+            return EventMessage.of(event, queueMessage, sentTimestamp);
         } catch (IOException e) {
             logger.warn(
                     "There was an exception parsing message [messageId={}] into an [{}]",
@@ -1,5 +1,10 @@
 package uk.gov.pay.adminusers.queue.managed;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Stopwatch;
 import io.dropwizard.core.setup.Environment;
 import io.dropwizard.lifecycle.Managed;
 import org.slf4j.Logger;
@@ -7,60 +12,149 @@ import org.slf4j.LoggerFactory;
 import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
 import uk.gov.pay.adminusers.app.config.EventSubscriberQueueConfig;
 import uk.gov.pay.adminusers.queue.event.EventMessageHandler;
+import uk.gov.pay.adminusers.queue.model.EventMessage;
 
 import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.InstantSource;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Polls the event subscriber queue on {@code numberOfPollers} threads and hands each message to a pool of
+ * {@code queueSchedulerNumberOfThreads} workers. Each poll first reserves room for a full batch within
+ * {@code maxInFlightMessages} and is skipped if there is none, so messages are not received (and their visibility
+ * timeout started) until a worker is likely to be free to handle them, however many pollers there are. The queue lag
+ * histogram records how long each message waited between being sent to the queue and a worker starting on it.
+ */
 public class EventSubscriberQueueMessageReceiver implements Managed {
 
     private static final String THREAD_NAME = "sqs-message-eventSubscriberQueueMessageReceiver";
-    private static final int SCHEDULER_NUMBER_OF_THREADS = 1;
+    private static final String WORKER_THREAD_NAME = "sqs-message-eventSubscriberQueueWorker-%d";
+    private static final String METRIC_PREFIX = "event-subscriber-queue";
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final EventMessageHandler eventMessageHandler;
     private final ScheduledExecutorService scheduledExecutorService;
+    private final ExecutorService workerExecutorService;
+    private final InstantSource instantSource;
+    private final Semaphore inFlightMessages;
+
+    private final Meter processedMessages;
+    private final Meter failedMessages;
+    private final Histogram queueLag;
+    private final Histogram processingTime;
 
+    private final int messageBatchSize;
+    private final int numberOfPollers;
     private final int queueSchedulerThreadDelayInMilliseconds;
     private final int queueSchedulerShutdownTimeoutInSeconds;
     private boolean queueEnabled;
 
     @Inject
     public EventSubscriberQueueMessageReceiver(EventMessageHandler eventMessageHandler, Environment environment,
-                                               AdminUsersConfig adminUsersConfig) {
-        this.eventMessageHandler = eventMessageHandler;
+                                               AdminUsersConfig adminUsersConfig, InstantSource instantSource) {
+        this(eventMessageHandler,
+                adminUsersConfig.getEventSubscriberQueueConfig(),
+                adminUsersConfig.getSqsConfig().getMessageMaximumBatchSize(),
+                environment.lifecycle()
+                        .scheduledExecutorService(THREAD_NAME)
+                        .threads(adminUsersConfig.getEventSubscriberQueueConfig().getNumberOfPollers())
+                        .build(),
+                environment.lifecycle()
+                        .executorService(WORKER_THREAD_NAME)
+                        .minThreads(adminUsersConfig.getEventSubscriberQueueConfig().getQueueSchedulerNumberOfThreads())
+                        .maxThreads(adminUsersConfig.getEventSubscriberQueueConfig().getQueueSchedulerNumberOfThreads())
+                        .build(),
+                instantSource,
+                environment.metrics());
+    }
 
-        scheduledExecutorService = environment
-                .lifecycle()
-                .scheduledExecutorService(THREAD_NAME)
-                .threads(SCHEDULER_NUMBER_OF_THREADS)
-                .build();
+    public EventSubscriberQueueMessageReceiver(EventMessageHandler eventMessageHandler,
+                                               EventSubscriberQueueConfig eventSubscriberQueueConfig,
+                                               int messageBatchSize,
+                                               ScheduledExecutorService scheduledExecutorService,
+                                               ExecutorService workerExecutorService,
+                                               InstantSource instantSource,
+                                               MetricRegistry metricRegistry) {
+        this.eventMessageHandler = eventMessageHandler;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.workerExecutorService = workerExecutorService;
+        this.instantSource = instantSource;
+        this.messageBatchSize = messageBatchSize;
 
-        EventSubscriberQueueConfig eventSubscriberQueueConfig = adminUsersConfig.getEventSubscriberQueueConfig();
         queueEnabled = eventSubscriberQueueConfig.getEventSubscriberQueueEnabled();
+        numberOfPollers = eventSubscriberQueueConfig.getNumberOfPollers();
         queueSchedulerThreadDelayInMilliseconds = eventSubscriberQueueConfig.getQueueSchedulerThreadDelayInMilliseconds();
         queueSchedulerShutdownTimeoutInSeconds = eventSubscriberQueueConfig.getQueueSchedulerShutdownTimeoutInSeconds();
+        int maxInFlightMessages = Math.max(eventSubscriberQueueConfig.getMaxInFlightMessages(), messageBatchSize);
+
+        inFlightMessages = new Semaphore(maxInFlightMessages);
+
+        processedMessages = metricRegistry.meter(METRIC_PREFIX + ".messages.processed");
+        failedMessages = metricRegistry.meter(METRIC_PREFIX + ".messages.failed");
+        queueLag = metricRegistry.histogram(METRIC_PREFIX + ".messages.queue_lag");
+        processingTime = metricRegistry.histogram(METRIC_PREFIX + ".messages.processing_time");
+        metricRegistry.gauge(METRIC_PREFIX + ".messages.in_flight",
+                () -> (Gauge<Integer>) () -> maxInFlightMessages - inFlightMessages.availablePermits());
     }
 
     @Override
     public void start() {
         if (queueEnabled) {
-            int initialDelay = queueSchedulerThreadDelayInMilliseconds;
-            scheduledExecutorService.scheduleWithFixedDelay(
-                    this::processMessages,
-                    initialDelay,
-                    queueSchedulerThreadDelayInMilliseconds,
-                    TimeUnit.MILLISECONDS);
+            // stagger the pollers so their long polls overlap rather than all starting together
+            long staggerInMilliseconds = queueSchedulerThreadDelayInMilliseconds / numberOfPollers;
+            for (int poller = 0; poller < numberOfPollers; poller++) {
+                scheduledExecutorService.scheduleWithFixedDelay(
+                        this::poll,
+                        queueSchedulerThreadDelayInMilliseconds + poller * staggerInMilliseconds,
+                        queueSchedulerThreadDelayInMilliseconds,
+                        TimeUnit.MILLISECONDS);
+            }
         }
     }
 
-    private void processMessages() {
+    /* default */ void poll() {
+        if (!inFlightMessages.tryAcquire(messageBatchSize)) {
+            logger.info("Queue message receiver skipping poll as workers are busy",
+                    kv("available_permits", inFlightMessages.availablePermits()));
+            return;
+        }
+
+        int unusedPermits = messageBatchSize;
         logger.info("Queue message receiver thread polling queue");
         try {
-            eventMessageHandler.processMessages();
+            List<EventMessage> eventMessages = eventMessageHandler.retrieveEvents();
+            for (EventMessage eventMessage : eventMessages) {
+                workerExecutorService.execute(() -> processMessage(eventMessage));
+                unusedPermits--;
+            }
         } catch (Exception e) {
             logger.error("Queue message receiver thread exception", e);
+        } finally {
+            inFlightMessages.release(unusedPermits);
+        }
+    }
+
+    private void processMessage(EventMessage eventMessage) {
+        try {
+            eventMessage.getSentTimestamp().ifPresent(sentTimestamp ->
+                    queueLag.update(Duration.between(sentTimestamp, instantSource.instant()).toMillis()));
+            Stopwatch processingStopwatch = Stopwatch.createStarted();
+            boolean processed = eventMessageHandler.processMessage(eventMessage);
+            processingTime.update(processingStopwatch.elapsed(TimeUnit.MILLISECONDS));
+            (processed ? processedMessages : failedMessages).mark();
+        } catch (Exception e) {
+            failedMessages.mark();
+            logger.error("Queue message worker thread exception", e);
+        } finally {
+            inFlightMessages.release();
         }
     }
 
@@ -68,19 +162,24 @@ public class EventSubscriberQueueMessageReceiver implements Managed {
     public void stop() {
         logger.info("Shutting down event subscriber queue message receiver");
         scheduledExecutorService.shutdown();
+        workerExecutorService.shutdown();
         try {
-            if (scheduledExecutorService.awaitTermination(queueSchedulerShutdownTimeoutInSeconds, TimeUnit.SECONDS)) {
+            if (scheduledExecutorService.awaitTermination(queueSchedulerShutdownTimeoutInSeconds, TimeUnit.SECONDS)
+                    && workerExecutorService.awaitTermination(queueSchedulerShutdownTimeoutInSeconds, TimeUnit.SECONDS)) {
                 logger.info("Event subscriber queue message receiver shut down cleanly");
             } else {
                 logger.error("Event subscriber queue still processing messages after shutdown wait time will now be forcefully stopped");
                 scheduledExecutorService.shutdownNow();
-                if (!scheduledExecutorService.awaitTermination(12, TimeUnit.SECONDS)) {
+                workerExecutorService.shutdownNow();
+                if (!scheduledExecutorService.awaitTermination(12, TimeUnit.SECONDS)
+                        || !workerExecutorService.awaitTermination(12, TimeUnit.SECONDS)) {
                     logger.error("Event subscriber queue receiver could not be forced stopped");
                 }
             }
         } catch (InterruptedException ex) {
             logger.error("Failed to shutdown event subscriber queue message receiver cleanly as the wait was interrupted.");
             scheduledExecutorService.shutdownNow();
+            workerExecutorService.shutdownNow();
             // Preserve interrupt status
             Thread.currentThread().interrupt();
         }
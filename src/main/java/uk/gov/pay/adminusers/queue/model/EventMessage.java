@@ -2,19 +2,39 @@ package uk.gov.pay.adminusers.queue.model;
 
 import uk.gov.service.payments.commons.queue.model.QueueMessage;
 
+import java.time.Instant;
+import java.util.Optional;
+
 public class EventMessage {
     private Event event;
     private QueueMessage queueMessage;
+    private Instant sentTimestamp;
 
     public EventMessage(Event event, QueueMessage queueMessage) {
+        this(event, queueMessage, null);
+    }
+
+    public EventMessage(Event event, QueueMessage queueMessage, Instant sentTimestamp) {
         this.event = event;
         this.queueMessage = queueMessage;
+        this.sentTimestamp = sentTimestamp;
     }
 
     public static EventMessage of(Event event, QueueMessage queueMessage) {
         return new EventMessage(event, queueMessage);
     }
 
+    public static EventMessage of(Event event, QueueMessage queueMessage, Instant sentTimestamp) {
+        return new EventMessage(event, queueMessage, sentTimestamp);
+    }
+
+    /**
+     * When the message was sent to the queue, according to SQS.
+     */
+    public Optional<Instant> getSentTimestamp() {
+        return Optional.ofNullable(sentTimestamp);
+    }
+
     public QueueMessage getQueueMessage() {
         return queueMessage;
     }
@@ -1,6 +1,10 @@
 package uk.gov.pay.adminusers.resources;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.inject.Inject;
 import io.dropwizard.jersey.PATCH;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,6 +15,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -23,7 +29,10 @@ import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.adminusers.exception.ServiceNotFoundException;
@@ -33,7 +42,9 @@ import uk.gov.pay.adminusers.model.RoleName;
 import uk.gov.pay.adminusers.model.SearchServicesResponse;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.ServiceSearchRequest;
+import uk.gov.pay.adminusers.model.ServiceSearchResult;
 import uk.gov.pay.adminusers.model.ServiceUpdateRequest;
+import uk.gov.pay.adminusers.model.ServiceUserSummary;
 import uk.gov.pay.adminusers.model.StripeAgreement;
 import uk.gov.pay.adminusers.model.StripeAgreementRequest;
 import uk.gov.pay.adminusers.model.UpdateMerchantDetailsRequest;
@@ -51,13 +62,18 @@ import uk.gov.pay.adminusers.utils.Errors;
 import uk.gov.service.payments.commons.api.exception.ValidationException;
 import uk.gov.service.payments.commons.model.SupportedLanguage;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 import static jakarta.ws.rs.core.Response.Status;
@@ -67,6 +83,7 @@ import static jakarta.ws.rs.core.Response.Status.CREATED;
 import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
 import static jakarta.ws.rs.core.Response.Status.NO_CONTENT;
 import static jakarta.ws.rs.core.Response.Status.OK;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 @Path("/v1/api/services")
@@ -77,6 +94,12 @@ public class ServiceResource {
 
     public static final String FIELD_NAME = "name";
 
+    private static final int MAX_SERVICES_PAGE_SIZE = 500;
+    private static final int MAX_SERVICE_USERS_PAGE_SIZE = 500;
+    private static final int MAX_SERVICE_SEARCH_PAGE_SIZE = 100;
+    private static final int DEFAULT_SERVICE_SEARCH_PAGE_SIZE = 20;
+    private static final int SERVICES_STREAM_FETCH_SIZE = 100;
+
     private final UserDao userDao;
     private final ServiceDao serviceDao;
     private final LinksBuilder linksBuilder;
@@ -86,6 +109,7 @@ public class ServiceResource {
     private final GovUkPayAgreementRequestValidator govUkPayAgreementRequestValidator;
     private final GovUkPayAgreementService govUkPayAgreementService;
     private final SendLiveAccountCreatedEmailService sendLiveAccountCreatedEmailService;
+    private final ObjectMapper objectMapper;
 
     @Inject
     public ServiceResource(UserDao userDao,
@@ -96,7 +120,8 @@ public class ServiceResource {
                            StripeAgreementService stripeAgreementService,
                            GovUkPayAgreementRequestValidator govUkPayAgreementRequestValidator,
                            GovUkPayAgreementService govUkPayAgreementService,
-                           SendLiveAccountCreatedEmailService sendLiveAccountCreatedEmailService) {
+                           SendLiveAccountCreatedEmailService sendLiveAccountCreatedEmailService,
+                           ObjectMapper objectMapper) {
         this.userDao = userDao;
         this.serviceDao = serviceDao;
         this.linksBuilder = linksBuilder;
@@ -106,6 +131,7 @@ public class ServiceResource {
         this.govUkPayAgreementRequestValidator = govUkPayAgreementRequestValidator;
         this.govUkPayAgreementService = govUkPayAgreementService;
         this.sendLiveAccountCreatedEmailService = sendLiveAccountCreatedEmailService;
+        this.objectMapper = objectMapper;
     }
 
     @GET
@@ -113,19 +139,78 @@ public class ServiceResource {
     @Produces(APPLICATION_JSON)
     @Operation(
             summary = "Get all services",
+            description = "Returns every service, unless limit is given, in which case a page of services ordered by id " +
+                    "is returned along with a Link header for the next page. With stream=true, the services are " +
+                    "written to the response as they are read from the database, honouring limit and afterId but " +
+                    "without a Link header; the next page starts after the id of the last service received. If " +
+                    "reading fails part way through, the response is cut off before the closing bracket.",
             tags = "Services",
             responses = {
                     @ApiResponse(responseCode = "200", description = "OK",
-                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = Service.class))))
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = Service.class)))),
+                    @ApiResponse(responseCode = "400", description = "Invalid limit or afterId")
             }
     )
-    public Response getServices() {
+    public Response getServices(@Parameter(description = "Only return services with an id greater than this", example = "100")
+                                @QueryParam("afterId") @Min(0) Integer afterId,
+                                @Parameter(description = "Maximum number of services to return", example = "100")
+                                @QueryParam("limit") @Min(1) @Max(MAX_SERVICES_PAGE_SIZE) Integer limit,
+                                @Parameter(description = "Write the services to the response as they are read")
+                                @QueryParam("stream") boolean stream,
+                                @Context UriInfo uriInfo) {
         LOGGER.info("Get Services request");
-        List<Service> services = serviceDao.listAll().stream().map(ServiceEntity::toService).map(linksBuilder::decorate).toList();
-        return Response
-                .status(OK)
-                .entity(services)
-                .build();
+
+        if (stream) {
+            int streamAfterId = Optional.ofNullable(afterId).orElse(0);
+            int streamLimit = Optional.ofNullable(limit).orElse(Integer.MAX_VALUE);
+            ObjectWriter serviceWriter = objectMapper.writerFor(Service.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            StreamingOutput services = output -> {
+                // Not closing the array on failure leaves the response body incomplete, so that a client cannot
+                // mistake a stream that stopped part way through for the full list
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                AtomicInteger servicesWritten = new AtomicInteger();
+                try {
+                    generator.writeStartArray();
+                    serviceDao.forEachService(streamAfterId, streamLimit, SERVICES_STREAM_FETCH_SIZE, serviceEntity -> {
+                        try {
+                            serviceWriter.writeValue(generator, linksBuilder.decorate(serviceEntity.toService()));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        servicesWritten.incrementAndGet();
+                    });
+                    generator.writeEndArray();
+                    generator.close();
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.error("Aborted streaming services list after writing {} services", servicesWritten.get(), e);
+                    throw e;
+                }
+            };
+            return Response.status(OK).entity(services).build();
+        }
+
+        if (limit == null && afterId == null) {
+            List<Service> services = serviceDao.listAll().stream().map(ServiceEntity::toService).map(linksBuilder::decorate).toList();
+            return Response
+                    .status(OK)
+                    .entity(services)
+                    .build();
+        }
+
+        int pageSize = Optional.ofNullable(limit).orElse(MAX_SERVICES_PAGE_SIZE);
+        List<Service> services = serviceDao.listAfterId(Optional.ofNullable(afterId).orElse(0), pageSize)
+                .stream().map(ServiceEntity::toService).map(linksBuilder::decorate).toList();
+
+        Response.ResponseBuilder response = Response.status(OK).entity(services);
+        if (services.size() == pageSize) {
+            URI nextPage = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("afterId", services.get(services.size() - 1).getId())
+                    .replaceQueryParam("limit", pageSize)
+                    .build();
+            response.link(nextPage, "next");
+        }
+        return response.build();
     }
 
     @GET
@@ -176,7 +261,11 @@ public class ServiceResource {
     @Operation(
             tags = "Services",
             summary = "Search services by name or merchant name",
-            description = "This endpoint returns a list of services using lexical meaning to determine a match to the search criteria",
+            description = "This endpoint returns a list of services using lexical meaning to determine a match to the search criteria. " +
+                    "With summary=true, services whose name or merchant name is similar to the search criteria, including " +
+                    "by prefix or with small typos, are returned as a single list ranked by how closely they match, with only " +
+                    "the fields needed to list them. A page of up to limit results is returned, starting at offset, along " +
+                    "with a Link header for the next page.",
             requestBody = @RequestBody(
                     content = @Content(schema = @Schema(example = "{" +
                             "    \"service_name\": \"service name\"," +
@@ -186,21 +275,45 @@ public class ServiceResource {
             responses = {
                     @ApiResponse(responseCode = "200", description = "OK",
                             content = @Content(schema = @Schema(implementation = SearchServicesResponse.class))),
-                    @ApiResponse(responseCode = "400", description = "Invalid JSON payload")
+                    @ApiResponse(responseCode = "400", description = "Invalid JSON payload, limit or offset")
             }
     )
-    public Response searchServices(JsonNode payload) {
+    public Response searchServices(JsonNode payload,
+                                   @Parameter(description = "Return a ranked list of only the fields needed to list each service")
+                                   @QueryParam("summary") boolean summary,
+                                   @Parameter(description = "Maximum number of services to return with summary=true", example = "20")
+                                   @QueryParam("limit") @Min(1) @Max(MAX_SERVICE_SEARCH_PAGE_SIZE) Integer limit,
+                                   @Parameter(description = "Number of ranked services to skip with summary=true", example = "0")
+                                   @QueryParam("offset") @Min(0) Integer offset,
+                                   @Context UriInfo uriInfo) {
         LOGGER.info("Search services request = [ {} ]", payload);
         var searchRequest = ServiceSearchRequest.from(payload);
         return serviceRequestValidator.validateSearchRequest(searchRequest)
                 .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
-                .orElseGet(() -> Response
+                .orElseGet(() -> summary
+                        ? searchServiceSummaries(searchRequest, Optional.ofNullable(limit).orElse(DEFAULT_SERVICE_SEARCH_PAGE_SIZE),
+                                Optional.ofNullable(offset).orElse(0), uriInfo)
+                        : Response
                         .status(OK)
                         .entity(serviceServicesFactory.serviceFinder().bySearchRequest(searchRequest))
                         .build()
                 );
     }
 
+    private Response searchServiceSummaries(ServiceSearchRequest searchRequest, int limit, int offset, UriInfo uriInfo) {
+        List<ServiceSearchResult> results = serviceServicesFactory.serviceFinder().searchSummaries(searchRequest, limit, offset);
+
+        Response.ResponseBuilder response = Response.status(OK).entity(results);
+        if (results.size() == limit) {
+            URI nextPage = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("offset", offset + limit)
+                    .replaceQueryParam("limit", limit)
+                    .build();
+            response.link(nextPage, "next");
+        }
+        return response.build();
+    }
+
     @POST
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
@@ -332,26 +445,59 @@ public class ServiceResource {
     @Operation(
             tags = "Services",
             summary = "Find users of a service",
+            description = "Returns the users of a service ordered by email. If limit is given, a page of users is " +
+                    "returned along with a Link header for the next page. With summary=true, only the fields needed to " +
+                    "list the service's team members are returned for each user.",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "OK",
-                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = User.class)))),
+                    @ApiResponse(responseCode = "200", description = "OK. Users, or user summaries if summary=true",
+                            content = @Content(array = @ArraySchema(schema = @Schema(oneOf = {User.class, ServiceUserSummary.class})))),
                     @ApiResponse(responseCode = "400", description = "If query parameter 'role' is not one of [admin, " +
-                            "view-and-refund, view-only, view-and-initiate-moto, view-refund-and-initiate-moto, super-admin]"),
+                            "view-and-refund, view-only, view-and-initiate-moto, view-refund-and-initiate-moto, super-admin]" +
+                            " or limit is invalid"),
                     @ApiResponse(responseCode = "404", description = "Not found")
             }
     )
     public Response findUsersByServiceId(@PathParam("serviceExternalId") String serviceExternalId, 
-                                         @QueryParam("role") RoleName role) {
-        return serviceDao.findByExternalId(serviceExternalId)
-                .map(serviceEntity ->
-                        Response.status(200).entity(
-                                userDao.findByServiceId(serviceEntity.getId(), role)
-                                        .stream()
-                                        .map(UserEntity::toUser)
-                                        .map(linksBuilder::decorate)
-                                        .toList()
-                        ).build()
-                ).orElseGet(() -> Response.status(NOT_FOUND).build());
+                                         @QueryParam("role") RoleName role,
+                                         @Parameter(description = "Only return users whose email sorts after this", example = "user@example.com")
+                                         @QueryParam("afterEmail") String afterEmail,
+                                         @Parameter(description = "Maximum number of users to return", example = "100")
+                                         @QueryParam("limit") @Min(1) @Max(MAX_SERVICE_USERS_PAGE_SIZE) Integer limit,
+                                         @Parameter(description = "Return only the fields needed to list the service's team members")
+                                         @QueryParam("summary") boolean summary,
+                                         @Context UriInfo uriInfo) {
+        Optional<ServiceEntity> serviceEntity = serviceDao.findByExternalId(serviceExternalId);
+        if (serviceEntity.isEmpty()) {
+            return Response.status(NOT_FOUND).build();
+        }
+
+        Integer serviceId = serviceEntity.get().getId();
+        List<?> users;
+        String lastEmail;
+        if (summary) {
+            List<ServiceUserSummary> summaries = userDao.findSummariesByServiceId(serviceId, role, afterEmail, limit);
+            lastEmail = summaries.isEmpty() ? null : summaries.get(summaries.size() - 1).email();
+            users = summaries;
+        } else {
+            List<User> fullUsers = userDao.findByServiceId(serviceId, role, afterEmail, limit)
+                    .stream()
+                    .map(UserEntity::toUser)
+                    .map(linksBuilder::decorate)
+                    .toList();
+            lastEmail = fullUsers.isEmpty() ? null : fullUsers.get(fullUsers.size() - 1).getEmail();
+            users = fullUsers;
+        }
+
+        Response.ResponseBuilder response = Response.status(OK).entity(users);
+        if (limit != null && users.size() == limit) {
+            // Encoded up front so that a + in the email cannot come back as a space on the next request and any
+            // braces are not taken for a URI template
+            URI nextPage = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("afterEmail", URLEncoder.encode(lastEmail, UTF_8))
+                    .build();
+            response.link(nextPage, "next");
+        }
+        return response.build();
     }
 
     // To consider for all the operations add @HeaderParam("GovUkPay-User-Context") and creating a filter
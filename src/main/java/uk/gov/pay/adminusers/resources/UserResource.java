@@ -19,6 +19,7 @@ import uk.gov.pay.adminusers.model.PatchRequest;
 import uk.gov.pay.adminusers.model.RoleName;
 import uk.gov.pay.adminusers.model.SecondFactorMethod;
 import uk.gov.pay.adminusers.model.User;
+import uk.gov.pay.adminusers.service.AuthenticationRateLimiter;
 import uk.gov.pay.adminusers.service.ExistingUserOtpDispatcher;
 import uk.gov.pay.adminusers.service.LinksBuilder;
 import uk.gov.pay.adminusers.service.UserServices;
@@ -44,6 +45,7 @@ import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
 import static jakarta.ws.rs.core.Response.Status.CREATED;
 import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
 import static jakarta.ws.rs.core.Response.Status.OK;
+import static jakarta.ws.rs.core.Response.Status.TOO_MANY_REQUESTS;
 import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
 import static uk.gov.pay.adminusers.model.User.FIELD_EMAIL;
 import static uk.gov.pay.adminusers.service.AdminUsersExceptions.conflictingEmail;
@@ -69,14 +71,18 @@ public class UserResource {
 
     private final LinksBuilder linksBuilder;
 
+    private final AuthenticationRateLimiter authenticationRateLimiter;
+
     @Inject
     public UserResource(UserServices userServices, UserRequestValidator validator, UserServicesFactory userServicesFactory,
-                        ExistingUserOtpDispatcher existingUserOtpDispatcher, LinksBuilder linksBuilder) {
+                        ExistingUserOtpDispatcher existingUserOtpDispatcher, LinksBuilder linksBuilder,
+                        AuthenticationRateLimiter authenticationRateLimiter) {
         this.userServices = userServices;
         this.validator = validator;
         this.userServicesFactory = userServicesFactory;
         this.existingUserOtpDispatcher = existingUserOtpDispatcher;
         this.linksBuilder = linksBuilder;
+        this.authenticationRateLimiter = authenticationRateLimiter;
     }
 
     @Path("/find")
@@ -229,7 +235,8 @@ public class UserResource {
                     @ApiResponse(responseCode = "200", description = "OK",
                             content = @Content(schema = @Schema(implementation = User.class))),
                     @ApiResponse(responseCode = "400", description = "Invalid payload"),
-                    @ApiResponse(responseCode = "401", description = "Unauthorised")
+                    @ApiResponse(responseCode = "401", description = "Unauthorised"),
+                    @ApiResponse(responseCode = "429", description = "Too many authentication attempts for the email or in total")
             }
     )
     public Response authenticate(JsonNode node) {
@@ -237,6 +244,12 @@ public class UserResource {
         return validator.validateAuthenticateRequest(node)
                 .map(errors -> Response.status(400).entity(errors).build())
                 .orElseGet(() -> {
+                    if (!authenticationRateLimiter.tryAcquire(node.get("email").asText())) {
+                        return Response.status(TOO_MANY_REQUESTS).type(APPLICATION_JSON)
+                                .entity(Map.of("errors", List.of("too many authentication attempts")))
+                                .build();
+                    }
+
                     Optional<User> userOptional = userServices.authenticate(
                             node.get("email").asText(),
                             node.get("password").asText());
@@ -13,6 +13,7 @@ import static jakarta.ws.rs.core.Response.Status.GONE;
 import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
 import static jakarta.ws.rs.core.Response.Status.PRECONDITION_FAILED;
+import static jakarta.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
 
 public class AdminUsersExceptions {
@@ -109,6 +110,14 @@ public class AdminUsersExceptions {
         return buildWebApplicationException(message, INTERNAL_SERVER_ERROR.getStatusCode());
     }
 
+    public static WebApplicationException passwordHashingUnavailable() {
+        return buildWebApplicationException("Too many password checks in progress, try again later", SERVICE_UNAVAILABLE.getStatusCode());
+    }
+
+    public static WebApplicationException databaseUnavailable() {
+        return buildWebApplicationException("Too many database operations in progress, try again later", SERVICE_UNAVAILABLE.getStatusCode());
+    }
+
     public static WebApplicationException adminRoleLimitException(int adminLimit) {
         String error = format("Service admin limit reached. At least %d admin(s) required", adminLimit);
         return buildWebApplicationException(error, PRECONDITION_FAILED.getStatusCode());
@@ -0,0 +1,134 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import io.dropwizard.core.setup.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.AuthenticationRateLimitConfig;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limits on password authentication attempts, checked before any password hashing or database work is
+ * done. A single global bucket caps the attempts this instance will process, so that a credential stuffing burst,
+ * which tries each email address only once or twice, cannot tie up every CPU checking passwords and every database
+ * connection recording failed logins. It is on by default with a rate well above normal sign-in traffic.
+ * <p>
+ * An optional second limit gives each email address its own bucket. These live in a size-bounded cache and expire
+ * once they would have refilled, so an evicted or expired bucket is indistinguishable from a full one. Anyone who
+ * knows an email address can use up its bucket and lock its user out until it refills, so that limit is off unless
+ * enabled. Attempts are not limited by client address: the caller is selfservice, so every request comes from the
+ * same few addresses, and {@code X-Forwarded-For} is set by whoever makes the request.
+ */
+public class AuthenticationRateLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationRateLimiter.class);
+    private static final String METRIC_PREFIX = "authentication-rate-limiter";
+
+    private final boolean globalLimitEnabled;
+    private final boolean emailLimitEnabled;
+    private final TokenBucket globalBucket;
+    private final TokenBuckets emailBuckets;
+    private final Meter globalRejections;
+    private final Meter emailRejections;
+
+    @Inject
+    public AuthenticationRateLimiter(AdminUsersConfig adminUsersConfig, Environment environment) {
+        this(adminUsersConfig.getAuthenticationRateLimitConfig(), environment.metrics(), Ticker.systemTicker());
+    }
+
+    AuthenticationRateLimiter(AuthenticationRateLimitConfig config, MetricRegistry metricRegistry, Ticker ticker) {
+        this.globalLimitEnabled = config.isGlobalLimitEnabled();
+        this.emailLimitEnabled = config.isEmailLimitEnabled();
+        this.globalBucket = new TokenBucket(config.getGlobalBurstCapacity(),
+                (double) TimeUnit.SECONDS.toNanos(1) / config.getGlobalAttemptsPerSecond(), ticker);
+        this.emailBuckets = new TokenBuckets(config.getEmailBurstCapacity(),
+                (double) TimeUnit.MINUTES.toNanos(1) / config.getEmailAttemptsPerMinute(),
+                config.getMaximumTrackedKeys(), ticker);
+        this.globalRejections = metricRegistry.meter(METRIC_PREFIX + ".rejected.global");
+        this.emailRejections = metricRegistry.meter(METRIC_PREFIX + ".rejected.email");
+    }
+
+    /**
+     * Takes a token from the email address's bucket and then from the global bucket, returning {@code false} if
+     * either is empty. An attempt rejected for its email address does not use up a global token.
+     */
+    public boolean tryAcquire(String email) {
+        if (emailLimitEnabled && !emailBuckets.tryAcquire(email.toLowerCase(Locale.ENGLISH))) {
+            emailRejections.mark();
+            LOGGER.warn("Rejected authentication attempt as email address has had too many attempts");
+            return false;
+        }
+
+        // Not logged per attempt, as a burst could mean thousands a second; the meter shows how many were rejected
+        if (globalLimitEnabled && !globalBucket.tryAcquire()) {
+            globalRejections.mark();
+            return false;
+        }
+
+        return true;
+    }
+
+    private static class TokenBuckets {
+
+        private final int capacity;
+        private final double nanosPerToken;
+        private final Ticker ticker;
+        private final Cache<String, TokenBucket> buckets;
+
+        TokenBuckets(int capacity, double nanosPerToken, long maximumSize, Ticker ticker) {
+            this.capacity = capacity;
+            this.nanosPerToken = nanosPerToken;
+            this.ticker = ticker;
+            this.buckets = CacheBuilder.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterAccess((long) Math.ceil(nanosPerToken * capacity), TimeUnit.NANOSECONDS)
+                    .ticker(ticker)
+                    .build();
+        }
+
+        boolean tryAcquire(String key) {
+            try {
+                return buckets.get(key, () -> new TokenBucket(capacity, nanosPerToken, ticker)).tryAcquire();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static class TokenBucket {
+
+        private final int capacity;
+        private final double nanosPerToken;
+        private final Ticker ticker;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity, double nanosPerToken, Ticker ticker) {
+            this.capacity = capacity;
+            this.nanosPerToken = nanosPerToken;
+            this.ticker = ticker;
+            this.tokens = capacity;
+            this.lastRefillNanos = ticker.read();
+        }
+
+        synchronized boolean tryAcquire() {
+            long nowNanos = ticker.read();
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) / nanosPerToken);
+            lastRefillNanos = nowNanos;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
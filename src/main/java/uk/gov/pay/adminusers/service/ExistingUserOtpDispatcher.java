@@ -51,9 +51,9 @@ public class ExistingUserOtpDispatcher {
             NotificationService.OtpNotifySmsTemplateId notifyTemplateId = changingSignInMethodToSms ? CHANGE_SIGN_IN_2FA_TO_SMS : SIGN_IN;
 
             try {
-                String notificationId = notificationService.sendSecondFactorPasscodeSms(telephoneNumber, token.getPasscode(),
+                String outboxId = notificationService.sendSecondFactorPasscodeSms(telephoneNumber, token.getPasscode(),
                         notifyTemplateId);
-                LOGGER.info("sent 2FA token successfully to user [{}], notification id [{}]", userExternalId, notificationId);
+                LOGGER.info("queued 2FA token for user [{}], outbox id [{}]", userExternalId, outboxId);
             } catch (Exception e) {
                 LOGGER.error("error sending 2FA token to user [{}]", userExternalId, e);
             }
@@ -46,8 +46,8 @@ public class ForgottenPasswordServices {
             String forgottenPasswordUrl = fromUri(selfserviceBaseUrl).path(SELFSERVICE_FORGOTTEN_PASSWORD_PATH).path(forgottenPasswordEntity.getCode()).build().toString();
             
             try {
-                String notificationId = notificationService.sendForgottenPasswordEmail(userEntity.getEmail(), forgottenPasswordUrl);
-                LOGGER.info("sent forgot password email successfully user [{}], notification id [{}]", userEntity.getExternalId(), notificationId);
+                String outboxId = notificationService.sendForgottenPasswordEmail(userEntity.getEmail(), forgottenPasswordUrl);
+                LOGGER.info("queued forgot password email for user [{}], outbox id [{}]", userEntity.getExternalId(), outboxId);
             } catch (Exception e) {
                 LOGGER.error(format("error sending forgotten password email for user [%s]", userEntity.getExternalId()), e);
             }
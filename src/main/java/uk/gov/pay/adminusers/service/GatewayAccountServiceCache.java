@@ -0,0 +1,99 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import io.dropwizard.core.setup.Environment;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.GatewayAccountServiceCacheConfig;
+import uk.gov.pay.adminusers.model.Service;
+import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
+import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Decorated services keyed by gateway account ID, for {@link ServiceFinder#byGatewayAccountId}. Entries are
+ * bounded in number and expire a fixed time after they are loaded; code that changes a service invalidates the
+ * entries for all of its gateway accounts. An invalidation made before the changing transaction commits can race
+ * with a concurrent load of the old row, so the expiry time is also the longest a cached service can be stale.
+ * Gateway accounts without a service are never cached, so assigning one to a service needs no invalidation.
+ * Cached services are shared between callers and must not be modified.
+ */
+public class GatewayAccountServiceCache {
+
+    private static final String METRIC_PREFIX = "gateway-account-service-cache";
+
+    private final Cache<String, Service> services;
+    private final Meter invalidations;
+
+    public static GatewayAccountServiceCache disabled() {
+        return new GatewayAccountServiceCache();
+    }
+
+    private GatewayAccountServiceCache() {
+        this.services = null;
+        this.invalidations = null;
+    }
+
+    @Inject
+    public GatewayAccountServiceCache(AdminUsersConfig adminUsersConfig, Environment environment) {
+        this(adminUsersConfig.getGatewayAccountServiceCacheConfig(), environment.metrics(), Ticker.systemTicker());
+    }
+
+    public GatewayAccountServiceCache(GatewayAccountServiceCacheConfig config, MetricRegistry metricRegistry, Ticker ticker) {
+        if (!config.isEnabled()) {
+            this.services = null;
+            this.invalidations = null;
+            return;
+        }
+
+        this.services = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWriteInSeconds(), TimeUnit.SECONDS)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.invalidations = metricRegistry.meter(METRIC_PREFIX + ".invalidated");
+        metricRegistry.gauge(METRIC_PREFIX + ".size", () -> (Gauge<Long>) services::size);
+        metricRegistry.gauge(METRIC_PREFIX + ".hit_ratio", () -> (Gauge<Double>) () -> services.stats().hitRate());
+        metricRegistry.gauge(METRIC_PREFIX + ".hits", () -> (Gauge<Long>) () -> services.stats().hitCount());
+        metricRegistry.gauge(METRIC_PREFIX + ".misses", () -> (Gauge<Long>) () -> services.stats().missCount());
+        metricRegistry.gauge(METRIC_PREFIX + ".evictions", () -> (Gauge<Long>) () -> services.stats().evictionCount());
+    }
+
+    /**
+     * Returns the cached service for {@code gatewayAccountId}, or calls {@code loader} and caches what it finds.
+     */
+    public Optional<Service> get(String gatewayAccountId, Supplier<Optional<Service>> loader) {
+        if (services == null) {
+            return loader.get();
+        }
+
+        Service cached = services.getIfPresent(gatewayAccountId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Service> loaded = loader.get();
+        loaded.ifPresent(service -> services.put(gatewayAccountId, service));
+        return loaded;
+    }
+
+    public void invalidate(ServiceEntity serviceEntity) {
+        if (services == null) {
+            return;
+        }
+
+        serviceEntity.getGatewayAccountIds().stream()
+                .map(GatewayAccountIdEntity::getGatewayAccountId)
+                .forEach(services::invalidate);
+        invalidations.mark();
+    }
+}
@@ -3,7 +3,7 @@ package uk.gov.pay.adminusers.service;
 import com.google.inject.Inject;
 import uk.gov.pay.adminusers.model.Invite;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
-import uk.gov.pay.adminusers.persistence.dao.UserDao;
+import uk.gov.pay.adminusers.persistence.dao.InviteDao.InviteWithUserExists;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,42 +14,32 @@ import static uk.gov.pay.adminusers.service.AdminUsersExceptions.inviteLockedExc
 public class InviteFinder {
 
     private final InviteDao inviteDao;
-    private final UserDao userDao;
 
     @Inject
-    public InviteFinder(InviteDao inviteDao, UserDao userDao) {
+    public InviteFinder(InviteDao inviteDao) {
         this.inviteDao = inviteDao;
-        this.userDao = userDao;
     }
 
     public Optional<Invite> find(String code) {
-        return inviteDao.findByCode(code)
-                .map(inviteEntity -> {
-                    if (inviteEntity.isExpired() || inviteEntity.isDisabled()) {
-                        throw inviteLockedException(inviteEntity.getCode());
+        return inviteDao.findByCodeWithUserExists(code)
+                .map(inviteWithUserExists -> {
+                    if (inviteWithUserExists.invite().isExpired() || inviteWithUserExists.invite().isDisabled()) {
+                        throw inviteLockedException(inviteWithUserExists.invite().getCode());
                     }
-                    Invite invite = inviteEntity.toInvite();
-                    return userDao.findByEmail(inviteEntity.getEmail()).map(userEntity -> {
-                        invite.setUserExist(true);
-                        return Optional.of(invite);
-                    }).orElse(Optional.of(invite));
-                })
-                .orElseGet(Optional::empty);
+                    return toInvite(inviteWithUserExists);
+                });
     }
 
-
     public List<Invite> findAllActiveInvites(String serviceId) {
-        return inviteDao.findAllByServiceId(serviceId)
+        return inviteDao.findActiveByServiceIdWithUserExists(serviceId)
                 .stream()
-                .filter(inviteEntity -> !(inviteEntity.isDisabled()))
-                .filter(inviteEntity -> !(inviteEntity.isExpired()))
-                .map(inviteEntity -> {
-                    Invite invite = inviteEntity.toInvite();
-                    return userDao.findByEmail(inviteEntity.getEmail()).map(userEntity -> {
-                        invite.setUserExist(true);
-                        return invite;
-                    }).orElse(invite);
-                })
+                .map(InviteFinder::toInvite)
                 .collect(toUnmodifiableList());
     }
+
+    private static Invite toInvite(InviteWithUserExists inviteWithUserExists) {
+        Invite invite = inviteWithUserExists.invite().toInvite();
+        invite.setUserExist(inviteWithUserExists.userExists());
+        return invite;
+    }
 }
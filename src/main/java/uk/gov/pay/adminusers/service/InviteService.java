@@ -81,8 +81,8 @@ public class InviteService {
 
         OtpNotifySmsTemplateId templateId = invite.getService().isPresent() ? CREATE_USER_IN_RESPONSE_TO_INVITATION_TO_SERVICE : SELF_INITIATED_CREATE_NEW_USER_AND_SERVICE;
         try {
-            String notificationId = notificationService.sendSecondFactorPasscodeSms(invite.getTelephoneNumber(), formattedPasscode, templateId);
-            LOGGER.info("sent 2FA token successfully for invite code [{}], notification id [{}]", invite.getCode(), notificationId);
+            String outboxId = notificationService.sendSecondFactorPasscodeSms(invite.getTelephoneNumber(), formattedPasscode, templateId);
+            LOGGER.info("queued 2FA token for invite code [{}], outbox id [{}]", invite.getCode(), outboxId);
         } catch (Exception e) {
             LOGGER.error(String.format("error sending 2FA token for invite code [%s]", invite.getCode()), e);
         }
@@ -126,9 +126,9 @@ public class JoinServiceInviteCreator {
         UserEntity sender = inviteEntity.getSender();
         LOGGER.info("New invite created by User [{}]", sender.getExternalId());
         try {
-            String notificationId = notificationService.sendInviteNewUserToJoinServiceEmail(inviteEntity.getSender().getEmail(), inviteEntity.getEmail(), inviteUrl);
+            String outboxId = notificationService.sendInviteNewUserToJoinServiceEmail(inviteEntity.getSender().getEmail(), inviteEntity.getEmail(), inviteUrl);
 
-            LOGGER.info("sent invite email successfully by user [{}], notification id [{}]", sender.getExternalId(), notificationId);
+            LOGGER.info("queued invite email by user [{}], outbox id [{}]", sender.getExternalId(), outboxId);
         } catch (Exception e) {
             LOGGER.error(format("error sending email by user [%s]", sender.getExternalId()), e);
         }
@@ -139,9 +139,9 @@ public class JoinServiceInviteCreator {
         LOGGER.info("New invite created by User [{}]", sender.getExternalId());
         try {
             String serviceName = serviceEntity.getServiceNames().get(SupportedLanguage.ENGLISH).getName();
-            String notificationId = notificationService.sendInviteExistingUserToJoinServiceEmail(inviteEntity.getSender().getEmail(), inviteEntity.getEmail(), inviteUrl, serviceName);
+            String outboxId = notificationService.sendInviteExistingUserToJoinServiceEmail(inviteEntity.getSender().getEmail(), inviteEntity.getEmail(), inviteUrl, serviceName);
 
-            LOGGER.info("sent invite email successfully by user [{}], notification id [{}]", sender.getExternalId(), notificationId);
+            LOGGER.info("queued invite email by user [{}], outbox id [{}]", sender.getExternalId(), outboxId);
         } catch (Exception e) {
             LOGGER.error(format("error sending email by user [%s]", sender.getExternalId()), e);
         }
@@ -0,0 +1,274 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.Managed;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.NotificationOutboxConfig;
+import uk.gov.pay.adminusers.persistence.dao.NotificationOutboxDao;
+import uk.gov.pay.adminusers.persistence.entity.NotificationOutboxEntity;
+import uk.gov.service.notify.NotificationClientException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static uk.gov.pay.adminusers.persistence.entity.NotificationOutboxEntity.NotificationType.SMS;
+
+/**
+ * Sends the notifications written to the outbox by {@link NotificationService}. A single thread polls for due
+ * notifications and hands each to one of {@code notify.maxConcurrentRequests} workers, claiming no more than there are
+ * idle workers. Notifications Notify accepts are deleted; ones that fail are retried with exponential backoff until
+ * {@code maxAttempts} is reached, except that ones Notify rejects as invalid are abandoned straight away. The request
+ * that queued a notification has already succeeded by then, so an abandoned notification is only visible through the
+ * {@code notification-outbox.abandoned} meter and its error log, both of which should be alerted on. A
+ * notification with an expiry date is dropped instead of sent once the date has passed, and abandoned rather than
+ * retried if its next attempt would be after it. The backlog gauges are sampled on a separate, slower schedule so
+ * polling does not count the outbox every time. Delivery is at least once: a notification whose row cannot be
+ * deleted after sending will be sent again once its lease expires.
+ */
+public class NotificationOutboxDispatcher implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+    private static final String THREAD_NAME = "notification-outbox-poller";
+    private static final String WORKER_THREAD_NAME = "notification-outbox-worker-%d";
+    private static final String METRIC_PREFIX = "notification-outbox";
+    private static final int SHUTDOWN_TIMEOUT_IN_SECONDS = 10;
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final NotificationOutboxDao notificationOutboxDao;
+    private final NotificationService notificationService;
+    private final InstantSource instantSource;
+    private final NotificationOutboxConfig config;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final ExecutorService workerExecutorService;
+    private final Semaphore idleWorkers;
+
+    private final MetricRegistry metricRegistry;
+    private final Meter sent;
+    private final Meter retried;
+    private final Meter abandoned;
+    private final Meter expired;
+    private final Histogram deliveryLatency;
+    private final AtomicLong backlogSize = new AtomicLong();
+    private final AtomicLong oldestAgeInSeconds = new AtomicLong();
+
+    @Inject
+    public NotificationOutboxDispatcher(NotificationOutboxDao notificationOutboxDao, NotificationService notificationService,
+                                        InstantSource instantSource, Environment environment, AdminUsersConfig adminUsersConfig) {
+        this.notificationOutboxDao = notificationOutboxDao;
+        this.notificationService = notificationService;
+        this.instantSource = instantSource;
+        this.config = adminUsersConfig.getNotificationOutboxConfig();
+
+        int numberOfWorkers = Math.max(1, adminUsersConfig.getNotifyConfiguration().getMaxConcurrentRequests());
+        this.idleWorkers = new Semaphore(numberOfWorkers);
+
+        this.scheduledExecutorService = environment.lifecycle()
+                .scheduledExecutorService(THREAD_NAME)
+                .threads(1)
+                .build();
+        this.workerExecutorService = environment.lifecycle()
+                .executorService(WORKER_THREAD_NAME)
+                .minThreads(numberOfWorkers)
+                .maxThreads(numberOfWorkers)
+                .build();
+
+        this.metricRegistry = environment.metrics();
+        this.sent = metricRegistry.meter(METRIC_PREFIX + ".sent");
+        this.retried = metricRegistry.meter(METRIC_PREFIX + ".retried");
+        this.abandoned = metricRegistry.meter(METRIC_PREFIX + ".abandoned");
+        this.expired = metricRegistry.meter(METRIC_PREFIX + ".expired");
+        this.deliveryLatency = metricRegistry.histogram(METRIC_PREFIX + ".delivery_latency");
+        metricRegistry.gauge(METRIC_PREFIX + ".backlog", () -> (Gauge<Long>) backlogSize::get);
+        metricRegistry.gauge(METRIC_PREFIX + ".oldest_age_in_seconds", () -> (Gauge<Long>) oldestAgeInSeconds::get);
+    }
+
+    @Override
+    public void start() {
+        if (config.isEnabled()) {
+            scheduledExecutorService.scheduleWithFixedDelay(this::poll, config.getPollIntervalInMillis(),
+                    config.getPollIntervalInMillis(), TimeUnit.MILLISECONDS);
+            scheduledExecutorService.scheduleWithFixedDelay(this::updateBacklogMetrics, 0,
+                    config.getBacklogMetricsIntervalInSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    /* default */ void poll() {
+        try {
+            int capacity = Math.min(config.getBatchSize(), idleWorkers.availablePermits());
+            if (capacity == 0) {
+                return;
+            }
+
+            Instant now = instantSource.instant();
+            List<NotificationOutboxEntity> due = notificationOutboxDao.claimDue(now,
+                    now.plusSeconds(config.getLeaseInSeconds()), capacity);
+            for (NotificationOutboxEntity notification : due) {
+                idleWorkers.acquire();
+                workerExecutorService.execute(() -> deliver(notification));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.error("Notification outbox poll failed", e);
+        }
+    }
+
+    private void updateBacklogMetrics() {
+        try {
+            NotificationOutboxDao.Backlog backlog = notificationOutboxDao.getBacklog();
+            backlogSize.set(backlog.size());
+            oldestAgeInSeconds.set(backlog.oldestCreatedDate()
+                    .map(createdDate -> Duration.between(createdDate, instantSource.instant()).toSeconds())
+                    .orElse(0L));
+        } catch (Exception e) {
+            LOGGER.error("Failed to update notification outbox backlog metrics", e);
+        }
+    }
+
+    private void deliver(NotificationOutboxEntity notification) {
+        try {
+            if (isExpiredBy(notification, instantSource.instant())) {
+                dropExpired(notification);
+                return;
+            }
+            String notificationId;
+            try {
+                notificationId = send(notification);
+            } catch (Exception e) {
+                handleFailure(notification, e);
+                return;
+            }
+            recordSent(notification, notificationId);
+        } finally {
+            idleWorkers.release();
+        }
+    }
+
+    private void recordSent(NotificationOutboxEntity notification, String notificationId) {
+        LOGGER.info("Sent notification from the outbox",
+                kv("outbox_id", notification.getId()),
+                kv("notification_id", notificationId),
+                kv("template_id", notification.getTemplateId()));
+        try {
+            notificationOutboxDao.delete(notification.getId());
+        } catch (Exception e) {
+            LOGGER.error("Failed to remove sent notification from the outbox",
+                    kv("outbox_id", notification.getId()), e);
+        }
+        sent.mark();
+        long latencyInMillis = Duration.between(notification.getCreatedDate().toInstant(), instantSource.instant()).toMillis();
+        deliveryLatency.update(latencyInMillis);
+        metricRegistry.histogram(format("%s.template.%s.delivery_latency", METRIC_PREFIX, notification.getTemplateId()))
+                .update(latencyInMillis);
+    }
+
+    private void dropExpired(NotificationOutboxEntity notification) {
+        try {
+            notificationOutboxDao.delete(notification.getId());
+        } catch (Exception e) {
+            LOGGER.error("Failed to remove expired notification from the outbox",
+                    kv("outbox_id", notification.getId()), e);
+            return;
+        }
+        expired.mark();
+        LOGGER.warn("Dropped notification that expired before it could be sent",
+                kv("outbox_id", notification.getId()),
+                kv("template_id", notification.getTemplateId()),
+                kv("attempts", notification.getAttempts()));
+    }
+
+    private static boolean isExpiredBy(NotificationOutboxEntity notification, Instant instant) {
+        return notification.getExpiryDate() != null && !notification.getExpiryDate().toInstant().isAfter(instant);
+    }
+
+    private String send(NotificationOutboxEntity notification) {
+        if (notification.getNotificationType() == SMS) {
+            return notificationService.sendSms(notification.getTemplateId(), notification.getRecipient(),
+                    notification.getPersonalisation());
+        }
+        return notificationService.sendEmail(notification.getTemplateId(), notification.getRecipient(),
+                notification.getPersonalisation(), notification.getEmailReplyToId());
+    }
+
+    private void handleFailure(NotificationOutboxEntity notification, Exception e) {
+        Throwable cause = e.getCause() == null ? e : e.getCause();
+        int attempts = notification.getAttempts() + 1;
+        Instant nextAttemptDate = instantSource.instant().plus(retryDelay(attempts));
+        try {
+            if (attempts >= config.getMaxAttempts() || isRejectedByNotify(cause)
+                    || isExpiredBy(notification, nextAttemptDate)) {
+                notificationOutboxDao.delete(notification.getId());
+                abandoned.mark();
+                LOGGER.error("Abandoned notification after failing to send it",
+                        kv("outbox_id", notification.getId()),
+                        kv("template_id", notification.getTemplateId()),
+                        kv("attempts", attempts),
+                        kv("error", cause.getMessage()));
+            } else {
+                notificationOutboxDao.scheduleRetry(notification.getId(), attempts, nextAttemptDate, cause.getMessage());
+                retried.mark();
+                LOGGER.warn("Failed to send notification, will retry",
+                        kv("outbox_id", notification.getId()),
+                        kv("template_id", notification.getTemplateId()),
+                        kv("attempts", attempts),
+                        kv("next_attempt_date", nextAttemptDate.toString()));
+            }
+        } catch (Exception updateException) {
+            LOGGER.error("Failed to record notification failure in the outbox",
+                    kv("outbox_id", notification.getId()), updateException);
+        }
+    }
+
+    /* default */ Duration retryDelay(int attempts) {
+        long multiplier = 1L << Math.min(attempts - 1, 30);
+        long delayInSeconds = Math.min(config.getMaxRetryDelayInSeconds(), config.getInitialRetryDelayInSeconds() * multiplier);
+        return Duration.ofSeconds(delayInSeconds);
+    }
+
+    /**
+     * Notify rejects requests it can never accept, such as an invalid email address or a missing template, with a
+     * 4xx status; retrying those cannot succeed. Rate limiting (429) is worth retrying.
+     */
+    private static boolean isRejectedByNotify(Throwable cause) {
+        if (cause instanceof NotificationClientException notificationClientException) {
+            int status = notificationClientException.getHttpResult();
+            return status >= 400 && status < 500 && status != TOO_MANY_REQUESTS;
+        }
+        return false;
+    }
+
+    @Override
+    public void stop() {
+        LOGGER.info("Shutting down notification outbox dispatcher");
+        scheduledExecutorService.shutdown();
+        workerExecutorService.shutdown();
+        try {
+            if (!scheduledExecutorService.awaitTermination(SHUTDOWN_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)
+                    || !workerExecutorService.awaitTermination(SHUTDOWN_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Notification outbox dispatcher still sending after shutdown wait time, will now be forcefully stopped");
+                scheduledExecutorService.shutdownNow();
+                workerExecutorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduledExecutorService.shutdownNow();
+            workerExecutorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,24 +1,45 @@
 package uk.gov.pay.adminusers.service;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Stopwatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.adminusers.app.config.NotifyConfiguration;
 import uk.gov.pay.adminusers.app.config.NotifyDirectDebitConfiguration;
+import uk.gov.pay.adminusers.persistence.dao.NotificationOutboxDao;
+import uk.gov.pay.adminusers.persistence.entity.NotificationOutboxEntity;
+import uk.gov.pay.adminusers.persistence.entity.NotificationOutboxEntity.NotificationType;
 import uk.gov.pay.adminusers.utils.telephonenumber.TelephoneNumberUtility;
 import uk.gov.service.notify.NotificationClientException;
 import uk.gov.service.notify.SendEmailResponse;
 import uk.gov.service.notify.SendSmsResponse;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static java.lang.String.format;
+import static uk.gov.pay.adminusers.persistence.entity.UTCDateTimeConverter.UTC;
 import static uk.gov.pay.adminusers.model.Service.DEFAULT_NAME_VALUE;
 import static uk.gov.pay.adminusers.service.AdminUsersExceptions.userNotificationError;
 
+/**
+ * Sends emails and SMS through GOV.UK Notify. When created with a {@link NotificationOutboxDao}, the notifications
+ * users are waiting on (sign-in codes, invites, password resets and so on) are written to the outbox and sent later
+ * by the {@code NotificationOutboxDispatcher}; the methods return the outbox id rather than a Notify notification id,
+ * and the dispatcher logs the Notify id against the outbox id once it has been sent. Without the outbox they are sent
+ * straight away and the Notify id is logged here.
+ * The outbox row joins the caller's transaction if there is one and is otherwise committed straight away, so a
+ * caller that is not {@code @Transactional} (such as {@code ForgottenPasswordServices.create}) can have the
+ * notification sent even if its own later writes fail. Sign-in codes and password reset links are given an expiry
+ * date matching their validity and are dropped rather than sent once it passes. Dispute emails and direct calls to
+ * {@code sendEmail} and {@code sendSms} always go to Notify straight away.
+ */
 public class NotificationService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NotificationService.class);
@@ -44,12 +65,41 @@ public class NotificationService {
     private final String stripeDisputeWonEmailTemplateId;
     private final String notifyEmailReplyToSupportId;
 
+    private final Semaphore requestPermits;
+    private final long maxConcurrentRequestsWaitTimeoutInMillis;
+
+    private final NotificationOutboxDao notificationOutboxDao;
+    private final Duration otpNotificationMaxAge;
+    private final Duration forgottenPasswordNotificationMaxAge;
+
     public NotificationService(NotifyClientProvider notifyClientProvider,
                                NotifyConfiguration notifyConfiguration,
                                NotifyDirectDebitConfiguration notifyDirectDebitConfiguration,
                                MetricRegistry metricRegistry) {
+        this(notifyClientProvider, notifyConfiguration, notifyDirectDebitConfiguration, metricRegistry, null);
+    }
+
+    public NotificationService(NotifyClientProvider notifyClientProvider,
+                               NotifyConfiguration notifyConfiguration,
+                               NotifyDirectDebitConfiguration notifyDirectDebitConfiguration,
+                               MetricRegistry metricRegistry,
+                               NotificationOutboxDao notificationOutboxDao) {
+        this(notifyClientProvider, notifyConfiguration, notifyDirectDebitConfiguration, metricRegistry,
+                notificationOutboxDao, null, null);
+    }
+
+    public NotificationService(NotifyClientProvider notifyClientProvider,
+                               NotifyConfiguration notifyConfiguration,
+                               NotifyDirectDebitConfiguration notifyDirectDebitConfiguration,
+                               MetricRegistry metricRegistry,
+                               NotificationOutboxDao notificationOutboxDao,
+                               Duration otpNotificationMaxAge,
+                               Duration forgottenPasswordNotificationMaxAge) {
         
         this.notifyClientProvider = notifyClientProvider;
+        this.notificationOutboxDao = notificationOutboxDao;
+        this.otpNotificationMaxAge = otpNotificationMaxAge;
+        this.forgottenPasswordNotificationMaxAge = forgottenPasswordNotificationMaxAge;
         this.notifyConfiguration = notifyConfiguration;
         this.notifyDirectDebitConfiguration = notifyDirectDebitConfiguration;
 
@@ -70,6 +120,13 @@ public class NotificationService {
         this.notifyEmailReplyToSupportId = notifyConfiguration.getNotifyEmailReplyToSupportId();
 
         this.metricRegistry = metricRegistry;
+
+        int maxConcurrentRequests = notifyConfiguration.getMaxConcurrentRequests();
+        this.requestPermits = new Semaphore(maxConcurrentRequests, true);
+        this.maxConcurrentRequestsWaitTimeoutInMillis = notifyConfiguration.getMaxConcurrentRequestsWaitTimeoutInMillis();
+        metricRegistry.gauge("notify-operations.concurrency.in_flight",
+                () -> (Gauge<Integer>) () -> maxConcurrentRequests - requestPermits.availablePermits());
+        metricRegistry.gauge("notify-operations.concurrency.waiting", () -> (Gauge<Integer>) requestPermits::getQueueLength);
     }
 
     public NotifyDirectDebitConfiguration getNotifyDirectDebitConfiguration() {
@@ -77,18 +134,38 @@ public class NotificationService {
     }
 
     public String sendSecondFactorPasscodeSms(String phoneNumber, String passcode, OtpNotifySmsTemplateId otpNotifySmsTemplateId) {
+        String templateId = resolveOtpNotifySmsTemplateId(otpNotifySmsTemplateId);
+        String e164PhoneNumber = TelephoneNumberUtility.formatToE164(phoneNumber);
+        Map<String, String> personalisation = Map.of("code", passcode);
+        if (notificationOutboxDao != null) {
+            return enqueue(NotificationType.SMS, templateId, e164PhoneNumber, personalisation, otpNotificationMaxAge);
+        }
+        String notificationId = sendSms(templateId, e164PhoneNumber, personalisation);
+        LOGGER.info("Sent SMS straight to Notify as the notification outbox is disabled, notification id [{}]", notificationId);
+        return notificationId;
+    }
+
+    /**
+     * Sends an SMS to a phone number already in E.164 format.
+     */
+    public String sendSms(String templateId, String e164PhoneNumber, Map<String, String> personalisation) {
         Stopwatch responseTimeStopwatch = Stopwatch.createStarted();
         try {
-            SendSmsResponse response = notifyClientProvider.get().sendSms(resolveOtpNotifySmsTemplateId(otpNotifySmsTemplateId),
-                    TelephoneNumberUtility.formatToE164(phoneNumber), Map.of("code", passcode), null);
-            return response.getNotificationId().toString();
-        } catch (NotificationClientException e) {
+            acquireRequestPermit();
+            try {
+                SendSmsResponse response = notifyClientProvider.get().sendSms(templateId, e164PhoneNumber, personalisation, null);
+                return response.getNotificationId().toString();
+            } finally {
+                requestPermits.release();
+            }
+        } catch (NotificationClientException | TimeoutException | InterruptedException e) {
+            restoreInterruptIfInterrupted(e);
             metricRegistry.counter("notify-operations.sms.failures").inc();
             LOGGER.info("Error sending Sms: " + e.getMessage());
             throw userNotificationError(e);
         } finally {
             responseTimeStopwatch.stop();
-            metricRegistry.histogram("notify-operations.sms.response_time").update(responseTimeStopwatch.elapsed(TimeUnit.MILLISECONDS));
+            recordResponseTime("sms", templateId, responseTimeStopwatch.elapsed(TimeUnit.MILLISECONDS));
         }
     }
 
@@ -96,19 +173,19 @@ public class NotificationService {
         Map<String, String> personalisation = Map.of(
                 "username", sender,
                 "link", inviteUrl);
-        return sendEmail(inviteEmailTemplateId, email, personalisation);
+        return dispatchEmail(inviteEmailTemplateId, email, personalisation);
     }
 
     public String sendSelfRegistrationInviteEmail(String email, String inviteUrl) {
         Map<String, String> personalisation = Map.of(
                 "name", email,
                 "link", inviteUrl);
-        return sendEmail(notifyConfiguration.getInviteServiceEmailTemplateId(), email, personalisation);
+        return dispatchEmail(notifyConfiguration.getInviteServiceEmailTemplateId(), email, personalisation);
     }
 
     public String sendForgottenPasswordEmail(String email, String forgottenPasswordUrl) {
         Map<String, String> personalisation = Map.of("code", forgottenPasswordUrl);
-        return sendEmail(forgottenPasswordEmailTemplateId, email, personalisation);
+        return dispatchEmail(forgottenPasswordEmailTemplateId, email, personalisation, forgottenPasswordNotificationMaxAge);
     }
 
     public String sendSelfRegistrationInviteUserExistsEmail(String email, String signInLink, String forgottenPasswordLink, String feedbackLink) {
@@ -116,12 +193,12 @@ public class NotificationService {
                 "signin_link", signInLink,
                 "forgotten_password_link", forgottenPasswordLink,
                 "feedback_link", feedbackLink);
-        return sendEmail(notifyConfiguration.getInviteServiceUserExistsEmailTemplateId(), email, personalisation);
+        return dispatchEmail(notifyConfiguration.getInviteServiceUserExistsEmailTemplateId(), email, personalisation);
     }
 
     public String sendSelfRegistrationInviteUserExistsAndIsDisabledEmail(String email, String supportUrl) {
         Map<String, String> personalisation = Map.of("feedback_link", supportUrl);
-        return sendEmail(notifyConfiguration.getInviteServiceUserDisabledEmailTemplateId(), email, personalisation);
+        return dispatchEmail(notifyConfiguration.getInviteServiceUserDisabledEmailTemplateId(), email, personalisation);
     }
 
     public String sendInviteExistingUserToJoinServiceEmail(String sender, String email, String inviteUrl, String serviceName) {
@@ -143,12 +220,12 @@ public class NotificationService {
                 "joinServiceNamePart", joinServiceNamePart
         );
 
-        return sendEmail(inviteExistingUserEmailTemplateId, email, personalisation);
+        return dispatchEmail(inviteExistingUserEmailTemplateId, email, personalisation);
     }
 
     public String sendLiveAccountCreatedEmail(String email, String serviceLiveAccountLink) {
         Map<String, String> personalisation = Map.of("service_live_account_link", serviceLiveAccountLink);
-        return sendEmail(notifyConfiguration.getLiveAccountCreatedEmailTemplateId(), email, personalisation);
+        return dispatchEmail(notifyConfiguration.getLiveAccountCreatedEmailTemplateId(), email, personalisation);
     }
     
     public void sendStripeDisputeCreatedEmail(Set<String> emailAddresses, Map<String, String> personalisation) {
@@ -177,18 +254,71 @@ public class NotificationService {
     public String sendEmail(final String templateId, final String email, final Map<String, String> personalisation, final String emailReplyToId) {
         Stopwatch responseTimeStopwatch = Stopwatch.createStarted();
         try {
-            SendEmailResponse response = notifyClientProvider.get().sendEmail(templateId, email, personalisation, null, emailReplyToId);
-            return response.getNotificationId().toString();
+            acquireRequestPermit();
+            try {
+                SendEmailResponse response = notifyClientProvider.get().sendEmail(templateId, email, personalisation, null, emailReplyToId);
+                return response.getNotificationId().toString();
+            } finally {
+                requestPermits.release();
+            }
         } catch (Exception e) {
+            restoreInterruptIfInterrupted(e);
             metricRegistry.counter("notify-operations.email.failures").inc();
             LOGGER.info("Error sending email: {}", e.getMessage());
             throw userNotificationError(e);
         } finally {
             responseTimeStopwatch.stop();
-            metricRegistry.histogram("notify-operations.email.response_time").update(responseTimeStopwatch.elapsed(TimeUnit.MILLISECONDS));
+            recordResponseTime("email", templateId, responseTimeStopwatch.elapsed(TimeUnit.MILLISECONDS));
         }
     }
 
+    private String dispatchEmail(String templateId, String email, Map<String, String> personalisation) {
+        return dispatchEmail(templateId, email, personalisation, null);
+    }
+
+    private String dispatchEmail(String templateId, String email, Map<String, String> personalisation, Duration maxAge) {
+        if (notificationOutboxDao != null) {
+            return enqueue(NotificationType.EMAIL, templateId, email, personalisation, maxAge);
+        }
+        String notificationId = sendEmail(templateId, email, personalisation);
+        LOGGER.info("Sent email straight to Notify as the notification outbox is disabled, notification id [{}]", notificationId);
+        return notificationId;
+    }
+
+    private String enqueue(NotificationType notificationType, String templateId, String recipient,
+                           Map<String, String> personalisation, Duration maxAge) {
+        ZonedDateTime createdDate = ZonedDateTime.now(UTC);
+        ZonedDateTime expiryDate = maxAge == null ? null : createdDate.plus(maxAge);
+        var notification = new NotificationOutboxEntity(notificationType, templateId, recipient, personalisation, null,
+                createdDate, expiryDate);
+        notificationOutboxDao.persist(notification);
+        metricRegistry.counter(format("notify-operations.%s.enqueued", notificationType.name().toLowerCase())).inc();
+        return String.valueOf(notification.getId());
+    }
+
+    /**
+     * Bounds the number of concurrent requests to Notify so a slow Notify cannot tie up every request thread;
+     * callers that cannot start their request within the configured time fail rather than queue indefinitely.
+     */
+    private void acquireRequestPermit() throws InterruptedException, TimeoutException {
+        if (!requestPermits.tryAcquire(maxConcurrentRequestsWaitTimeoutInMillis, TimeUnit.MILLISECONDS)) {
+            metricRegistry.counter("notify-operations.concurrency.wait_timeouts").inc();
+            throw new TimeoutException("Timed out waiting for other requests to Notify to finish");
+        }
+    }
+
+    private static void restoreInterruptIfInterrupted(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void recordResponseTime(String notificationType, String templateId, long responseTimeInMillis) {
+        metricRegistry.histogram(format("notify-operations.%s.response_time", notificationType)).update(responseTimeInMillis);
+        metricRegistry.histogram(format("notify-operations.%s.template.%s.response_time", notificationType, templateId))
+                .update(responseTimeInMillis);
+    }
+
     private String resolveOtpNotifySmsTemplateId(OtpNotifySmsTemplateId otpNotifySmsTemplateId) {
         switch (otpNotifySmsTemplateId) {
             case SIGN_IN:
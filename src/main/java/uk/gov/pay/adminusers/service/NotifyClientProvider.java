@@ -1,21 +1,23 @@
 package uk.gov.pay.adminusers.service;
 
 import uk.gov.pay.adminusers.app.config.NotifyConfiguration;
-import uk.gov.pay.adminusers.model.PaymentType;
 import uk.gov.service.notify.NotificationClient;
 
+/**
+ * Holds the one {@link NotificationClient} shared by every request. The client is stateless apart from its
+ * credentials, so reusing it lets the JDK keep-alive cache reuse connections to Notify instead of each send
+ * starting from a freshly built client.
+ */
 public class NotifyClientProvider {
 
-    private NotifyConfiguration configuration;
+    private final NotificationClient notificationClient;
 
     public NotifyClientProvider(NotifyConfiguration configuration) {
-        this.configuration = configuration;
+        this.notificationClient = new NotificationClient(configuration.getCardApiKey(), configuration.getNotificationBaseURL(), null);
     }
 
     public NotificationClient get() {
-        String apiKey = configuration.getCardApiKey();
-
-        return new NotificationClient(apiKey, configuration.getNotificationBaseURL(), null);
+        return notificationClient;
     }
 
 }
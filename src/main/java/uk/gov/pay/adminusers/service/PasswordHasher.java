@@ -1,16 +1,130 @@
 package uk.gov.pay.adminusers.service;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.inject.Inject;
+import io.dropwizard.core.setup.Environment;
 import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.PasswordHashingConfig;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static uk.gov.pay.adminusers.service.AdminUsersExceptions.internalServerError;
+import static uk.gov.pay.adminusers.service.AdminUsersExceptions.passwordHashingUnavailable;
+
+/**
+ * Hashes and checks passwords with BCrypt. When created by Guice the work runs on a dedicated pool with one thread
+ * per processor (by default) and a bounded queue, so that bursts of logins cannot take every request thread's CPU;
+ * calls are rejected with a 503 when the queue is full. The no-argument constructor runs BCrypt on the calling
+ * thread.
+ */
 public class PasswordHasher {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordHasher.class);
     private static final int HASH_PASSWORD_SALT_ROUNDS = 10;
+    private static final String THREAD_NAME = "password-hasher-%d";
+    private static final String METRIC_PREFIX = "password-hasher";
+
+    private final ExecutorService executorService;
+    private final Timer queueWaitTime;
+    private final Timer hashingTime;
+    private final Meter rejections;
+
+    public PasswordHasher() {
+        this.executorService = null;
+        this.queueWaitTime = null;
+        this.hashingTime = null;
+        this.rejections = null;
+    }
+
+    @Inject
+    public PasswordHasher(AdminUsersConfig adminUsersConfig, Environment environment) {
+        PasswordHashingConfig config = adminUsersConfig.getPasswordHashingConfig();
+        int numberOfThreads = config.getNumberOfThreads();
+        BlockingQueue<Runnable> workQueue = config.getMaxQueueSize() > 0
+                ? new ArrayBlockingQueue<>(config.getMaxQueueSize())
+                : new SynchronousQueue<>();
+
+        this.executorService = environment.lifecycle()
+                .executorService(THREAD_NAME)
+                .minThreads(numberOfThreads)
+                .maxThreads(numberOfThreads)
+                .workQueue(workQueue)
+                .rejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy())
+                .build();
+
+        MetricRegistry metricRegistry = environment.metrics();
+        this.queueWaitTime = metricRegistry.timer(METRIC_PREFIX + ".queue_wait_time");
+        this.hashingTime = metricRegistry.timer(METRIC_PREFIX + ".hashing_time");
+        this.rejections = metricRegistry.meter(METRIC_PREFIX + ".rejected");
+        metricRegistry.gauge(METRIC_PREFIX + ".queue_size", () -> (Gauge<Integer>) workQueue::size);
+
+        LOGGER.info("Password hashing executor started",
+                kv("number_of_threads", numberOfThreads),
+                kv("max_queue_size", config.getMaxQueueSize()));
+    }
 
     public String hash(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt(HASH_PASSWORD_SALT_ROUNDS));
+        return run(() -> BCrypt.hashpw(password, BCrypt.gensalt(HASH_PASSWORD_SALT_ROUNDS)));
     }
 
     public boolean isEqual(String password, String hashedPassword) {
-        return BCrypt.checkpw(password, hashedPassword);
+        return run(() -> BCrypt.checkpw(password, hashedPassword));
+    }
+
+    private <T> T run(Callable<T> bcrypt) {
+        if (executorService == null) {
+            try {
+                return bcrypt.call();
+            } catch (Exception e) {
+                throw propagate(e);
+            }
+        }
+
+        Timer.Context queueWaitTimer = queueWaitTime.time();
+        Future<T> result;
+        try {
+            result = executorService.submit(() -> {
+                queueWaitTimer.stop();
+                try (Timer.Context ignored = hashingTime.time()) {
+                    return bcrypt.call();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.mark();
+            LOGGER.warn("Rejected password hashing as the queue is full");
+            throw passwordHashingUnavailable();
+        }
+
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw internalServerError("Interrupted while waiting for password hashing");
+        }
+    }
+
+    private static RuntimeException propagate(Throwable e) {
+        if (e instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(e);
     }
 }
@@ -105,8 +105,8 @@ public class SelfRegistrationInviteCreator {
     private void sendInviteNotification(InviteEntity invite, String targetUrl) {
         LOGGER.info("New self-registration invitation created");
         try {
-            String notificationId = notificationService.sendSelfRegistrationInviteEmail(invite.getEmail(), targetUrl);
-            LOGGER.info("sent self-registration invitation email successfully, notification id [{}]", notificationId);
+            String outboxId = notificationService.sendSelfRegistrationInviteEmail(invite.getEmail(), targetUrl);
+            LOGGER.info("queued self-registration invitation email, outbox id [{}]", outboxId);
         } catch (Exception e) {
             LOGGER.error("error sending self-registration invitation", e);
         }
@@ -115,8 +115,8 @@ public class SelfRegistrationInviteCreator {
     private void sendUserDisabledNotification(String email, String userExternalId) {
         LOGGER.info("Disabled existing user tried to initiate self-registration - user_id={}", userExternalId);
         try {
-            String notificationId = notificationService.sendSelfRegistrationInviteUserExistsAndIsDisabledEmail(email, linksConfig.getSupportUrl());
-            LOGGER.info("sent 'disabled existing user tried initiate self-registration' email successfully, notification id [{}]", notificationId);
+            String outboxId = notificationService.sendSelfRegistrationInviteUserExistsAndIsDisabledEmail(email, linksConfig.getSupportUrl());
+            LOGGER.info("queued 'disabled existing user tried initiate self-registration' email, outbox id [{}]", outboxId);
         } catch (Exception e) {
             LOGGER.error("error sending 'disabled existing user tried initiate self-registration' email", e);
         }
@@ -125,8 +125,8 @@ public class SelfRegistrationInviteCreator {
     private void sendUserExistsNotification(String email, String userExternalId) {
         LOGGER.info("Existing user tried to initiate self-registration - user_id={}", userExternalId);
         try {
-            String notificationId = notificationService.sendSelfRegistrationInviteUserExistsEmail(email, linksConfig.getSelfserviceLoginUrl(), linksConfig.getSelfserviceForgottenPasswordUrl(), linksConfig.getSupportUrl());
-            LOGGER.info("sent 'existing user tried to initiate self-registration' email successfully, notification id [{}]", notificationId);
+            String outboxId = notificationService.sendSelfRegistrationInviteUserExistsEmail(email, linksConfig.getSelfserviceLoginUrl(), linksConfig.getSelfserviceForgottenPasswordUrl(), linksConfig.getSupportUrl());
+            LOGGER.info("queued 'existing user tried to initiate self-registration' email, outbox id [{}]", outboxId);
         } catch (Exception e) {
             LOGGER.error("error sending 'existing user tried to initiate self-registration' email", e);
         }
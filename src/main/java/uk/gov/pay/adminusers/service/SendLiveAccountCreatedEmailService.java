@@ -39,8 +39,8 @@ public class SendLiveAccountCreatedEmailService {
                 .toString();
 
         try {
-            String notificationId = notificationService.sendLiveAccountCreatedEmail(agreement.getEmail(), serviceLiveAccountUrl);
-            LOGGER.info("Sent service is live email successfully, notification id [{}]", notificationId);
+            String outboxId = notificationService.sendLiveAccountCreatedEmail(agreement.getEmail(), serviceLiveAccountUrl);
+            LOGGER.info("Queued service is live email, outbox id [{}]", outboxId);
         } catch(Exception e) {
             LOGGER.error("Error sending service is live email", e);
         }
@@ -17,11 +17,17 @@ public class ServiceCreator {
 
     private final ServiceDao serviceDao;
     private final LinksBuilder linksBuilder;
+    private final GatewayAccountServiceCache gatewayAccountServiceCache;
 
-    @Inject
     public ServiceCreator(ServiceDao serviceDao, LinksBuilder linksBuilder) {
+        this(serviceDao, linksBuilder, GatewayAccountServiceCache.disabled());
+    }
+
+    @Inject
+    public ServiceCreator(ServiceDao serviceDao, LinksBuilder linksBuilder, GatewayAccountServiceCache gatewayAccountServiceCache) {
         this.serviceDao = serviceDao;
         this.linksBuilder = linksBuilder;
+        this.gatewayAccountServiceCache = gatewayAccountServiceCache;
     }
 
     @Transactional
@@ -36,6 +42,7 @@ public class ServiceCreator {
             serviceEntity.addGatewayAccountIds(gatewayAccountIds.toArray(new String[0]));
         }
         serviceDao.persist(serviceEntity);
+        gatewayAccountServiceCache.invalidate(serviceEntity);
         return linksBuilder.decorate(serviceEntity.toService());
     }
 }
@@ -4,6 +4,7 @@ import com.google.inject.Inject;
 import uk.gov.pay.adminusers.model.SearchServicesResponse;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.ServiceSearchRequest;
+import uk.gov.pay.adminusers.model.ServiceSearchResult;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 
@@ -19,16 +20,22 @@ public class ServiceFinder {
 
     private final ServiceDao serviceDao;
     private final LinksBuilder linksBuilder;
+    private final GatewayAccountServiceCache gatewayAccountServiceCache;
 
-    @Inject
     public ServiceFinder(ServiceDao serviceDao, LinksBuilder linksBuilder) {
+        this(serviceDao, linksBuilder, GatewayAccountServiceCache.disabled());
+    }
+
+    @Inject
+    public ServiceFinder(ServiceDao serviceDao, LinksBuilder linksBuilder, GatewayAccountServiceCache gatewayAccountServiceCache) {
         this.serviceDao = serviceDao;
         this.linksBuilder = linksBuilder;
+        this.gatewayAccountServiceCache = gatewayAccountServiceCache;
     }
 
     public Optional<Service> byGatewayAccountId(String gatewayAccountId) {
-        return serviceDao.findByGatewayAccountId(gatewayAccountId)
-                .map(serviceEntity -> linksBuilder.decorate(serviceEntity.toService()));
+        return gatewayAccountServiceCache.get(gatewayAccountId, () -> serviceDao.findByGatewayAccountId(gatewayAccountId)
+                .map(serviceEntity -> linksBuilder.decorate(serviceEntity.toService())));
     }
     
     public Optional<Service> byExternalId(String externalId) {
@@ -44,6 +51,11 @@ public class ServiceFinder {
         return new SearchServicesResponse(servicesByName, servicesByMerchantName);
     }
     
+    public List<ServiceSearchResult> searchSummaries(ServiceSearchRequest request, int limit, int offset) {
+        return serviceDao.searchByNameOrMerchantName(request.getServiceNameSearchString(),
+                request.getServiceMerchantNameSearchString(), limit, offset);
+    }
+
     private List<Service> streamServiceEntitiesToServices (List<ServiceEntity> serviceEntities) {
         return serviceEntities.stream().map(serviceEntity -> linksBuilder.decorate(serviceEntity.toService()))
                 .collect(Collectors.toUnmodifiableList());
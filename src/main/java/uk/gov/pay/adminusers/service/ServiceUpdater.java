@@ -58,10 +58,17 @@ public class ServiceUpdater {
     private final ServiceDao serviceDao;
     private final Map<String, BiConsumer<ServiceUpdateRequest, ServiceEntity>> attributeUpdaters;
 
+    private final GatewayAccountServiceCache gatewayAccountServiceCache;
+
     ExpungeAndArchiveHistoricalDataService expungeAndArchiveHistoricalDataService;
 
-    @Inject
     public ServiceUpdater(ServiceDao serviceDao, ExpungeAndArchiveHistoricalDataService expungeAndArchiveHistoricalDataService) {
+        this(serviceDao, expungeAndArchiveHistoricalDataService, GatewayAccountServiceCache.disabled());
+    }
+
+    @Inject
+    public ServiceUpdater(ServiceDao serviceDao, ExpungeAndArchiveHistoricalDataService expungeAndArchiveHistoricalDataService,
+                          GatewayAccountServiceCache gatewayAccountServiceCache) {
         Map<String, BiConsumer<ServiceUpdateRequest, ServiceEntity>> attributeUpdaters = new HashMap<>(Map.ofEntries(
                 entry(FIELD_GATEWAY_ACCOUNT_IDS, assignGatewayAccounts()),
                 entry(FIELD_CUSTOM_BRANDING, updateCustomBranding()),
@@ -94,6 +101,7 @@ public class ServiceUpdater {
         this.attributeUpdaters = Map.copyOf(attributeUpdaters);
         this.serviceDao = serviceDao;
         this.expungeAndArchiveHistoricalDataService = expungeAndArchiveHistoricalDataService;
+        this.gatewayAccountServiceCache = gatewayAccountServiceCache;
     }
 
     @Transactional
@@ -110,6 +118,7 @@ public class ServiceUpdater {
                                 .accept(req, serviceEntity);
                         serviceDao.merge(serviceEntity);
                     });
+                    gatewayAccountServiceCache.invalidate(serviceEntity);
                     return serviceEntity.toService();
                 });
     }
@@ -121,6 +130,7 @@ public class ServiceUpdater {
                     MerchantDetailsEntity merchantEntity = MerchantDetailsEntity.from(updateMerchantDetailsRequest);
                     serviceEntity.setMerchantDetailsEntity(merchantEntity);
                     serviceDao.merge(serviceEntity);
+                    gatewayAccountServiceCache.invalidate(serviceEntity);
                     return serviceEntity.toService();
                 }).orElseThrow(() -> new ServiceNotFoundException(serviceExternalId));
     }
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:alter-table-users-add-lower-external-id-index
+
+CREATE INDEX lower_case_external_id_index ON users ((LOWER(external_id)));
+
+--rollback DROP INDEX lower_case_external_id_index;
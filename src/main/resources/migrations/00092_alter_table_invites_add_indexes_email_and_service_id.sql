@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:alter-table-invites-add-indexes-email-and-service-id
+
+CREATE INDEX invites_email_idx ON invites (email);
+CREATE INDEX invites_service_id_idx ON invites (service_id);
+
+--rollback DROP INDEX invites_email_idx; DROP INDEX invites_service_id_idx;
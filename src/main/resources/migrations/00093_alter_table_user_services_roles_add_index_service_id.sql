@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:alter-table-user-services-roles-add-index-service-id
+
+CREATE INDEX user_services_roles_service_id_idx ON user_services_roles (service_id);
+
+--rollback DROP INDEX user_services_roles_service_id_idx;
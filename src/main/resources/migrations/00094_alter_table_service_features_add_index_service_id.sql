@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:alter-table-service-features-add-index-service-id
+
+CREATE INDEX service_features_service_id_idx ON service_features (service_id);
+
+--rollback DROP INDEX service_features_service_id_idx;
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:alter-table-service-gateway-accounts-add-index-service-id
+
+CREATE INDEX service_gateway_accounts_service_id_idx ON service_gateway_accounts (service_id);
+
+--rollback DROP INDEX service_gateway_accounts_service_id_idx;
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:alter-table-forgotten-passwords-add-index-code
+
+CREATE INDEX forgotten_passwords_code_idx ON forgotten_passwords (code);
+
+--rollback DROP INDEX forgotten_passwords_code_idx;
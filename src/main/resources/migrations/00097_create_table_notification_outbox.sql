@@ -0,0 +1,20 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create-table-notification-outbox
+
+CREATE TABLE notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    notification_type VARCHAR(10) NOT NULL,
+    template_id VARCHAR(255) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    personalisation JSONB NOT NULL,
+    email_reply_to_id VARCHAR(255),
+    created_date TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    next_attempt_date TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT
+);
+
+CREATE INDEX notification_outbox_next_attempt_date_idx ON notification_outbox (next_attempt_date);
+
+--rollback DROP TABLE notification_outbox;
@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:add-trigram-indexes-for-service-search
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX service_names_en_name_trgm_idx ON service_names USING gin (name gin_trgm_ops) WHERE language = 'en';
+CREATE INDEX services_merchant_name_trgm_idx ON services USING gin (merchant_name gin_trgm_ops);
+
+--rollback DROP INDEX services_merchant_name_trgm_idx;
+--rollback DROP INDEX service_names_en_name_trgm_idx;
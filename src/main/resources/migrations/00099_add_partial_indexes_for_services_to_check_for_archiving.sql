@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:add-partial-indexes-for-services-to-check-for-archiving
+
+CREATE INDEX services_not_archived_created_date_idx ON services (created_date) WHERE NOT archived;
+CREATE INDEX services_not_archived_first_checked_for_archival_date_idx ON services (first_checked_for_archival_date) WHERE NOT archived;
+
+--rollback DROP INDEX services_not_archived_first_checked_for_archival_date_idx;
+--rollback DROP INDEX services_not_archived_created_date_idx;
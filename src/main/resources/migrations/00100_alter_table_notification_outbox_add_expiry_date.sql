@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:alter-table-notification-outbox-add-expiry-date
+
+ALTER TABLE notification_outbox ADD COLUMN expiry_date TIMESTAMP WITH TIME ZONE;
+
+--rollback ALTER TABLE notification_outbox DROP COLUMN expiry_date;
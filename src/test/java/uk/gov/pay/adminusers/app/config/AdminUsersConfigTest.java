@@ -0,0 +1,36 @@
+package uk.gov.pay.adminusers.app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
+import io.dropwizard.configuration.ResourceConfigurationSourceProvider;
+import io.dropwizard.configuration.SubstitutingSourceProvider;
+import io.dropwizard.configuration.YamlConfigurationFactory;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.jersey.validation.Validators;
+import org.dhatim.dropwizard.sentry.logging.SentryAppenderFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.gov.service.payments.logging.GovUkPayDropwizardRequestJsonLogLayoutFactory;
+import uk.gov.service.payments.logging.LogstashConsoleAppenderFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class AdminUsersConfigTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"config/config.yaml", "config/test-it-config.yaml"})
+    void shouldLoadAndValidateConfigFile(String path) throws Exception {
+        ObjectMapper objectMapper = Jackson.newObjectMapper();
+        objectMapper.getSubtypeResolver().registerSubtypes(LogstashConsoleAppenderFactory.class,
+                SentryAppenderFactory.class, GovUkPayDropwizardRequestJsonLogLayoutFactory.class);
+        var factory = new YamlConfigurationFactory<>(AdminUsersConfig.class, Validators.newValidator(), objectMapper, "dw");
+
+        AdminUsersConfig config = factory.build(new SubstitutingSourceProvider(new ResourceConfigurationSourceProvider(),
+                new EnvironmentVariableSubstitutor(false)), path);
+
+        assertThat(config.getConnectorTaskQueueConfig().getBatchSize(), is(10));
+        assertThat(config.getConnectorTaskQueueConfig().getMaxSendAttempts(), is(10));
+        assertThat(config.getEventSubscriberQueueConfig().getFailedMessageRetryDelayInSeconds(), is(3600));
+    }
+}
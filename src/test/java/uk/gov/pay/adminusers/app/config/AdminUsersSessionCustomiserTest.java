@@ -0,0 +1,122 @@
+package uk.gov.pay.adminusers.app.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.persistence.config.CacheIsolationType;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminUsersSessionCustomiserTest {
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private DatabaseLogin databaseLogin;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private ClassDescriptor roleDescriptor;
+
+    @BeforeEach
+    void setUp() {
+        when(session.getDatasourceLogin()).thenReturn(databaseLogin);
+        roleDescriptor = new ClassDescriptor();
+        roleDescriptor.setAlias("RoleEntity");
+    }
+
+    @Test
+    void shouldSetConnectionRetryBehaviour() {
+        new AdminUsersSessionCustomiser().customize(session);
+
+        verify(databaseLogin).setQueryRetryAttemptCount(0);
+        verify(databaseLogin).setDelayBetweenConnectionAttempts(2000);
+        verify(session, never()).setProfiler(any());
+    }
+
+    @Test
+    void shouldEnableTheSharedCacheForConfiguredEntities() {
+        when(session.getDescriptorForAlias("RoleEntity")).thenReturn(roleDescriptor);
+
+        new AdminUsersSessionCustomiser(Map.of("RoleEntity", cacheConfig(true, 50, 300)), metricRegistry).customize(session);
+
+        assertThat(roleDescriptor.getCacheIsolation(), is(CacheIsolationType.SHARED));
+        assertThat(roleDescriptor.getIdentityMapSize(), is(50));
+        assertThat(roleDescriptor.getCacheInvalidationPolicy(), is(instanceOf(TimeToLiveCacheInvalidationPolicy.class)));
+        assertThat(((TimeToLiveCacheInvalidationPolicy) roleDescriptor.getCacheInvalidationPolicy()).getTimeToLive(), is(300_000L));
+    }
+
+    @Test
+    void shouldLeaveDisabledEntitiesAlone() {
+        new AdminUsersSessionCustomiser(Map.of("RoleEntity", cacheConfig(false, 50, 300)), metricRegistry).customize(session);
+
+        verify(session, never()).getDescriptorForAlias("RoleEntity");
+        verify(session, never()).setProfiler(any());
+        assertThat(metricRegistry.getCounters().get("jpa-cache.RoleEntity.hits"), is(nullValue()));
+    }
+
+    @Test
+    void shouldRejectUnknownEntities() {
+        var customiser = new AdminUsersSessionCustomiser(Map.of("NoSuchEntity", cacheConfig(true, 50, 0)), metricRegistry);
+
+        assertThrows(IllegalArgumentException.class, () -> customiser.customize(session));
+    }
+
+    @Test
+    void shouldCountCacheHitsAndMissesForCachedEntitiesOnly() {
+        when(session.getDescriptorForAlias("RoleEntity")).thenReturn(roleDescriptor);
+        new AdminUsersSessionCustomiser(Map.of("RoleEntity", cacheConfig(true, 50, 0)), metricRegistry).customize(session);
+
+        ArgumentCaptor<SessionProfiler> profiler = ArgumentCaptor.forClass(SessionProfiler.class);
+        verify(session).setProfiler(profiler.capture());
+        DatabaseQuery roleQuery = queryFor(roleDescriptor);
+        ClassDescriptor userDescriptor = new ClassDescriptor();
+        userDescriptor.setAlias("UserEntity");
+
+        profiler.getValue().occurred(SessionProfiler.CacheHits, roleQuery, null);
+        profiler.getValue().occurred(SessionProfiler.CacheHits, roleQuery, null);
+        profiler.getValue().occurred(SessionProfiler.CacheMisses, roleQuery, null);
+        profiler.getValue().occurred(SessionProfiler.CacheHits, queryFor(userDescriptor), null);
+        profiler.getValue().occurred(SessionProfiler.CacheHits, null, null);
+
+        assertThat(metricRegistry.counter("jpa-cache.RoleEntity.hits").getCount(), is(2L));
+        assertThat(metricRegistry.counter("jpa-cache.RoleEntity.misses").getCount(), is(1L));
+        assertThat(metricRegistry.getCounters().get("jpa-cache.UserEntity.hits"), is(nullValue()));
+    }
+
+    private static DatabaseQuery queryFor(ClassDescriptor descriptor) {
+        DatabaseQuery query = mock(DatabaseQuery.class);
+        when(query.getDescriptor()).thenReturn(descriptor);
+        return query;
+    }
+
+    private static EntityCacheConfig cacheConfig(boolean enabled, int size, long expiryInSeconds) {
+        return new ObjectMapper().convertValue(Map.of(
+                "enabled", enabled,
+                "size", size,
+                "expiryInSeconds", expiryInSeconds), EntityCacheConfig.class);
+    }
+}
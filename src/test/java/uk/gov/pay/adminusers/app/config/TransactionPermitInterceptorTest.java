@@ -0,0 +1,70 @@
+package uk.gov.pay.adminusers.app.config;
+
+import com.codahale.metrics.MetricRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionPermitInterceptorTest {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @Test
+    void shouldRunNestedTransactionalCallsUnderTheOuterPermit() throws Throwable {
+        TransactionPermitInterceptor interceptor = new TransactionPermitInterceptor(1, 0, metricRegistry);
+        MethodInvocation inner = invocation();
+        when(inner.proceed()).thenReturn("inner");
+        MethodInvocation outer = invocation();
+        when(outer.proceed()).thenAnswer(ignored -> interceptor.invoke(inner));
+
+        assertThat(interceptor.invoke(outer), is("inner"));
+        assertThat(metricRegistry.getGauges().get("database-permits.in_use").getValue(), is(0));
+    }
+
+    @Test
+    void shouldRejectTransactionWhenNoPermitBecomesAvailable() throws Throwable {
+        TransactionPermitInterceptor interceptor = new TransactionPermitInterceptor(1, 10, metricRegistry);
+        CountDownLatch permitHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MethodInvocation holdingInvocation = invocation();
+        when(holdingInvocation.proceed()).thenAnswer(ignored -> {
+            permitHeld.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        CompletableFuture<Object> holder = CompletableFuture.supplyAsync(() -> invoke(interceptor, holdingInvocation));
+        permitHeld.await(5, TimeUnit.SECONDS);
+
+        WebApplicationException exception = assertThrows(WebApplicationException.class,
+                () -> interceptor.invoke(invocation()));
+
+        assertThat(exception.getResponse().getStatus(), is(503));
+        assertThat(metricRegistry.meter("database-permits.rejected").getCount(), is(1L));
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(metricRegistry.getGauges().get("database-permits.in_use").getValue(), is(0));
+    }
+
+    private static MethodInvocation invocation() throws NoSuchMethodException {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(Object.class.getMethod("toString"));
+        return invocation;
+    }
+
+    private static Object invoke(TransactionPermitInterceptor interceptor, MethodInvocation invocation) {
+        try {
+            return interceptor.invoke(invocation);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
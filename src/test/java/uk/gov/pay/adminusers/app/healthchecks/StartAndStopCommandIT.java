@@ -0,0 +1,61 @@
+package uk.gov.pay.adminusers.app.healthchecks;
+
+import io.dropwizard.core.cli.Cli;
+import io.dropwizard.core.setup.Bootstrap;
+import io.dropwizard.util.JarLocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.adminusers.app.AdminUsersApp;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.dropwizard.testing.ResourceHelpers.resourceFilePath;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
+class StartAndStopCommandIT {
+
+    private static final Map<String, String> CONFIG_OVERRIDES = Map.of(
+            "dw.database.url", "jdbc:postgresql://localhost:1/adminusers",
+            "dw.sqs.eventSubscriberQueueUrl", "http://localhost",
+            "dw.sqs.connectorTasksQueueUrl", "http://localhost",
+            "dw.ledgerBaseURL", "http://localhost",
+            "dw.eventSubscriberQueue.eventSubscriberQueueEnabled", "true",
+            "dw.notificationOutbox.enabled", "true");
+
+    private final StringWriter stdErr = new StringWriter();
+    private Bootstrap<AdminUsersConfig> bootstrap;
+    private Cli cli;
+
+    @BeforeEach
+    void setUp() {
+        CONFIG_OVERRIDES.forEach(System::setProperty);
+        AdminUsersApp application = new AdminUsersApp();
+        bootstrap = new Bootstrap<>(application);
+        application.initialize(bootstrap);
+        cli = new Cli(new JarLocation(getClass()), bootstrap, new PrintWriter(new StringWriter()), new PrintWriter(stdErr));
+    }
+
+    @AfterEach
+    void tearDown() {
+        CONFIG_OVERRIDES.keySet().forEach(System::clearProperty);
+    }
+
+    @Test
+    void shouldStartAndStopWithoutStartingBackgroundWorkThatNeedsTheDatabaseOrQueues() {
+        Optional<Throwable> error = cli.run("startAndStop", resourceFilePath("config/test-it-config.yaml"));
+
+        assertThat(stdErr.toString(), error, is(Optional.empty()));
+        assertThat(bootstrap.getMetricRegistry().getNames(), everyItem(not(startsWith("notification-outbox."))));
+        assertThat(bootstrap.getMetricRegistry().getNames(), everyItem(not(startsWith("connector-task-publisher."))));
+        assertThat(bootstrap.getMetricRegistry().getNames(), everyItem(not(startsWith("event-subscriber-queue."))));
+    }
+}
@@ -0,0 +1,105 @@
+package uk.gov.pay.adminusers.app.healthchecks;
+
+import io.dropwizard.core.cli.Cli;
+import io.dropwizard.core.setup.Bootstrap;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.util.JarLocation;
+import org.eclipse.jetty.server.Server;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.adminusers.app.AdminUsersApp;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.service.payments.commons.testing.db.PostgresDockerExtension;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.dropwizard.testing.ResourceHelpers.resourceFilePath;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class WaitMigrateAndServeCommandIT {
+
+    private static final String DATABASE_NAME = "wait_migrate_and_serve_it";
+    private static final PostgresDockerExtension postgres = new PostgresDockerExtension("15.2");
+
+    private final StringWriter stdErr = new StringWriter();
+    private Map<String, String> configOverrides;
+    private ServerCapturingApp application;
+    private Jdbi jdbi;
+    private Cli cli;
+
+    @BeforeEach
+    void setUp() {
+        Jdbi.create(postgres.getConnectionUrl(), postgres.getUsername(), postgres.getPassword()).useHandle(handle -> {
+            handle.execute("DROP DATABASE IF EXISTS " + DATABASE_NAME);
+            handle.execute("CREATE DATABASE " + DATABASE_NAME);
+        });
+        String connectionUrl = postgres.getConnectionUrl();
+        String databaseUrl = connectionUrl.substring(0, connectionUrl.lastIndexOf('/') + 1) + DATABASE_NAME;
+        jdbi = Jdbi.create(databaseUrl, postgres.getUsername(), postgres.getPassword());
+
+        configOverrides = Map.of(
+                "dw.database.url", databaseUrl,
+                "dw.database.user", postgres.getUsername(),
+                "dw.database.password", postgres.getPassword(),
+                "dw.sqs.eventSubscriberQueueUrl", "http://localhost",
+                "dw.sqs.connectorTasksQueueUrl", "http://localhost",
+                "dw.ledgerBaseURL", "http://localhost");
+        configOverrides.forEach(System::setProperty);
+
+        application = new ServerCapturingApp();
+        Bootstrap<AdminUsersConfig> bootstrap = new Bootstrap<>(application);
+        application.initialize(bootstrap);
+        cli = new Cli(new JarLocation(getClass()), bootstrap, new PrintWriter(new StringWriter()), new PrintWriter(stdErr));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (application.server != null) {
+            application.server.stop();
+        }
+        configOverrides.keySet().forEach(System::clearProperty);
+    }
+
+    @Test
+    void shouldMigrateTheDatabaseAndThenServe() {
+        Optional<Throwable> error = cli.run("waitMigrateAndServe", "--migrate", resourceFilePath("config/test-it-config.yaml"));
+
+        assertThat(stdErr.toString(), error, is(Optional.empty()));
+        assertThat(application.server.isStarted(), is(true));
+        assertThat(tableExists("users"), is(true));
+        assertThat(tableExists("notification_outbox"), is(true));
+    }
+
+    @Test
+    void shouldServeWithoutMigratingTheDatabaseUnlessAskedTo() {
+        Optional<Throwable> error = cli.run("waitMigrateAndServe", resourceFilePath("config/test-it-config.yaml"));
+
+        assertThat(stdErr.toString(), error, is(Optional.empty()));
+        assertThat(application.server.isStarted(), is(true));
+        assertThat(tableExists("users"), is(false));
+    }
+
+    private boolean tableExists(String tableName) {
+        return jdbi.withHandle(handle -> handle.createQuery("SELECT exists (SELECT * FROM pg_tables WHERE tablename = :tableName)")
+                .bind("tableName", tableName)
+                .mapTo(Boolean.class)
+                .one());
+    }
+
+    private static class ServerCapturingApp extends AdminUsersApp {
+
+        private Server server;
+
+        @Override
+        public void run(AdminUsersConfig configuration, Environment environment) {
+            super.run(configuration, environment);
+            environment.lifecycle().addServerLifecycleListener(startedServer -> server = startedServer);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package uk.gov.pay.adminusers.expungeandarchive.resource;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -22,6 +24,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
@@ -31,7 +34,10 @@ import static io.restassured.http.ContentType.JSON;
 import static java.lang.String.valueOf;
 import static java.time.ZoneOffset.UTC;
 import static org.apache.commons.lang3.RandomUtils.nextInt;
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -72,12 +78,7 @@ class ExpungeAndArchiveHistoricalDataResourceIT extends IntegrationTest {
         assertUserExists(userWithCreatedDate.getId(), userWithLastLoggedInDate.getId(),
                 userWithRecentLoggedInDateAndShouldNotBeDeleted.getId(), userWithRecentCreatedDateAndShouldNotBeDeleted.getId());
 
-        givenSetup().when()
-                .contentType(JSON)
-                .accept(JSON)
-                .post("v1/tasks/expunge-and-archive-historical-data")
-                .then()
-                .statusCode(200);
+        runExpungeAndArchiveJob();
 
         assertUserNotExists(userWithCreatedDate.getId(), userWithLastLoggedInDate.getId());
         assertUserExists(userWithRecentLoggedInDateAndShouldNotBeDeleted.getId(), userWithRecentCreatedDateAndShouldNotBeDeleted.getId());
@@ -100,12 +101,7 @@ class ExpungeAndArchiveHistoricalDataResourceIT extends IntegrationTest {
         assertForgottenPasswordsExist(forgottenPasswordDbFixture.getId(), forgottenPasswordThatShouldNotBeDeleted.getId());
         assertInvitesExist(code, codeThatShouldNotBeDeleted);
 
-        givenSetup().when()
-                .contentType(JSON)
-                .accept(JSON)
-                .post("v1/tasks/expunge-and-archive-historical-data")
-                .then()
-                .statusCode(200);
+        runExpungeAndArchiveJob();
 
         assertForgottenPasswordsExist(forgottenPasswordThatShouldNotBeDeleted.getId());
         assertInvitesExist(codeThatShouldNotBeDeleted);
@@ -142,12 +138,7 @@ class ExpungeAndArchiveHistoricalDataResourceIT extends IntegrationTest {
         List<Map<String, Object>> serviceRoles = databaseHelper.findServiceRoleForUser(user.getId());
         assertThat(serviceRoles.size(), is(1));
 
-        givenSetup().when()
-                .contentType(JSON)
-                .accept(JSON)
-                .post("v1/tasks/expunge-and-archive-historical-data")
-                .then()
-                .statusCode(200);
+        runExpungeAndArchiveJob();
 
         List<Map<String, Object>> services = databaseHelper.findServiceByExternalId(service.getExternalId());
         assertThat(services.get(0).get("archived"), is(true));
@@ -184,12 +175,7 @@ class ExpungeAndArchiveHistoricalDataResourceIT extends IntegrationTest {
 
         ledgerStub.returnLedgerTransactionsForSearch(service.getGatewayAccountIds().get(0), searchTransactionsResponse);
 
-        givenSetup().when()
-                .contentType(JSON)
-                .accept(JSON)
-                .post("v1/tasks/expunge-and-archive-historical-data")
-                .then()
-                .statusCode(200);
+        runExpungeAndArchiveJob();
 
         serviceAttributes = databaseHelper.findServiceByExternalId(service.getExternalId()).get(0);
         assertThat(serviceAttributes.get("archived"), is(false));
@@ -224,18 +210,81 @@ class ExpungeAndArchiveHistoricalDataResourceIT extends IntegrationTest {
         ledgerStub.returnLedgerTransactionsForSearch(serviceWithoutCreatedDateOrTransactions.getGatewayAccountIds().get(0), searchTransactionsResponseWitNoResults);
         ledgerStub.returnLedgerTransactionsForSearch(serviceWithoutCreatedDateAndSomeTransactions.getGatewayAccountIds().get(0), searchTransactionsResponse);
 
+        runExpungeAndArchiveJob();
+
+        Map<String, Object> serviceAttributes = databaseHelper.findServiceByExternalId(serviceWithoutCreatedDateOrTransactions.getExternalId()).get(0);
+        assertServiceNotArchived(serviceAttributes);
+
+        serviceAttributes = databaseHelper.findServiceByExternalId(serviceWithoutCreatedDateAndSomeTransactions.getExternalId()).get(0);
+        assertServiceNotArchived(serviceAttributes);
+    }
+
+    @Test
+    void shouldReportProgressOfJob() {
+        insertUser(now.minusYears(5), null);
+
+        ExtractableResponse<Response> response = givenSetup().when()
+                .contentType(JSON)
+                .accept(JSON)
+                .post("v1/tasks/expunge-and-archive-historical-data")
+                .then()
+                .statusCode(202)
+                .body("job_id", is(notNullValue()))
+                .extract();
+        String jobId = response.path("job_id");
+        assertThat(response.header("Location"), endsWith("/v1/tasks/" + jobId));
+
         givenSetup().when()
+                .accept(JSON)
+                .get("v1/tasks/" + jobId)
+                .then()
+                .statusCode(200)
+                .body("job_id", is(jobId));
+
+        awaitJob(jobId);
+
+        givenSetup().when()
+                .accept(JSON)
+                .get("v1/tasks/" + jobId)
+                .then()
+                .statusCode(200)
+                .body("status", is("SUCCEEDED"))
+                .body("phase", is("ARCHIVING_SERVICES"))
+                .body("rows_processed", is(1))
+                .body("started_date", is(notNullValue()))
+                .body("finished_date", is(notNullValue()))
+                .body("errors", is(empty()));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownJob() {
+        givenSetup().when()
+                .accept(JSON)
+                .get("v1/tasks/unknown-job-id")
+                .then()
+                .statusCode(404);
+    }
+
+    private void runExpungeAndArchiveJob() {
+        String jobId = givenSetup().when()
                 .contentType(JSON)
                 .accept(JSON)
                 .post("v1/tasks/expunge-and-archive-historical-data")
                 .then()
-                .statusCode(200);
+                .statusCode(202)
+                .extract().path("job_id");
 
-        Map<String, Object> serviceAttributes = databaseHelper.findServiceByExternalId(serviceWithoutCreatedDateOrTransactions.getExternalId()).get(0);
-        assertServiceNotArchived(serviceAttributes);
+        awaitJob(jobId);
+    }
 
-        serviceAttributes = databaseHelper.findServiceByExternalId(serviceWithoutCreatedDateAndSomeTransactions.getExternalId()).get(0);
-        assertServiceNotArchived(serviceAttributes);
+    private void awaitJob(String jobId) {
+        await().atMost(10, TimeUnit.SECONDS).until(() -> !List.of("QUEUED", "RUNNING").contains(
+                givenSetup().when().accept(JSON).get("v1/tasks/" + jobId).then().statusCode(200).extract().path("status")));
+        givenSetup().when()
+                .accept(JSON)
+                .get("v1/tasks/" + jobId)
+                .then()
+                .body("status", is("SUCCEEDED"));
     }
 
     private void assertServiceNotArchived(Map<String, Object> serviceAttributes) {
@@ -21,18 +21,15 @@ import uk.gov.pay.adminusers.client.ledger.model.LedgerSearchTransactionsRespons
 import uk.gov.pay.adminusers.client.ledger.model.LedgerTransaction;
 import uk.gov.pay.adminusers.client.ledger.service.LedgerService;
 import uk.gov.pay.adminusers.fixtures.ServiceEntityFixture;
-import uk.gov.pay.adminusers.model.Role;
-import uk.gov.pay.adminusers.model.RoleName;
+import uk.gov.pay.adminusers.persistence.dao.DeletedBatch;
 import uk.gov.pay.adminusers.persistence.dao.ForgottenPasswordDao;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
 import uk.gov.pay.adminusers.persistence.dao.ServiceRoleDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
 import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
-import uk.gov.pay.adminusers.persistence.entity.RoleEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
-import uk.gov.pay.adminusers.persistence.entity.ServiceRoleEntity;
-import uk.gov.pay.adminusers.queue.ConnectorTaskQueue;
+import uk.gov.pay.adminusers.queue.ConnectorTaskPublisher;
 import uk.gov.pay.adminusers.queue.model.ConnectorTask;
 import uk.gov.pay.adminusers.queue.model.ServiceArchivedTaskData;
 
@@ -41,7 +38,9 @@ import java.time.InstantSource;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static ch.qos.logback.classic.Level.INFO;
 import static java.time.ZoneOffset.UTC;
@@ -50,9 +49,16 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -61,7 +67,6 @@ import static org.mockito.Mockito.when;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 import static uk.gov.pay.adminusers.fixtures.LedgerSearchTransactionsResponseFixture.aLedgerSearchTransactionsResponseFixture;
 import static uk.gov.pay.adminusers.fixtures.LedgerTransactionFixture.aLedgerTransactionFixture;
-import static uk.gov.pay.adminusers.fixtures.UserEntityFixture.aUserEntity;
 
 @ExtendWith(MockitoExtension.class)
 class ExpungeAndArchiveHistoricalDataServiceTest {
@@ -93,7 +98,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
     ExpungeAndArchiveDataConfig mockExpungeAndArchiveConfig;
 
     @Mock
-    ConnectorTaskQueue mockConnectorTaskQueue;
+    ConnectorTaskPublisher mockConnectorTaskPublisher;
 
     @Mock
     private Appender<ILoggingEvent> mockAppender;
@@ -103,6 +108,8 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
 
     private final CollectorRegistry collectorRegistry = CollectorRegistry.defaultRegistry;
 
+    private static final DeletedBatch NOTHING_DELETED = new DeletedBatch(0, 0, false);
+
     String SYSTEM_INSTANT = "2022-03-03T10:15:30Z";
     InstantSource instantSource;
 
@@ -110,9 +117,12 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
     void setUp() {
         instantSource = InstantSource.fixed(Instant.parse(SYSTEM_INSTANT));
         when(mockAdminUsersConfig.getExpungeAndArchiveDataConfig()).thenReturn(mockExpungeAndArchiveConfig);
+        lenient().when(mockInviteDao.deleteInvites(any(), anyInt(), anyInt())).thenReturn(NOTHING_DELETED);
+        lenient().when(mockForgottenPasswordDao.deleteForgottenPasswords(any(), anyInt(), anyInt())).thenReturn(NOTHING_DELETED);
+        lenient().when(mockUserDao.deleteUsersNotAssociatedWithAnyService(any(), anyInt(), anyInt())).thenReturn(NOTHING_DELETED);
         expungeAndArchiveHistoricalDataService = new ExpungeAndArchiveHistoricalDataService(mockUserDao,
                 mockInviteDao, mockForgottenPasswordDao, mockServiceDao, mockServiceRoleDao, mockLedgerService,
-                mockAdminUsersConfig, mockConnectorTaskQueue, instantSource);
+                mockAdminUsersConfig, mockConnectorTaskPublisher, instantSource);
     }
 
     @Test
@@ -141,18 +151,54 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
         root.setLevel(INFO);
 
         when(mockExpungeAndArchiveConfig.isExpungeAndArchiveHistoricalDataEnabled()).thenReturn(true);
+        when(mockExpungeAndArchiveConfig.getDeleteBatchSize()).thenReturn(1000);
 
         expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
-        verify(mockUserDao).deleteUsersNotAssociatedWithAnyService(instantSource.instant());
-        verify(mockInviteDao).deleteInvites(instantSource.instant().atZone(UTC));
-        verify(mockForgottenPasswordDao).deleteForgottenPasswords(instantSource.instant().atZone(UTC));
+        verify(mockUserDao).deleteUsersNotAssociatedWithAnyService(instantSource.instant(), 0, 1000);
+        verify(mockInviteDao).deleteInvites(instantSource.instant().atZone(UTC), 0, 1000);
+        verify(mockForgottenPasswordDao).deleteForgottenPasswords(instantSource.instant().atZone(UTC), 0, 1000);
 
         verify(mockAppender).doAppend(loggingEventArgumentCaptor.capture());
         List<LoggingEvent> loggingEvents = loggingEventArgumentCaptor.getAllValues();
         assertThat(loggingEvents.get(0).getFormattedMessage(), is("Completed expunging and archiving historical data"));
     }
 
+    @Test
+    void shouldRecordPhaseAndRowsDeletedInJob() {
+        when(mockExpungeAndArchiveConfig.isExpungeAndArchiveHistoricalDataEnabled()).thenReturn(true);
+        when(mockInviteDao.deleteInvites(any(), anyInt(), anyInt())).thenReturn(new DeletedBatch(3, 30, false));
+        when(mockForgottenPasswordDao.deleteForgottenPasswords(any(), anyInt(), anyInt())).thenReturn(new DeletedBatch(2, 20, false));
+        when(mockUserDao.deleteUsersNotAssociatedWithAnyService(any(), anyInt(), anyInt())).thenReturn(new DeletedBatch(1, 10, false));
+        ExpungeAndArchiveJob job = new ExpungeAndArchiveJob(randomUuid(), instantSource);
+
+        expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData(job);
+
+        assertThat(job.getRowsProcessed(), is(6L));
+        assertThat(job.getPhase(), is(ExpungeAndArchiveJob.Phase.ARCHIVING_SERVICES));
+    }
+
+    @Test
+    void shouldDeleteInBatchesStartingEachAfterTheLastIdOfThePreviousBatch() {
+        when(mockExpungeAndArchiveConfig.isExpungeAndArchiveHistoricalDataEnabled()).thenReturn(true);
+        when(mockExpungeAndArchiveConfig.getDeleteBatchSize()).thenReturn(2);
+        ZonedDateTime deleteRecordsBeforeDate = instantSource.instant().atZone(UTC);
+        when(mockInviteDao.deleteInvites(deleteRecordsBeforeDate, 0, 2)).thenReturn(new DeletedBatch(2, 7, true));
+        when(mockInviteDao.deleteInvites(deleteRecordsBeforeDate, 7, 2)).thenReturn(new DeletedBatch(1, 12, true));
+        when(mockInviteDao.deleteInvites(deleteRecordsBeforeDate, 12, 2)).thenReturn(new DeletedBatch(1, 15, false));
+        Double initialInvitesDeleted = Optional.ofNullable(collectorRegistry.getSampleValue("expunge_and_archive_rows_deleted_total",
+                new String[]{"table"}, new String[]{"invites"})).orElse(0.0);
+        ExpungeAndArchiveJob job = new ExpungeAndArchiveJob(randomUuid(), instantSource);
+
+        expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData(job);
+
+        verify(mockInviteDao, times(3)).deleteInvites(eq(deleteRecordsBeforeDate), anyInt(), eq(2));
+        verify(mockExpungeAndArchiveConfig, times(2)).getPauseBetweenDeleteBatchesInMillis();
+        assertThat(job.getRowsProcessed(), is(4L));
+        assertThat(collectorRegistry.getSampleValue("expunge_and_archive_rows_deleted_total",
+                new String[]{"table"}, new String[]{"invites"}), is(initialInvitesDeleted + 4));
+    }
+
     @Test
     void shouldObserveJobDurationForMetrics() {
         Double initialDuration = Optional.ofNullable(collectorRegistry.getSampleValue("expunge_and_archive_historical_data_job_duration_seconds_sum")).orElse(0.0);
@@ -166,7 +212,6 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
     @Nested
     class TestArchivingServices {
 
-        RoleEntity adminRole = new RoleEntity(new Role(2, RoleName.ADMIN, "Administrator"));
         ServiceEntity serviceEntity;
         String gatewayAccountId1 = randomUuid();
         String gatewayAccountId2 = randomUuid();
@@ -179,6 +224,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
         void setUp() {
             when(mockExpungeAndArchiveConfig.isExpungeAndArchiveHistoricalDataEnabled()).thenReturn(true);
             when(mockExpungeAndArchiveConfig.getArchiveServicesAfterDays()).thenReturn(7);
+            when(mockExpungeAndArchiveConfig.getArchiveServicesBatchSize()).thenReturn(100);
 
             gatewayAccountIdEntity1 = new GatewayAccountIdEntity();
             gatewayAccountIdEntity1.setGatewayAccountId(gatewayAccountId1);
@@ -198,7 +244,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
         @Test
         void shouldSendEventToConnectorTasksQueueWhenServiceIsArchived() {
             shouldArchiveService_WhenTheLastTransactionDateIsBeforeTheServicesEligibleForArchivingDate();
-            verify(mockConnectorTaskQueue).addTaskToQueue(new ConnectorTask(new ServiceArchivedTaskData(serviceEntity.getExternalId()), "service_archived"));
+            verify(mockConnectorTaskPublisher).publish(new ConnectorTask(new ServiceArchivedTaskData(serviceEntity.getExternalId()), "service_archived"));
         }
 
         @Test
@@ -221,7 +267,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
 
             when(mockLedgerService.searchTransactions(gatewayAccountId1, 1)).thenReturn(searchTransactionsResponse1);
             when(mockLedgerService.searchTransactions(gatewayAccountId2, 1)).thenReturn(searchTransactionsResponse2);
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
@@ -245,7 +291,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
                     .withCreatedDate(systemDate.minusDays(8))
                     .withGatewayAccounts(List.of(gatewayAccountIdEntity1))
                     .build();
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
@@ -270,7 +316,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
                     .withFirstCheckedForArchivalDate(systemDate.minusDays(8))
                     .withGatewayAccounts(List.of(gatewayAccountIdEntity1))
                     .build();
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
@@ -296,17 +342,17 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
                     .build();
 
             when(mockLedgerService.searchTransactions(gatewayAccountId1, 1)).thenReturn(searchTransactionsResponse);
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
 
-            ServiceRoleEntity serviceRoleEntity = new ServiceRoleEntity(serviceEntity, adminRole);
-            serviceRoleEntity.setUser(aUserEntity().build());
-            when(mockServiceRoleDao.findServiceUserRoles(serviceEntity.getId())).thenReturn(List.of(serviceRoleEntity));
+            when(mockServiceRoleDao.removeAllUsersFromService(serviceEntity.getId())).thenReturn(List.of(randomUuid()));
+            Double initialDetachCount = Optional.ofNullable(collectorRegistry.getSampleValue("expunge_and_archive_detach_users_duration_seconds_count")).orElse(0.0);
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
             assertTrue(serviceEntity.isArchived());
             verify(mockServiceDao).merge(serviceEntity);
-            verify(mockServiceRoleDao).remove(serviceRoleEntity);
+            verify(mockServiceRoleDao).removeAllUsersFromService(serviceEntity.getId());
+            assertThat(collectorRegistry.getSampleValue("expunge_and_archive_detach_users_duration_seconds_count"), is(initialDetachCount + 1));
 
             verify(mockAppender, times(3)).doAppend(loggingEventArgumentCaptor.capture());
             List<LoggingEvent> loggingEvents = loggingEventArgumentCaptor.getAllValues();
@@ -331,7 +377,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
 
             when(mockLedgerService.searchTransactions(gatewayAccountId1, 1)).thenReturn(searchTransactionsResponse1);
             when(mockLedgerService.searchTransactions(gatewayAccountId2, 1)).thenReturn(searchTransactionsResponse2);
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
@@ -359,7 +405,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
                     .build();
 
             when(mockLedgerService.searchTransactions(gatewayAccountId1, 1)).thenReturn(searchTransactionsResponse);
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
@@ -383,7 +429,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
                     .build();
 
             when(mockLedgerService.searchTransactions(gatewayAccountId1, 1)).thenReturn(searchTransactionsResponse);
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
@@ -407,7 +453,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
                     .withCreatedDate(systemDate)
                     .withGatewayAccounts(List.of(gatewayAccountIdEntity1))
                     .build();
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
@@ -433,7 +479,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
                     .withFirstCheckedForArchivalDate(null)
                     .withGatewayAccounts(List.of(gatewayAccountIdEntity1))
                     .build();
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
@@ -444,6 +490,43 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
             verifyNoInteractions(mockServiceRoleDao);
         }
 
+        @Test
+        void shouldLimitConcurrentLedgerLookupsAndRecordProgress() {
+            when(mockExpungeAndArchiveConfig.getArchiveServicesBatchSize()).thenReturn(3);
+            when(mockExpungeAndArchiveConfig.getLedgerLookupConcurrency()).thenReturn(2);
+            Double initialServicesChecked = Optional.ofNullable(collectorRegistry.getSampleValue("expunge_and_archive_services_checked_total")).orElse(0.0);
+
+            List<ServiceEntity> services = IntStream.range(0, 5)
+                    .mapToObj(i -> {
+                        GatewayAccountIdEntity gatewayAccountIdEntity = new GatewayAccountIdEntity();
+                        gatewayAccountIdEntity.setGatewayAccountId(randomUuid());
+                        return ServiceEntityFixture.aServiceEntity()
+                                .withArchived(false)
+                                .withCreatedDate(systemDate.minusDays(10))
+                                .withGatewayAccounts(List.of(gatewayAccountIdEntity))
+                                .build();
+                    })
+                    .toList();
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(services);
+
+            AtomicInteger inFlightLookups = new AtomicInteger();
+            AtomicInteger maxInFlightLookups = new AtomicInteger();
+            when(mockLedgerService.searchTransactions(anyString(), eq(1))).thenAnswer(invocation -> {
+                maxInFlightLookups.accumulateAndGet(inFlightLookups.incrementAndGet(), Math::max);
+                Thread.sleep(50);
+                inFlightLookups.decrementAndGet();
+                return aLedgerSearchTransactionsResponseFixture().withTransactionList(List.of()).build();
+            });
+
+            expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
+
+            services.forEach(service -> assertTrue(service.isArchived()));
+            verify(mockLedgerService, times(5)).searchTransactions(anyString(), eq(1));
+            assertThat(maxInFlightLookups.get(), lessThanOrEqualTo(2));
+            assertThat(collectorRegistry.getSampleValue("expunge_and_archive_services_checked_total"), is(initialServicesChecked + 5));
+            assertThat(collectorRegistry.getSampleValue("expunge_and_archive_services_remaining_to_check"), is(0.0));
+        }
+
         @Test
         void shouldLogAndContinueArchivingServicesForLedgerErrors() {
             when(mockExpungeAndArchiveConfig.getArchiveServicesAfterDays()).thenReturn(7);
@@ -468,7 +551,7 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
                     .withFirstCheckedForArchivalDate(null)
                     .withGatewayAccounts(List.of(gatewayAccountIdEntity2))
                     .build();
-            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(List.of(serviceEntity, serviceEntityToArchive));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity, serviceEntityToArchive));
 
             expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData();
 
@@ -478,8 +561,59 @@ class ExpungeAndArchiveHistoricalDataServiceTest {
 
             assertTrue(serviceEntityToArchive.isArchived());
 
+            verify(mockServiceDao).countServicesToCheckForArchiving(systemDate.minusDays(7));
             verify(mockServiceDao).merge(serviceEntityToArchive);
             verifyNoMoreInteractions(mockServiceDao);
         }
+
+        @Test
+        void shouldRethrowTheCauseOfErrorsOtherThanLedgerErrors() {
+            when(mockExpungeAndArchiveConfig.getArchiveServicesAfterDays()).thenReturn(7);
+
+            when(mockLedgerService.searchTransactions(gatewayAccountId1, 1)).thenThrow(new IllegalStateException("Unexpected response"));
+            serviceEntity = ServiceEntityFixture
+                    .aServiceEntity()
+                    .withArchived(false)
+                    .withGatewayAccounts(List.of(gatewayAccountIdEntity1))
+                    .build();
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 100)).thenReturn(List.of(serviceEntity));
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData());
+
+            assertThat(exception.getMessage(), is("Unexpected response"));
+            assertFalse(serviceEntity.isArchived());
+        }
+
+        @Test
+        void shouldCheckServicesAPageAtATime_StartingEachPageAfterTheLastServiceChecked() {
+            when(mockExpungeAndArchiveConfig.getArchiveServicesBatchSize()).thenReturn(2);
+            when(mockLedgerService.searchTransactions(anyString(), eq(1)))
+                    .thenReturn(aLedgerSearchTransactionsResponseFixture().withTransactionList(List.of()).build());
+            when(mockServiceDao.countServicesToCheckForArchiving(systemDate.minusDays(7))).thenReturn(3L);
+
+            List<ServiceEntity> services = IntStream.of(5, 8, 13)
+                    .mapToObj(id -> {
+                        GatewayAccountIdEntity gatewayAccountIdEntity = new GatewayAccountIdEntity();
+                        gatewayAccountIdEntity.setGatewayAccountId(randomUuid());
+                        return ServiceEntityFixture.aServiceEntity()
+                                .withId(id)
+                                .withArchived(false)
+                                .withCreatedDate(systemDate.minusDays(10))
+                                .withGatewayAccounts(List.of(gatewayAccountIdEntity))
+                                .build();
+                    })
+                    .toList();
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 0, 2)).thenReturn(services.subList(0, 2));
+            when(mockServiceDao.findServicesToCheckForArchiving(systemDate.minusDays(7), 8, 2)).thenReturn(services.subList(2, 3));
+            ExpungeAndArchiveJob job = new ExpungeAndArchiveJob(randomUuid(), instantSource);
+
+            expungeAndArchiveHistoricalDataService.expungeAndArchiveHistoricalData(job);
+
+            services.forEach(service -> assertTrue(service.isArchived()));
+            verify(mockServiceDao, times(2)).findServicesToCheckForArchiving(eq(systemDate.minusDays(7)), anyInt(), eq(2));
+            assertThat(job.getRowsProcessed(), is(3L));
+            assertThat(collectorRegistry.getSampleValue("expunge_and_archive_services_remaining_to_check"), is(0.0));
+        }
     }
 }
@@ -0,0 +1,91 @@
+package uk.gov.pay.adminusers.expungeandarchive.service;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ExpungeAndArchiveJobRunnerTest {
+
+    private final InstantSource instantSource = InstantSource.fixed(Instant.parse("2022-03-03T10:15:30Z"));
+
+    @Mock
+    private ExpungeAndArchiveHistoricalDataService mockExpungeAndArchiveHistoricalDataService;
+
+    @Test
+    void shouldRunTheJobInTheBackgroundAndMakeItAvailableById() {
+        var runner = new ExpungeAndArchiveJobRunner(mockExpungeAndArchiveHistoricalDataService, instantSource,
+                MoreExecutors.newDirectExecutorService());
+
+        ExpungeAndArchiveJob job = runner.submit("correlation-id").orElseThrow();
+
+        verify(mockExpungeAndArchiveHistoricalDataService).expungeAndArchiveHistoricalData(job);
+        assertThat(job.getStatus(), is(ExpungeAndArchiveJob.Status.SUCCEEDED));
+        assertThat(runner.getJob(job.getJobId()).orElseThrow(), is(sameInstance(job)));
+        assertTrue(runner.getCurrentJob().isEmpty());
+    }
+
+    @Test
+    void shouldRecordTheErrorWhenTheJobFails() {
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(mockExpungeAndArchiveHistoricalDataService).expungeAndArchiveHistoricalData(any(ExpungeAndArchiveJob.class));
+        var runner = new ExpungeAndArchiveJobRunner(mockExpungeAndArchiveHistoricalDataService, instantSource,
+                MoreExecutors.newDirectExecutorService());
+
+        ExpungeAndArchiveJob job = runner.submit("correlation-id").orElseThrow();
+
+        assertThat(job.getStatus(), is(ExpungeAndArchiveJob.Status.FAILED));
+        assertThat(job.getErrors(), contains("java.lang.IllegalStateException: database unavailable"));
+    }
+
+    @Test
+    void shouldNotQueueAnotherJobWhileOneIsRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(mockExpungeAndArchiveHistoricalDataService).expungeAndArchiveHistoricalData(any(ExpungeAndArchiveJob.class));
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        var runner = new ExpungeAndArchiveJobRunner(mockExpungeAndArchiveHistoricalDataService, instantSource, executorService);
+
+        try {
+            ExpungeAndArchiveJob running = runner.submit("first").orElseThrow();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertTrue(runner.submit("second").isEmpty());
+            assertThat(runner.getCurrentJob().orElseThrow(), is(sameInstance(running)));
+            assertThat(running.getStatus(), is(ExpungeAndArchiveJob.Status.RUNNING));
+
+            release.countDown();
+            await().atMost(5, TimeUnit.SECONDS).until(running::isFinished);
+
+            assertThat(runner.submit("third").orElseThrow(), is(not(sameInstance(running))));
+        } finally {
+            release.countDown();
+            executorService.shutdownNow();
+        }
+    }
+}
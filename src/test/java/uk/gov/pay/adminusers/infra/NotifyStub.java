@@ -18,6 +18,10 @@ public class NotifyStub {
     }
 
     public void stubSendEmail() {
+        stubSendEmail(201);
+    }
+
+    public void stubSendEmail(int status) {
         
         String responseBody = (new GsonBuilder()).create().toJson(Map.of("id", "d2c1a8d1-b897-4013-b761-f2b442ebdc10",
                 "reference", "a-reference",
@@ -32,6 +36,26 @@ public class NotifyStub {
         
         wireMockServer.stubFor(
                 post(urlPathEqualTo("/v2/notifications/email"))
+                        .willReturn(aResponse()
+                                .withStatus(status)
+                                .withBody(responseBody))
+        );
+    }
+
+    public void stubSendSms() {
+
+        String responseBody = (new GsonBuilder()).create().toJson(Map.of("id", "4f4a2bb4-5ad1-4bdb-bc8d-a5ce8f2d7a2b",
+                "reference", "a-reference",
+                "content", Map.of(
+                        "body", "body"
+                ),
+                "template", Map.of(
+                        "id", "c1c4b3b2-6b4c-4ad6-9b3a-1c2c3e4f5a6b",
+                        "version", 1,
+                        "uri", "template-uri")));
+
+        wireMockServer.stubFor(
+                post(urlPathEqualTo("/v2/notifications/sms"))
                         .willReturn(aResponse()
                                 .withStatus(201)
                                 .withBody(responseBody))
@@ -1,9 +1,16 @@
 package uk.gov.pay.adminusers.persistence.dao;
 
+import com.google.inject.persist.UnitOfWork;
 import com.google.inject.persist.jpa.JpaPersistModule;
+import jakarta.persistence.EntityManagerFactory;
 import liquibase.Liquibase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.resource.ClassLoaderResourceAccessor;
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventManager;
 import org.jdbi.v3.core.Jdbi;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -16,7 +23,11 @@ import uk.gov.service.payments.commons.testing.db.PostgresDockerExtension;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Properties;
+import java.util.stream.Stream;
 
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomInt;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
@@ -70,6 +81,44 @@ public class DaoTestBase {
         env.stop();
     }
 
+    /**
+     * Runs {@code action} in a fresh unit of work and returns every SQL statement it issued, together with its bound
+     * parameters.
+     */
+    protected static List<DatabaseCall> recordStatements(Runnable action) {
+        List<DatabaseCall> statements = new ArrayList<>();
+        SessionEventAdapter statementRecorder = new SessionEventAdapter() {
+            @Override
+            public void postExecuteCall(SessionEvent event) {
+                if (event.getCall() instanceof DatabaseCall databaseCall) {
+                    statements.add(databaseCall);
+                }
+            }
+        };
+
+        SessionEventManager eventManager = JpaHelper.getServerSession(env.getInstance(EntityManagerFactory.class)).getEventManager();
+        UnitOfWork unitOfWork = env.getInstance(UnitOfWork.class);
+        eventManager.addListener(statementRecorder);
+        unitOfWork.begin();
+        try {
+            action.run();
+        } finally {
+            unitOfWork.end();
+            eventManager.removeListener(statementRecorder);
+        }
+        return statements;
+    }
+
+    /**
+     * Returns the parameters bound to {@code statement} in the order they appear in its SQL, with any collection bound
+     * to an {@code IN} list expanded into its values.
+     */
+    protected static List<Object> boundParameters(DatabaseCall statement) {
+        return statement.getParameters().stream()
+                .<Object>flatMap(parameter -> parameter instanceof Collection<?> values ? values.stream() : Stream.of(parameter))
+                .toList();
+    }
+
     protected Permission aPermission() {
         return permission(randomInt(), "permission-name-" + randomUuid(), "permission-description" + randomUuid());
     }
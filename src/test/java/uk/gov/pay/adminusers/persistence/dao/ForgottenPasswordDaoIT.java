@@ -159,7 +159,7 @@ class ForgottenPasswordDaoIT extends DaoTestBase {
                     .withCreatedAt(deleteRecordsUpToDate.minusDays(2))
                     .insert();
 
-            int noOfRecordsDeleted = forgottenPasswordDao.deleteForgottenPasswords(deleteRecordsUpToDate);
+            int noOfRecordsDeleted = forgottenPasswordDao.deleteForgottenPasswords(deleteRecordsUpToDate, 0, 100).rowsDeleted();
 
             assertThat(noOfRecordsDeleted, is(2));
 
@@ -186,7 +186,7 @@ class ForgottenPasswordDaoIT extends DaoTestBase {
                     .withCreatedAt(deleteRecordsUpToDate.plusDays(1))
                     .insert();
 
-            int noOfRecordsDeleted = forgottenPasswordDao.deleteForgottenPasswords(deleteRecordsUpToDate);
+            int noOfRecordsDeleted = forgottenPasswordDao.deleteForgottenPasswords(deleteRecordsUpToDate, 0, 100).rowsDeleted();
 
             assertThat(noOfRecordsDeleted, is(0));
 
@@ -14,16 +14,21 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static java.sql.Timestamp.from;
+import static java.time.ZoneOffset.UTC;
 import static java.time.ZonedDateTime.parse;
+import static java.util.stream.Collectors.toMap;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.apache.commons.lang3.RandomUtils.nextInt;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomInt;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 import static uk.gov.pay.adminusers.fixtures.InviteDbFixture.inviteDbFixture;
 import static uk.gov.pay.adminusers.fixtures.ServiceDbFixture.serviceDbFixture;
@@ -116,6 +121,53 @@ class InviteDaoIT extends DaoTestBase {
         assertThat(invites.size(), is(1));
     }
 
+    @Test
+    void findActiveByServiceIdWithUserExists_shouldOnlyFindActiveInvitesAndFlagExistingUsers() {
+        String serviceExternalId = randomUuid();
+        int serviceId = randomInt();
+        String existingUserEmail = randomUuid() + "@example.com";
+        userDbFixture(databaseHelper).withEmail(existingUserEmail).insertUser();
+
+        String newUserCode = inviteDbFixture(databaseHelper)
+                .withServiceId(serviceId)
+                .withServiceExternalId(serviceExternalId)
+                .insertInviteToAddUserToService(adminRoleEntity.toRole());
+        int senderId = inviteDao.findByCode(newUserCode).get().getSender().getId();
+        String existingUserCode = randomAlphanumeric(100);
+        ZonedDateTime now = ZonedDateTime.now(UTC);
+        databaseHelper.addInvite(nextInt(), senderId, serviceId, adminRoleEntity.getId(),
+                existingUserEmail.toUpperCase(), existingUserCode, "otp-key", now, now.plusDays(1), null, null, false, 0);
+        databaseHelper.addInvite(nextInt(), senderId, serviceId, adminRoleEntity.getId(),
+                randomUuid() + "@example.com", randomAlphanumeric(100), "otp-key", now, now.plusDays(1), null, null, true, 0);
+        databaseHelper.addInvite(nextInt(), senderId, serviceId, adminRoleEntity.getId(),
+                randomUuid() + "@example.com", randomAlphanumeric(100), "otp-key", now.minusDays(2), now.minusDays(1), null, null, false, 0);
+
+        List<InviteDao.InviteWithUserExists> invites = inviteDao.findActiveByServiceIdWithUserExists(serviceExternalId);
+
+        Map<String, Boolean> userExistsByCode = invites.stream()
+                .collect(toMap(invite -> invite.invite().getCode(), InviteDao.InviteWithUserExists::userExists));
+        assertThat(userExistsByCode, is(Map.of(newUserCode, false, existingUserCode, true)));
+    }
+
+    @Test
+    void findByCodeWithUserExists_shouldFindExpiredInviteAndFlagExistingUser() {
+        String email = randomUuid() + "@example.com";
+        userDbFixture(databaseHelper).withEmail(email).insertUser();
+        String code = inviteDbFixture(databaseHelper).withEmail(email).expired()
+                .insertInviteToAddUserToService(adminRoleEntity.toRole());
+
+        Optional<InviteDao.InviteWithUserExists> invite = inviteDao.findByCodeWithUserExists(code);
+
+        assertTrue(invite.isPresent());
+        assertTrue(invite.get().userExists());
+        assertTrue(invite.get().invite().isExpired());
+    }
+
+    @Test
+    void findByCodeWithUserExists_shouldReturnEmptyForUnknownCode() {
+        assertFalse(inviteDao.findByCodeWithUserExists("non-existent-code").isPresent());
+    }
+
     @Nested
     class TestDeleteInvites {
 
@@ -126,7 +178,7 @@ class InviteDaoIT extends DaoTestBase {
                     .withDate(deleteRecordsUpToDate.minusDays(1))
                     .insertInviteToAddUserToService(adminRoleEntity.toRole());
 
-            int noOfRecordsDeleted = inviteDao.deleteInvites(deleteRecordsUpToDate);
+            int noOfRecordsDeleted = inviteDao.deleteInvites(deleteRecordsUpToDate, 0, 100).rowsDeleted();
 
             assertThat(noOfRecordsDeleted, is(1));
 
@@ -144,7 +196,7 @@ class InviteDaoIT extends DaoTestBase {
                     .withDate(deleteRecordsUpToDate.plusDays(1))
                     .insertInviteToAddUserToService(adminRoleEntity.toRole());
 
-            int noOfRecordsDeleted = inviteDao.deleteInvites(deleteRecordsUpToDate);
+            int noOfRecordsDeleted = inviteDao.deleteInvites(deleteRecordsUpToDate, 0, 100).rowsDeleted();
             assertThat(noOfRecordsDeleted, is(0));
 
             Optional<InviteEntity> invite = inviteDao.findByCode(code1);
@@ -153,5 +205,28 @@ class InviteDaoIT extends DaoTestBase {
             invite = inviteDao.findByCode(code2);
             assertTrue(invite.isPresent());
         }
+
+        @Test
+        void shouldDeleteOneBatchOfInvitesAfterTheIdProvided() {
+            ZonedDateTime deleteRecordsUpToDate = parse("2020-01-01T00:00:00Z");
+            List<String> codes = IntStream.range(0, 3)
+                    .mapToObj(i -> inviteDbFixture(databaseHelper)
+                            .withDate(deleteRecordsUpToDate.minusDays(1))
+                            .insertInviteToAddUserToService(adminRoleEntity.toRole()))
+                    .toList();
+            List<Integer> ids = codes.stream().map(code -> inviteDao.findByCode(code).orElseThrow().getId()).toList();
+
+            DeletedBatch firstBatch = inviteDao.deleteInvites(deleteRecordsUpToDate, ids.get(0) - 1, 2);
+
+            assertThat(firstBatch, is(new DeletedBatch(2, ids.get(1), true)));
+            assertFalse(inviteDao.findByCode(codes.get(0)).isPresent());
+            assertFalse(inviteDao.findByCode(codes.get(1)).isPresent());
+            assertTrue(inviteDao.findByCode(codes.get(2)).isPresent());
+
+            DeletedBatch secondBatch = inviteDao.deleteInvites(deleteRecordsUpToDate, firstBatch.lastId(), 2);
+
+            assertThat(secondBatch, is(new DeletedBatch(1, ids.get(2), false)));
+            assertFalse(inviteDao.findByCode(codes.get(2)).isPresent());
+        }
     }
 }
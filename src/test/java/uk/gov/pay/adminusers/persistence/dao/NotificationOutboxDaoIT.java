@@ -0,0 +1,106 @@
+package uk.gov.pay.adminusers.persistence.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.adminusers.persistence.entity.NotificationOutboxEntity;
+import uk.gov.pay.adminusers.persistence.entity.NotificationOutboxEntity.NotificationType;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static uk.gov.pay.adminusers.persistence.entity.UTCDateTimeConverter.UTC;
+
+class NotificationOutboxDaoIT extends DaoTestBase {
+
+    private NotificationOutboxDao notificationOutboxDao;
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @BeforeEach
+    void before() {
+        notificationOutboxDao = env.getInstance(NotificationOutboxDao.class);
+        databaseHelper.execute("TRUNCATE TABLE notification_outbox");
+    }
+
+    @Test
+    void shouldPersistNotificationWithPersonalisation() {
+        NotificationOutboxEntity notification = enqueue(now.minusSeconds(1));
+
+        assertThat(notification.getId(), is(notNullValue()));
+        List<NotificationOutboxEntity> claimed = notificationOutboxDao.claimDue(now, now.plusSeconds(60), 10);
+        assertThat(claimed, hasSize(1));
+        assertThat(claimed.get(0).getNotificationType(), is(NotificationType.EMAIL));
+        assertThat(claimed.get(0).getPersonalisation(), is(Map.of("code", "https://example.com/reset")));
+    }
+
+    @Test
+    void claimDueShouldReturnOldestDueNotificationsAndHideThemUntilTheLeaseExpires() {
+        NotificationOutboxEntity older = enqueue(now.minusSeconds(20));
+        NotificationOutboxEntity newer = enqueue(now.minusSeconds(10));
+        enqueue(now.plusSeconds(10));
+
+        List<NotificationOutboxEntity> claimed = notificationOutboxDao.claimDue(now, now.plusSeconds(60), 10);
+
+        assertThat(claimed.stream().map(NotificationOutboxEntity::getId).toList(), contains(older.getId(), newer.getId()));
+        assertThat(notificationOutboxDao.claimDue(now, now.plusSeconds(60), 10), is(empty()));
+        assertThat(notificationOutboxDao.claimDue(now.plusSeconds(61), now.plusSeconds(120), 10), hasSize(3));
+    }
+
+    @Test
+    void claimDueShouldClaimNoMoreThanTheLimit() {
+        enqueue(now.minusSeconds(30));
+        enqueue(now.minusSeconds(20));
+        enqueue(now.minusSeconds(10));
+
+        assertThat(notificationOutboxDao.claimDue(now, now.plusSeconds(60), 2), hasSize(2));
+        assertThat(notificationOutboxDao.claimDue(now, now.plusSeconds(60), 2), hasSize(1));
+    }
+
+    @Test
+    void scheduleRetryShouldRecordTheAttemptAndDelayTheNextOne() {
+        NotificationOutboxEntity notification = enqueue(now.minusSeconds(10));
+
+        notificationOutboxDao.scheduleRetry(notification.getId(), 1, now.plusSeconds(30), "Status code: 500");
+
+        assertThat(notificationOutboxDao.claimDue(now, now.plusSeconds(60), 10), is(empty()));
+        List<NotificationOutboxEntity> claimed = notificationOutboxDao.claimDue(now.plusSeconds(30), now.plusSeconds(90), 10);
+        assertThat(claimed, hasSize(1));
+        assertThat(claimed.get(0).getAttempts(), is(1));
+        assertThat(claimed.get(0).getLastError(), is("Status code: 500"));
+    }
+
+    @Test
+    void getBacklogShouldCountNotificationsAndFindTheOldest() {
+        enqueue(now.minusSeconds(20));
+        enqueue(now.minusSeconds(10));
+
+        NotificationOutboxDao.Backlog backlog = notificationOutboxDao.getBacklog();
+
+        assertThat(backlog.size(), is(2L));
+        assertThat(backlog.oldestCreatedDate().orElseThrow(), is(now.minusSeconds(20)));
+    }
+
+    @Test
+    void deleteShouldRemoveNotification() {
+        NotificationOutboxEntity notification = enqueue(now.minusSeconds(10));
+
+        notificationOutboxDao.delete(notification.getId());
+
+        assertThat(notificationOutboxDao.getBacklog().size(), is(0L));
+    }
+
+    private NotificationOutboxEntity enqueue(Instant createdDate) {
+        var notification = new NotificationOutboxEntity(NotificationType.EMAIL, "template-id", "user@example.com",
+                Map.of("code", "https://example.com/reset"), null, ZonedDateTime.ofInstant(createdDate, UTC));
+        notificationOutboxDao.persist(notification);
+        return notification;
+    }
+}
@@ -0,0 +1,152 @@
+package uk.gov.pay.adminusers.persistence.dao;
+
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.adminusers.model.RoleName;
+import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
+import uk.gov.pay.adminusers.persistence.entity.UserEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+import static java.time.ZoneOffset.UTC;
+import static java.time.ZonedDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Runs each DAO query against a database seeded with enough rows for the planner to prefer an index whenever one
+ * can be used, then fails if the plan of any statement the query issued sequentially scans one of the large tables.
+ * Bulk deletes and queries that intentionally read every service are not covered.
+ */
+class QueryPlanIT extends DaoTestBase {
+
+    private static final int NUMBER_OF_ROWS = 20_000;
+    private static final int FIRST_ID = 1_000_000_000;
+    private static final int SEEDED_ID = FIRST_ID + NUMBER_OF_ROWS / 2;
+
+    private static final Set<String> LARGE_TABLES = Set.of("users", "services", "user_services_roles", "invites",
+            "service_gateway_accounts", "service_features", "service_names", "forgotten_passwords");
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    @BeforeAll
+    static void seedLargeDataset() {
+        String ids = format("generate_series(%d, %d) AS i", FIRST_ID, FIRST_ID + NUMBER_OF_ROWS - 1);
+        databaseHelper.execute("INSERT INTO services(id, external_id, merchant_name, experimental_features_enabled, created_date) " +
+                "SELECT i, 'service-' || i, 'Merchant ' || i, false, now() FROM " + ids);
+        databaseHelper.execute("INSERT INTO service_names(service_id, language, name) " +
+                "SELECT i, 'en', 'Service ' || i FROM " + ids);
+        databaseHelper.execute("INSERT INTO service_gateway_accounts(service_id, gateway_account_id) " +
+                "SELECT i, 'gateway-account-' || i FROM " + ids);
+        databaseHelper.execute("INSERT INTO service_features(service_id, feature) " +
+                "SELECT i, 'feature-' || (i % 10) FROM " + ids);
+        databaseHelper.execute("INSERT INTO users(id, external_id, password, email, otp_key, telephone_number, " +
+                "second_factor, disabled, login_counter, version, \"createdAt\", \"updatedAt\", session_version) " +
+                "SELECT i, 'user-' || i, 'password', 'user-' || i || '@example.com', 'otp-key', '+441134960000', " +
+                "'sms', false, 0, 0, now(), now(), 0 FROM " + ids);
+        databaseHelper.execute("INSERT INTO user_services_roles(user_id, service_id, role_id) " +
+                "SELECT i, i, (SELECT id FROM roles WHERE name = 'admin') FROM " + ids);
+        databaseHelper.execute(format("INSERT INTO user_services_roles(user_id, service_id, role_id) " +
+                "SELECT i, %d + (i - %d + 1) %% %d, (SELECT id FROM roles WHERE name = 'view-only') FROM %s",
+                FIRST_ID, FIRST_ID, NUMBER_OF_ROWS, ids));
+        databaseHelper.execute("INSERT INTO invites(id, sender_id, service_id, role_id, email, code, otp_key, date, expiry_date) " +
+                "SELECT i, i, i, (SELECT id FROM roles WHERE name = 'view-only'), 'invitee-' || i || '@example.com', " +
+                "'invite-' || i, 'otp-key', now(), now() + interval '1 day' FROM " + ids);
+        databaseHelper.execute("INSERT INTO forgotten_passwords(id, date, code, \"userId\", \"createdAt\") " +
+                "SELECT i, now(), 'forgotten-password-' || i, i, now() FROM " + ids);
+        databaseHelper.execute("ANALYZE");
+    }
+
+    @Test
+    void userDaoQueriesShouldNotSequentiallyScanLargeTables() {
+        UserDao userDao = env.getInstance(UserDao.class);
+
+        assertNoSequentialScans(() -> userDao.findByExternalId("user-" + SEEDED_ID).map(UserEntity::toUser));
+        assertNoSequentialScans(() -> userDao.findByExternalIds(List.of("user-" + SEEDED_ID, "user-" + (SEEDED_ID + 1)))
+                .forEach(UserEntity::toUser));
+        assertNoSequentialScans(() -> userDao.findByEmail("user-" + SEEDED_ID + "@example.com").map(UserEntity::toUser));
+        assertNoSequentialScans(() -> userDao.findByServiceId(SEEDED_ID));
+        assertNoSequentialScans(() -> userDao.findByServiceId(SEEDED_ID, RoleName.ADMIN));
+        assertNoSequentialScans(() -> userDao.findByServiceId(SEEDED_ID, null, "user-" + SEEDED_ID + "@example.com", 50));
+        assertNoSequentialScans(() -> userDao.findSummariesByServiceId(SEEDED_ID, RoleName.ADMIN, null, 50));
+        assertNoSequentialScans(() -> userDao.getAdminUserEmailsForGatewayAccountIds(List.of("gateway-account-" + SEEDED_ID)));
+    }
+
+    @Test
+    void serviceDaoQueriesShouldNotSequentiallyScanLargeTables() {
+        ServiceDao serviceDao = env.getInstance(ServiceDao.class);
+        Integer adminRoleId = env.getInstance(RoleDao.class).findByRoleName(RoleName.ADMIN).orElseThrow().getId();
+
+        assertNoSequentialScans(() -> serviceDao.listAfterId(SEEDED_ID, 10).forEach(ServiceEntity::toService));
+        assertNoSequentialScans(() -> serviceDao.findByExternalId("service-" + SEEDED_ID).map(ServiceEntity::toService));
+        assertNoSequentialScans(() -> serviceDao.findByGatewayAccountId("gateway-account-" + SEEDED_ID).map(ServiceEntity::toService));
+        assertNoSequentialScans(() -> serviceDao.countOfUsersWithRoleForService("service-" + SEEDED_ID, adminRoleId));
+        assertNoSequentialScans(() -> serviceDao.checkIfGatewayAccountsUsed(List.of("gateway-account-" + SEEDED_ID)));
+        assertNoSequentialScans(() -> serviceDao.findByENServiceName(String.valueOf(SEEDED_ID)));
+        assertNoSequentialScans(() -> serviceDao.findByServiceMerchantName(String.valueOf(SEEDED_ID)));
+        assertNoSequentialScans(() -> serviceDao.searchByNameOrMerchantName("Rivendell", "Rivendell", 20, 0));
+        assertNoSequentialScans(() -> serviceDao.findServicesToCheckForArchiving(now(UTC).minusYears(7), 0, 100));
+        assertNoSequentialScans(() -> serviceDao.countServicesToCheckForArchiving(now(UTC).minusYears(7)));
+    }
+
+    @Test
+    void serviceRoleDaoQueriesShouldNotSequentiallyScanLargeTables() {
+        ServiceRoleDao serviceRoleDao = env.getInstance(ServiceRoleDao.class);
+
+        assertNoSequentialScans(() -> serviceRoleDao.findServiceUserRoles(SEEDED_ID));
+    }
+
+    @Test
+    void inviteDaoQueriesShouldNotSequentiallyScanLargeTables() {
+        InviteDao inviteDao = env.getInstance(InviteDao.class);
+
+        assertNoSequentialScans(() -> inviteDao.findByCode("invite-" + SEEDED_ID));
+        assertNoSequentialScans(() -> inviteDao.findByEmail("invitee-" + SEEDED_ID + "@example.com"));
+        assertNoSequentialScans(() -> inviteDao.findAllByServiceId("service-" + SEEDED_ID));
+        assertNoSequentialScans(() -> inviteDao.findByCodeWithUserExists("invite-" + SEEDED_ID));
+        assertNoSequentialScans(() -> inviteDao.findActiveByServiceIdWithUserExists("service-" + SEEDED_ID));
+    }
+
+    @Test
+    void forgottenPasswordAndAgreementDaoQueriesShouldNotSequentiallyScanLargeTables() {
+        assertNoSequentialScans(() -> env.getInstance(ForgottenPasswordDao.class)
+                .findNonExpiredByCode("forgotten-password-" + SEEDED_ID));
+        assertNoSequentialScans(() -> env.getInstance(GovUkPayAgreementDao.class)
+                .findByExternalServiceId("service-" + SEEDED_ID));
+        assertNoSequentialScans(() -> env.getInstance(StripeAgreementDao.class)
+                .findByServiceExternalId("service-" + SEEDED_ID));
+    }
+
+    /**
+     * Runs {@code action} in a fresh unit of work and asserts none of the plans of the statements it issued
+     * sequentially scan a large table.
+     */
+    private void assertNoSequentialScans(Runnable action) {
+        List<DatabaseCall> statements = recordStatements(action);
+
+        assertThat(statements, is(not(empty())));
+        for (DatabaseCall statement : statements) {
+            String plan = databaseHelper.explain(statement.getSQLString(), boundParameters(statement));
+            assertThat(format("Sequential scan of a large table in the plan for [%s]:%n%s", statement.getSQLString(), plan),
+                    sequentiallyScannedLargeTables(plan), is(empty()));
+        }
+    }
+
+    private static List<String> sequentiallyScannedLargeTables(String plan) {
+        List<String> tables = new ArrayList<>();
+        Matcher matcher = SEQ_SCAN.matcher(plan);
+        while (matcher.find()) {
+            if (LARGE_TABLES.contains(matcher.group(1))) {
+                tables.add(matcher.group(1));
+            }
+        }
+        return tables;
+    }
+}
@@ -14,6 +14,7 @@ import uk.gov.pay.adminusers.model.PspTestAccountStage;
 import uk.gov.pay.adminusers.model.Role;
 import uk.gov.pay.adminusers.model.RoleName;
 import uk.gov.pay.adminusers.model.Service;
+import uk.gov.pay.adminusers.model.ServiceSearchResult;
 import uk.gov.pay.adminusers.model.User;
 import uk.gov.pay.adminusers.persistence.entity.CustomBrandingConverter;
 import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
@@ -24,6 +25,7 @@ import uk.gov.pay.adminusers.persistence.entity.service.ServiceNameEntity;
 import uk.gov.service.payments.commons.model.SupportedLanguage;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -40,8 +42,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -250,6 +254,46 @@ class ServiceDaoIT extends DaoTestBase {
         assertThat(shouldNotHaveServiceEntities, is((empty())));
     }
 
+    @Test
+    void shouldSearchByNameOrMerchantName_matchingPrefixesAndTypos_rankedByClosestMatch() {
+        var birth = ServiceEntityFixture.aServiceEntity()
+                .withCustomBranding(null)
+                .withServiceNameEntity(SupportedLanguage.ENGLISH, "register a birth")
+                .withServiceNameEntity(SupportedLanguage.WELSH, "cofrestru genedigaeth")
+                .withMerchantDetailsEntity(MerchantDetailsEntityBuilder.aMerchantDetailsEntity().withName("Royal Borough of Gondor").build())
+                .build();
+        var waste = ServiceEntityFixture.aServiceEntity()
+                .withCustomBranding(null)
+                .withServiceNameEntity(SupportedLanguage.ENGLISH, "bulky waste collection")
+                .withMerchantDetailsEntity(MerchantDetailsEntityBuilder.aMerchantDetailsEntity().withName("Royal Borough of Rivendell").build())
+                .build();
+        var parking = ServiceEntityFixture.aServiceEntity()
+                .withCustomBranding(null)
+                .withServiceNameEntity(SupportedLanguage.ENGLISH, "parking permits")
+                .withMerchantDetailsEntity(MerchantDetailsEntityBuilder.aMerchantDetailsEntity().withName("Shire Council").build())
+                .build();
+        databaseHelper.insertServiceEntity(birth);
+        databaseHelper.insertServiceEntity(waste);
+        databaseHelper.insertServiceEntity(parking);
+
+        var byPrefix = serviceDao.searchByNameOrMerchantName("birt", null, 10, 0);
+        assertThat(byPrefix.stream().map(ServiceSearchResult::externalId).toList(), contains(birth.getExternalId()));
+        assertThat(byPrefix.get(0).serviceName(), is(Map.of("en", "register a birth", "cy", "cofrestru genedigaeth")));
+        assertThat(byPrefix.get(0).merchantName(), is("Royal Borough of Gondor"));
+
+        var byTypo = serviceDao.searchByNameOrMerchantName("parkng", "", 10, 0);
+        assertThat(byTypo.stream().map(ServiceSearchResult::externalId).toList(), contains(parking.getExternalId()));
+        assertThat(byTypo.get(0).serviceName(), is(Map.of("en", "parking permits")));
+
+        var ranked = serviceDao.searchByNameOrMerchantName("birth", "rivendel", 10, 0);
+        assertThat(ranked.stream().map(ServiceSearchResult::externalId).toList(), contains(birth.getExternalId(), waste.getExternalId()));
+
+        var secondPage = serviceDao.searchByNameOrMerchantName("birth", "rivendel", 1, 1);
+        assertThat(secondPage.stream().map(ServiceSearchResult::externalId).toList(), contains(waste.getExternalId()));
+
+        assertThat(serviceDao.searchByNameOrMerchantName("mordor", "mordor", 10, 0), is(empty()));
+    }
+
     @Test
     void shouldReturnServiceValuesFromDatabase() {
         ServiceEntity insertedServiceEntity = ServiceEntityFixture.aServiceEntity()
@@ -310,6 +354,47 @@ class ServiceDaoIT extends DaoTestBase {
         assertServiceEntity(insertedServiceEntity, foundServiceEntity);
     }
 
+    @Test
+    void shouldListServicesAfterIdInIdOrder() {
+        List<Integer> serviceIds = range(0, 5)
+                .mapToObj(i -> serviceDbFixture(databaseHelper).insertService().getId())
+                .sorted()
+                .toList();
+
+        List<ServiceEntity> page = serviceDao.listAfterId(serviceIds.get(1), 2);
+
+        assertThat(page.stream().map(ServiceEntity::getId).toList(), contains(serviceIds.get(2), serviceIds.get(3)));
+    }
+
+    @Test
+    void shouldVisitEveryServiceInIdOrder() {
+        List<Integer> serviceIds = range(0, 5)
+                .mapToObj(i -> serviceDbFixture(databaseHelper).withGatewayAccountIds(randomUuid()).insertService().getId())
+                .sorted()
+                .toList();
+
+        List<Integer> visitedServiceIds = new ArrayList<>();
+        serviceDao.forEachService(0, Integer.MAX_VALUE, 2, serviceEntity -> {
+            assertThat(serviceEntity.getGatewayAccountIds().size(), is(1));
+            visitedServiceIds.add(serviceEntity.getId());
+        });
+
+        assertThat(visitedServiceIds, is(serviceIds));
+    }
+
+    @Test
+    void shouldVisitUpToLimitServicesAfterIdInIdOrder() {
+        List<Integer> serviceIds = range(0, 5)
+                .mapToObj(i -> serviceDbFixture(databaseHelper).insertService().getId())
+                .sorted()
+                .toList();
+
+        List<Integer> visitedServiceIds = new ArrayList<>();
+        serviceDao.forEachService(serviceIds.get(1), 2, 1, serviceEntity -> visitedServiceIds.add(serviceEntity.getId()));
+
+        assertThat(visitedServiceIds, contains(serviceIds.get(2), serviceIds.get(3)));
+    }
+
     @Test
     void shouldGetRoleCountForAService() {
         String serviceExternalId = randomUuid();
@@ -383,7 +468,7 @@ class ServiceDaoIT extends DaoTestBase {
 
             databaseHelper.insertServiceEntity(insertedServiceEntity);
 
-            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate);
+            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, 0, 100);
             assertThat(services.size(), is(1));
             assertThat(services.get(0).getExternalId(), is(insertedServiceEntity.getExternalId()));
         }
@@ -399,7 +484,7 @@ class ServiceDaoIT extends DaoTestBase {
 
             databaseHelper.insertServiceEntity(insertedServiceEntity);
 
-            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate);
+            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, 0, 100);
             assertThat(services.size(), is(1));
             assertThat(services.get(0).getExternalId(), is(insertedServiceEntity.getExternalId()));
         }
@@ -414,7 +499,7 @@ class ServiceDaoIT extends DaoTestBase {
 
             databaseHelper.insertServiceEntity(insertedServiceEntity);
 
-            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate);
+            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, 0, 100);
             assertThat(services.size(), is(1));
             assertThat(services.get(0).getExternalId(), is(insertedServiceEntity.getExternalId()));
         }
@@ -430,7 +515,7 @@ class ServiceDaoIT extends DaoTestBase {
 
             databaseHelper.insertServiceEntity(insertedServiceEntity);
 
-            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate);
+            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, 0, 100);
             assertThat(services.size(), is(1));
             assertThat(services.get(0).getExternalId(), is(insertedServiceEntity.getExternalId()));
         }
@@ -450,7 +535,7 @@ class ServiceDaoIT extends DaoTestBase {
             databaseHelper.insertServiceEntity(insertedServiceEntity1);
             databaseHelper.insertServiceEntity(insertedServiceEntity2);
 
-            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate);
+            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, 0, 100);
             assertThat(services.size(), is(0));
         }
 
@@ -465,7 +550,7 @@ class ServiceDaoIT extends DaoTestBase {
 
             databaseHelper.insertServiceEntity(insertedServiceEntity);
 
-            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate);
+            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, 0, 100);
             assertThat(services.size(), is(0));
         }
 
@@ -480,7 +565,7 @@ class ServiceDaoIT extends DaoTestBase {
 
             databaseHelper.insertServiceEntity(insertedServiceEntity);
 
-            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate);
+            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, 0, 100);
             assertThat(services.size(), is(0));
         }
 
@@ -496,9 +581,31 @@ class ServiceDaoIT extends DaoTestBase {
 
             databaseHelper.insertServiceEntity(insertedServiceEntity);
 
-            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate);
+            List<ServiceEntity> services = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, 0, 100);
             assertThat(services.size(), is(0));
         }
+
+        @Test
+        void shouldReturnAPageOfServicesInIdOrder_StartingAfterTheIdProvided() {
+            ZonedDateTime archiveServicesBeforeDate = parse("2022-01-01T00:00:00Z");
+            List<ServiceEntity> insertedServiceEntities = range(0, 3)
+                    .mapToObj(_ -> ServiceEntityFixture
+                            .aServiceEntity()
+                            .withCreatedDate(archiveServicesBeforeDate.minusDays(1))
+                            .build())
+                    .toList();
+            insertedServiceEntities.forEach(databaseHelper::insertServiceEntity);
+
+            assertThat(serviceDao.countServicesToCheckForArchiving(archiveServicesBeforeDate), is(3L));
+
+            List<ServiceEntity> firstPage = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, 0, 2);
+            assertThat(firstPage.size(), is(2));
+            assertThat(firstPage.get(0).getId(), is(lessThan(firstPage.get(1).getId())));
+
+            List<ServiceEntity> secondPage = serviceDao.findServicesToCheckForArchiving(archiveServicesBeforeDate, firstPage.get(1).getId(), 2);
+            assertThat(secondPage.size(), is(1));
+            assertThat(secondPage.get(0).getId(), is(greaterThan(firstPage.get(1).getId())));
+        }
     }
 
     private void setupUsersForServiceAndRole(String externalId, Role role, int noOfUsers) {
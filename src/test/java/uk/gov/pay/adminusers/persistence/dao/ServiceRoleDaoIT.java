@@ -80,4 +80,24 @@ class ServiceRoleDaoIT extends DaoTestBase {
         assertThat(serviceUserRoles.stream().map(serviceRoleEntity -> serviceRoleEntity.getUser().getExternalId()).collect(Collectors.toList()),
                 containsInAnyOrder(user.getExternalId(), user2.getExternalId()));
     }
+
+    @Test
+    void removeAllUsersFromService_ShouldRemoveEveryUserOfTheServiceOnlyAndReturnTheirExternalIds() {
+        Service serviceToArchive = ServiceDbFixture.serviceDbFixture(databaseHelper).insertService();
+        Service otherService = ServiceDbFixture.serviceDbFixture(databaseHelper).insertService();
+
+        User user = UserDbFixture.userDbFixture(databaseHelper)
+                .withServiceRole(serviceToArchive, adminRole)
+                .withServiceRole(otherService, adminRole)
+                .insertUser();
+        User user2 = UserDbFixture.userDbFixture(databaseHelper)
+                .withServiceRole(serviceToArchive, adminRole)
+                .insertUser();
+
+        List<String> removedUserExternalIds = serviceRoleDao.removeAllUsersFromService(serviceToArchive.getId());
+
+        assertThat(removedUserExternalIds, containsInAnyOrder(user.getExternalId(), user2.getExternalId()));
+        assertThat(serviceRoleDao.findServiceUserRoles(serviceToArchive.getId()).size(), is(0));
+        assertThat(databaseHelper.findServiceRoleForUser(user.getId()).size(), is(1));
+    }
 }
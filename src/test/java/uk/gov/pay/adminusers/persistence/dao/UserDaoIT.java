@@ -1,12 +1,15 @@
 package uk.gov.pay.adminusers.persistence.dao;
 
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import uk.gov.pay.adminusers.fixtures.UserDbFixture;
 import uk.gov.pay.adminusers.model.Role;
 import uk.gov.pay.adminusers.model.RoleName;
 import uk.gov.pay.adminusers.model.SecondFactorMethod;
 import uk.gov.pay.adminusers.model.Service;
+import uk.gov.pay.adminusers.model.ServiceUserSummary;
 import uk.gov.pay.adminusers.model.User;
 import uk.gov.pay.adminusers.persistence.entity.RoleEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
@@ -15,12 +18,15 @@ import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.lang.String.valueOf;
 import static java.time.ZonedDateTime.parse;
@@ -28,11 +34,15 @@ import static java.time.temporal.ChronoUnit.MICROS;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.apache.commons.lang3.RandomUtils.nextInt;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.emptyOrNullString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.notNullValue;
@@ -45,6 +55,8 @@ import static uk.gov.pay.adminusers.fixtures.UserDbFixture.userDbFixture;
 
 public class UserDaoIT extends DaoTestBase {
 
+    private static final int MAX_STATEMENTS_TO_LOAD_USER_AGGREGATE = 8;
+
     private UserDao userDao;
     private ServiceDao serviceDao;
     private RoleDao roleDao;
@@ -67,6 +79,26 @@ public class UserDaoIT extends DaoTestBase {
         assertThat(map.isEmpty(), is(true));
     }
 
+    @Test
+    void getAdminUserEmailsForGatewayAccountIds_should_query_large_lists_of_ids_in_chunks() {
+        String gatewayAccount1 = randomUuid();
+        String gatewayAccount2 = randomUuid();
+        Service service1 = serviceDbFixture(databaseHelper).withGatewayAccountIds(gatewayAccount1).insertService();
+        Service service2 = serviceDbFixture(databaseHelper).withGatewayAccountIds(gatewayAccount2).insertService();
+        User admin1 = userDbFixture(databaseHelper).withServiceRole(service1, adminRole).insertUser();
+        User admin2 = userDbFixture(databaseHelper).withServiceRole(service2, adminRole).insertUser();
+
+        List<String> gatewayAccountIds = new ArrayList<>();
+        gatewayAccountIds.add(gatewayAccount1);
+        IntStream.range(0, 12_000).mapToObj(i -> "unknown-" + i).forEach(gatewayAccountIds::add);
+        gatewayAccountIds.add(gatewayAccount2);
+        gatewayAccountIds.add(gatewayAccount1);
+
+        Map<String, List<String>> adminEmails = userDao.getAdminUserEmailsForGatewayAccountIds(gatewayAccountIds);
+
+        assertThat(adminEmails, is(Map.of(gatewayAccount1, List.of(admin1.getEmail()), gatewayAccount2, List.of(admin2.getEmail()))));
+    }
+
     @Test
     public void shouldCreateAUserSuccessfully() {
         String gatewayAccountId = randomInt().toString();
@@ -322,6 +354,95 @@ public class UserDaoIT extends DaoTestBase {
         assertThat(users.get(1).getId(), is(user1.getId()));
     }
 
+    @Test
+    public void shouldFindPagesOfUserSummaries_ByServiceId_OrderedByEmail() {
+        int serviceId = serviceDbFixture(databaseHelper).insertService().getId();
+        List<User> users = Stream.of("carol", "alice", "bob")
+                .map(name -> userDbFixture(databaseHelper)
+                        .withEmail(name + randomUuid() + "@example.com")
+                        .withServiceRole(serviceId, adminRole).insertUser())
+                .toList();
+
+        List<ServiceUserSummary> firstPage = userDao.findSummariesByServiceId(serviceId, RoleName.ADMIN, null, 2);
+        List<ServiceUserSummary> secondPage = userDao.findSummariesByServiceId(serviceId, RoleName.ADMIN,
+                firstPage.get(1).email(), 2);
+
+        assertThat(firstPage.stream().map(ServiceUserSummary::externalId).toList(),
+                contains(users.get(1).getExternalId(), users.get(2).getExternalId()));
+        assertThat(firstPage.get(0).role(), is(RoleName.ADMIN));
+        assertThat(firstPage.get(0).disabled(), is(false));
+        assertThat(secondPage.stream().map(ServiceUserSummary::externalId).toList(), contains(users.get(0).getExternalId()));
+        assertThat(userDao.findSummariesByServiceId(serviceId, RoleName.VIEW_ONLY, null, 2), is(List.of()));
+    }
+
+    @Test
+    public void shouldFindUserByExternalIdIgnoringCase() {
+        String externalId = randomUuid();
+        userDbFixture(databaseHelper).withExternalId(externalId).insertUser();
+
+        Optional<UserEntity> userEntity = userDao.findByExternalId(externalId.toUpperCase(Locale.ENGLISH));
+
+        assertTrue(userEntity.isPresent());
+        assertThat(userEntity.get().getExternalId(), is(externalId));
+    }
+
+    @Test
+    public void shouldUseLowerCaseExternalIdIndexWhenFindingByExternalId() {
+        List<DatabaseCall> statements = recordStatements(() -> userDao.findByExternalId("ABC123"));
+
+        assertThat(statements, is(not(empty())));
+        assertThat(explainWithoutSeqScan(statements.get(0)), containsString("lower_case_external_id_index"));
+    }
+
+    @Test
+    public void shouldUseLowerCaseExternalIdIndexWhenFindingByExternalIds() {
+        List<DatabaseCall> statements = recordStatements(() -> userDao.findByExternalIds(List.of("ABC123", "DEF456")));
+
+        assertThat(statements, is(not(empty())));
+        assertThat(explainWithoutSeqScan(statements.get(0)), containsString("lower_case_external_id_index"));
+    }
+
+    @Test
+    public void shouldLoadUserWithManyServicesInAFixedNumberOfStatements() {
+        User user = insertUserWithServices(20);
+
+        int statements = countStatements(() -> userDao.findByExternalId(user.getExternalId()).orElseThrow().toUser());
+
+        assertThat(statements, is(greaterThan(0)));
+        assertThat(statements, is(lessThanOrEqualTo(MAX_STATEMENTS_TO_LOAD_USER_AGGREGATE)));
+    }
+
+    @Test
+    public void shouldLoadMultipleUsersWithManyServicesInAFixedNumberOfStatements() {
+        List<String> externalIds = List.of(insertUserWithServices(10).getExternalId(), insertUserWithServices(15).getExternalId());
+
+        int statements = countStatements(() -> userDao.findByExternalIds(externalIds).forEach(UserEntity::toUser));
+
+        assertThat(statements, is(greaterThan(0)));
+        assertThat(statements, is(lessThanOrEqualTo(MAX_STATEMENTS_TO_LOAD_USER_AGGREGATE)));
+    }
+
+    private User insertUserWithServices(int numberOfServices) {
+        UserDbFixture user = userDbFixture(databaseHelper);
+        for (int i = 0; i < numberOfServices; i++) {
+            Service service = serviceDbFixture(databaseHelper).withGatewayAccountIds(randomUuid()).insertService();
+            user.withServiceRole(service, i % 2 == 0 ? adminRole : viewOnlyRole);
+        }
+        return user.insertUser();
+    }
+
+    /**
+     * Counts the SQL statements run by {@code action} in a fresh unit of work, so nothing is served from a previous
+     * persistence context.
+     */
+    private int countStatements(Runnable action) {
+        return recordStatements(action).size();
+    }
+
+    private String explainWithoutSeqScan(DatabaseCall statement) {
+        return databaseHelper.explainWithoutSeqScan(statement.getSQLString(), boundParameters(statement));
+    }
+
     @Test
     public void shouldNotFindAnyUser() {
         int serviceId = serviceDbFixture(databaseHelper).insertService().getId();
@@ -380,7 +501,7 @@ public class UserDaoIT extends DaoTestBase {
                     .insertUser()
                     .getId();
 
-            int recordsDeleted = userDao.deleteUsersNotAssociatedWithAnyService(deleteUsersUpToDate.toInstant());
+            int recordsDeleted = userDao.deleteUsersNotAssociatedWithAnyService(deleteUsersUpToDate.toInstant(), 0, 100).rowsDeleted();
 
             assertThat(recordsDeleted, is(1));
 
@@ -405,7 +526,7 @@ public class UserDaoIT extends DaoTestBase {
                     .insertUser()
                     .getId();
 
-            int recordsDeleted = userDao.deleteUsersNotAssociatedWithAnyService(deleteUsersUpToDate.toInstant());
+            int recordsDeleted = userDao.deleteUsersNotAssociatedWithAnyService(deleteUsersUpToDate.toInstant(), 0, 100).rowsDeleted();
 
             assertThat(recordsDeleted, is(1));
 
@@ -429,7 +550,7 @@ public class UserDaoIT extends DaoTestBase {
                     .insertUser()
                     .getExternalId();
 
-            int recordsDeleted = userDao.deleteUsersNotAssociatedWithAnyService(deleteUsersUpToDate.toInstant());
+            int recordsDeleted = userDao.deleteUsersNotAssociatedWithAnyService(deleteUsersUpToDate.toInstant(), 0, 100).rowsDeleted();
 
             assertThat(recordsDeleted, is(0));
 
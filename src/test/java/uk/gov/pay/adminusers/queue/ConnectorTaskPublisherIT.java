@@ -0,0 +1,100 @@
+package uk.gov.pay.adminusers.queue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.PurgeQueueRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import uk.gov.pay.adminusers.app.config.ConnectorTaskQueueConfig;
+import uk.gov.pay.adminusers.infra.SqsTestDocker;
+import uk.gov.pay.adminusers.queue.model.ConnectorTask;
+import uk.gov.pay.adminusers.queue.model.ServiceArchivedTaskData;
+
+import java.time.InstantSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+class ConnectorTaskPublisherIT {
+
+    private static final String QUEUE_NAME = "connector-task-publisher-queue";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private SqsClient sqsClient;
+    private ConnectorTaskPublisher connectorTaskPublisher;
+
+    @BeforeEach
+    void setUp() {
+        sqsClient = SqsTestDocker.initialise(List.of(QUEUE_NAME));
+        sqsClient.purgeQueue(PurgeQueueRequest.builder().queueUrl(SqsTestDocker.getQueueUrl(QUEUE_NAME)).build());
+
+        connectorTaskPublisher = new ConnectorTaskPublisher(sqsClient, objectMapper, SqsTestDocker.getQueueUrl(QUEUE_NAME),
+                new ConnectorTaskQueueConfig(), InstantSource.system(), Executors.newSingleThreadScheduledExecutor(),
+                metricRegistry);
+        connectorTaskPublisher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectorTaskPublisher.stop();
+    }
+
+    @Test
+    void shouldSendEveryPublishedTaskToTheQueueInBatches() throws Exception {
+        List<String> expectedMessages = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ConnectorTask task = new ConnectorTask(new ServiceArchivedTaskData("service-" + i), "service_archived");
+            expectedMessages.add(objectMapper.writeValueAsString(task));
+            connectorTaskPublisher.publish(task);
+        }
+
+        List<String> receivedMessages = new ArrayList<>();
+        await().atMost(10, TimeUnit.SECONDS).until(() -> {
+            receivedMessages.addAll(receiveMessages());
+            return receivedMessages.size() >= expectedMessages.size();
+        });
+
+        assertThat(receivedMessages, containsInAnyOrder(expectedMessages.toArray()));
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(metricRegistry.meter("connector-task-publisher.sent").getCount(), is(25L)));
+        assertThat(metricRegistry.histogram("connector-task-publisher.batch_size").getSnapshot().getMax(), is(10L));
+    }
+
+    @Test
+    void shouldSendAPartialBatchOnceTheMaxBatchDelayHasPassed() {
+        IntStream.range(0, 3).forEach(i -> connectorTaskPublisher.publish(
+                new ConnectorTask(new ServiceArchivedTaskData("service-" + i), "service_archived")));
+
+        List<String> receivedMessages = new ArrayList<>();
+        await().atMost(10, TimeUnit.SECONDS).until(() -> {
+            receivedMessages.addAll(receiveMessages());
+            return receivedMessages.size() >= 3;
+        });
+
+        assertThat(receivedMessages, hasSize(3));
+    }
+
+    private List<String> receiveMessages() {
+        return sqsClient.receiveMessage(ReceiveMessageRequest.builder()
+                        .queueUrl(SqsTestDocker.getQueueUrl(QUEUE_NAME))
+                        .maxNumberOfMessages(10)
+                        .build())
+                .messages()
+                .stream()
+                .map(Message::body)
+                .toList();
+    }
+}
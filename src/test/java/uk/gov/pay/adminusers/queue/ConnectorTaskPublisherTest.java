@@ -0,0 +1,208 @@
+package uk.gov.pay.adminusers.queue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import uk.gov.pay.adminusers.app.config.ConnectorTaskQueueConfig;
+import uk.gov.pay.adminusers.queue.model.ConnectorTask;
+import uk.gov.pay.adminusers.queue.model.ServiceArchivedTaskData;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectorTaskPublisherTest {
+
+    private static final String QUEUE_URL = "http://connector-task-queue-url";
+
+    @Mock
+    private SqsClient sqsClient;
+
+    @Mock
+    private ScheduledExecutorService scheduledExecutorService;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private Instant now = Instant.parse("2022-03-03T10:15:30Z");
+    private ConnectorTaskPublisher connectorTaskPublisher;
+
+    @BeforeEach
+    void setUp() {
+        connectorTaskPublisher = new ConnectorTaskPublisher(sqsClient, new ObjectMapper(), QUEUE_URL,
+                new ConnectorTaskQueueConfig(), () -> now, scheduledExecutorService, metricRegistry);
+    }
+
+    @Test
+    void shouldSendValidSerialisedServiceArchivedMessageToQueue() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(successfulResponse(1));
+
+        connectorTaskPublisher.publish(serviceArchivedTask("serviceId"));
+        connectorTaskPublisher.flush();
+
+        ArgumentCaptor<SendMessageBatchRequest> requestCaptor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(requestCaptor.capture());
+        assertThat(requestCaptor.getValue().queueUrl(), is(QUEUE_URL));
+        assertThat(requestCaptor.getValue().entries().stream().map(SendMessageBatchRequestEntry::messageBody).toList(),
+                contains("{\"data\":\"{\\\"service_external_id\\\":\\\"serviceId\\\"}\",\"task\":\"service_archived\"}"));
+        assertThat(metricRegistry.meter("connector-task-publisher.sent").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldNotSendAnythingUntilTheBatchIsFullOrItIsFlushed() {
+        for (int i = 0; i < 9; i++) {
+            connectorTaskPublisher.publish(serviceArchivedTask("service-" + i));
+        }
+
+        verifyNoInteractions(sqsClient);
+        verify(scheduledExecutorService, never()).execute(any(Runnable.class));
+
+        connectorTaskPublisher.publish(serviceArchivedTask("service-9"));
+
+        verify(scheduledExecutorService).execute(any(Runnable.class));
+    }
+
+    @Test
+    void shouldSendBufferedTasksInBatchesOfBatchSize() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(successfulResponse(10), successfulResponse(10), successfulResponse(5));
+        for (int i = 0; i < 25; i++) {
+            connectorTaskPublisher.publish(serviceArchivedTask("service-" + i));
+        }
+
+        connectorTaskPublisher.flush();
+
+        ArgumentCaptor<SendMessageBatchRequest> requestCaptor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient, times(3)).sendMessageBatch(requestCaptor.capture());
+        assertThat(requestCaptor.getAllValues().stream().map(request -> request.entries().size()).toList(), contains(10, 10, 5));
+        assertThat(metricRegistry.histogram("connector-task-publisher.batch_size").getCount(), is(3L));
+        assertThat(metricRegistry.timer("connector-task-publisher.flush_latency").getCount(), is(3L));
+        assertThat(metricRegistry.meter("connector-task-publisher.sent").getCount(), is(25L));
+    }
+
+    @Test
+    void shouldRetryOnlyTheTasksSqsFailedToAcceptOnceTheirRetryIsDue() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(SendMessageBatchResponse.builder()
+                        .successful(successfulEntry("0"))
+                        .failed(failedEntry("1", false), failedEntry("2", true))
+                        .build())
+                .thenReturn(successfulResponse(1));
+        connectorTaskPublisher.publish(serviceArchivedTask("service-0"));
+        connectorTaskPublisher.publish(serviceArchivedTask("service-1"));
+        connectorTaskPublisher.publish(serviceArchivedTask("service-2"));
+
+        connectorTaskPublisher.flush();
+        connectorTaskPublisher.flush();
+        verify(sqsClient, times(1)).sendMessageBatch(any(SendMessageBatchRequest.class));
+
+        now = now.plusSeconds(1);
+        connectorTaskPublisher.flush();
+
+        ArgumentCaptor<SendMessageBatchRequest> requestCaptor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient, times(2)).sendMessageBatch(requestCaptor.capture());
+        assertThat(requestCaptor.getAllValues().get(1).entries().get(0).messageBody(),
+                is(requestCaptor.getAllValues().get(0).entries().get(1).messageBody()));
+        assertThat(metricRegistry.meter("connector-task-publisher.sent").getCount(), is(2L));
+        assertThat(metricRegistry.meter("connector-task-publisher.retried").getCount(), is(1L));
+        assertThat(metricRegistry.meter("connector-task-publisher.abandoned").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldAbandonTasksAfterMaxSendAttempts() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenThrow(SdkClientException.create("Unable to reach SQS"));
+        connectorTaskPublisher.publish(serviceArchivedTask("serviceId"));
+
+        for (int i = 0; i < 12; i++) {
+            connectorTaskPublisher.flush();
+            now = now.plus(Duration.ofMinutes(1));
+        }
+
+        verify(sqsClient, times(10)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        assertThat(metricRegistry.meter("connector-task-publisher.retried").getCount(), is(9L));
+        assertThat(metricRegistry.meter("connector-task-publisher.abandoned").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldDoubleTheRetryDelayUpToTheMaximum() {
+        assertThat(connectorTaskPublisher.retryDelay(1), is(Duration.ofSeconds(1)));
+        assertThat(connectorTaskPublisher.retryDelay(2), is(Duration.ofSeconds(2)));
+        assertThat(connectorTaskPublisher.retryDelay(6), is(Duration.ofSeconds(32)));
+        assertThat(connectorTaskPublisher.retryDelay(7), is(Duration.ofSeconds(60)));
+        assertThat(connectorTaskPublisher.retryDelay(40), is(Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void shouldSendBufferedTasksWhenStopped() throws Exception {
+        when(scheduledExecutorService.awaitTermination(anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(successfulResponse(1));
+        connectorTaskPublisher.publish(serviceArchivedTask("serviceId"));
+
+        connectorTaskPublisher.stop();
+
+        verify(scheduledExecutorService).shutdown();
+        verify(sqsClient).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void shouldSendTasksWaitingToBeRetriedWhenStoppedWithoutWaitingForTheirBackoff() throws Exception {
+        when(scheduledExecutorService.awaitTermination(anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenThrow(SdkClientException.create("Unable to reach SQS"))
+                .thenReturn(successfulResponse(1));
+        connectorTaskPublisher.publish(serviceArchivedTask("serviceId"));
+        connectorTaskPublisher.flush();
+
+        connectorTaskPublisher.stop();
+
+        verify(sqsClient, times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        assertThat(metricRegistry.meter("connector-task-publisher.sent").getCount(), is(1L));
+    }
+
+    private static ConnectorTask serviceArchivedTask(String serviceExternalId) {
+        return new ConnectorTask(new ServiceArchivedTaskData(serviceExternalId), "service_archived");
+    }
+
+    private static SendMessageBatchResponse successfulResponse(int numberOfEntries) {
+        return SendMessageBatchResponse.builder()
+                .successful(IntStream.range(0, numberOfEntries)
+                        .mapToObj(i -> successfulEntry(String.valueOf(i)))
+                        .toList())
+                .failed(List.of())
+                .build();
+    }
+
+    private static SendMessageBatchResultEntry successfulEntry(String id) {
+        return SendMessageBatchResultEntry.builder().id(id).messageId("message-" + id).build();
+    }
+
+    private static BatchResultErrorEntry failedEntry(String id, boolean senderFault) {
+        return BatchResultErrorEntry.builder().id(id).senderFault(senderFault).code("Error").message("failed").build();
+    }
+}
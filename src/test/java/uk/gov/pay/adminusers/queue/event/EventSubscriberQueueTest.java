@@ -6,22 +6,31 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SqsException;
 import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
 import uk.gov.pay.adminusers.app.config.EventSubscriberQueueConfig;
 import uk.gov.pay.adminusers.app.config.SqsConfig;
 import uk.gov.pay.adminusers.queue.model.Event;
 import uk.gov.pay.adminusers.queue.model.EventMessage;
-import uk.gov.service.payments.commons.queue.model.QueueMessage;
+import uk.gov.service.payments.commons.queue.exception.QueueException;
 import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.mock;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.adminusers.JsonResourceLoader.DISPUTE_CREATED_SNS_MESSAGE;
 import static uk.gov.pay.adminusers.JsonResourceLoader.load;
@@ -41,29 +50,37 @@ class EventSubscriberQueueTest {
     @Mock
     private SqsQueueService sqsQueueService;
 
+    @Mock
+    private SqsClient sqsClient;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private EventSubscriberQueue eventSubscriberQueue;
 
     @BeforeEach
     void setUp() {
-        when(sqsConfig.getEventSubscriberQueueUrl()).thenReturn("");
+        when(sqsConfig.getEventSubscriberQueueUrl()).thenReturn("event-queue-url");
+        when(sqsConfig.getMessageMaximumWaitTimeInSeconds()).thenReturn(20);
+        when(sqsConfig.getMessageMaximumBatchSize()).thenReturn(10);
         when(eventSubscriberQueueConfig.getFailedMessageRetryDelayInSeconds()).thenReturn(900);
         when(adminUsersConfig.getSqsConfig()).thenReturn(sqsConfig);
         when(adminUsersConfig.getEventSubscriberQueueConfig()).thenReturn(eventSubscriberQueueConfig);
 
-        eventSubscriberQueue = new EventSubscriberQueue(sqsQueueService, adminUsersConfig, objectMapper);
+        eventSubscriberQueue = new EventSubscriberQueue(sqsQueueService, sqsClient, adminUsersConfig, objectMapper);
     }
 
     @Test
     void shouldRetrieveEventsForCorrectlyFormattedJSON() throws Exception {
         String message = load(DISPUTE_CREATED_SNS_MESSAGE);
 
-        var sendMessageResult = mock(SendMessageResponse.class);
-        List<QueueMessage> messages = List.of(
-                QueueMessage.of(sendMessageResult, message)
-        );
-        when(sqsQueueService.receiveMessages(anyString(), anyString())).thenReturn(messages);
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenReturn(ReceiveMessageResponse.builder()
+                .messages(Message.builder()
+                        .messageId("message-id")
+                        .receiptHandle("receipt-handle")
+                        .body(message)
+                        .attributes(Map.of(MessageSystemAttributeName.SENT_TIMESTAMP, "1760782530000"))
+                        .build())
+                .build());
 
         List<EventMessage> eventMessages = eventSubscriberQueue.retrieveEvents();
         assertThat(eventMessages, hasSize(1));
@@ -72,5 +89,30 @@ class EventSubscriberQueueTest {
         assertThat(event.getParentResourceExternalId(), is("pk8vak8vfiii5hjvqpsa4dsd"));
         assertThat(event.getEventType(), is("DISPUTE_CREATED"));
         assertThat(event.getEventDetails().toString(), is("{\"fee\":1500,\"evidence_due_date\":1648684799,\"gateway_account_id\":\"528\",\"amount\":1000,\"net_amount\":2500,\"reason\":\"fraudulent\"}"));
+        assertThat(eventMessages.get(0).getQueueMessage().getMessageId(), is("message-id"));
+        assertThat(eventMessages.get(0).getSentTimestamp(), is(Optional.of(Instant.ofEpochMilli(1760782530000L))));
+    }
+
+    @Test
+    void shouldRequestTheSentTimestampOfEachMessage() throws Exception {
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenReturn(ReceiveMessageResponse.builder().build());
+
+        eventSubscriberQueue.retrieveEvents();
+
+        verify(sqsClient).receiveMessage(ReceiveMessageRequest.builder()
+                .queueUrl("event-queue-url")
+                .messageAttributeNames("All")
+                .messageSystemAttributeNames(MessageSystemAttributeName.SENT_TIMESTAMP)
+                .waitTimeSeconds(20)
+                .maxNumberOfMessages(10)
+                .build());
+    }
+
+    @Test
+    void shouldThrowQueueExceptionWhenMessagesCannotBeReceived() {
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenThrow(SqsException.builder().message("Unable to reach SQS").build());
+
+        assertThrows(QueueException.class, () -> eventSubscriberQueue.retrieveEvents());
     }
 }
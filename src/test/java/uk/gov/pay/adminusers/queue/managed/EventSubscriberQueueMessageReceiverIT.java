@@ -0,0 +1,67 @@
+package uk.gov.pay.adminusers.queue.managed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import uk.gov.pay.adminusers.infra.AppWithPostgresExtension;
+import uk.gov.pay.adminusers.infra.SqsTestDocker;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.dropwizard.testing.ConfigOverride.config;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class EventSubscriberQueueMessageReceiverIT {
+
+    private static final String QUEUE_NAME = "event-subscriber-queue-receiver-it";
+    private static final SqsClient sqsClient = SqsTestDocker.initialise(List.of(QUEUE_NAME));
+
+    @RegisterExtension
+    static AppWithPostgresExtension app = new AppWithPostgresExtension(
+            config("sqs.eventSubscriberQueueUrl", SqsTestDocker.getQueueUrl(QUEUE_NAME)),
+            config("eventSubscriberQueue.eventSubscriberQueueEnabled", "true"),
+            config("eventSubscriberQueue.numberOfPollers", "3"),
+            config("eventSubscriberQueue.queueSchedulerNumberOfThreads", "4"),
+            config("eventSubscriberQueue.queueSchedulerThreadDelayInMilliseconds", "100"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldReceiveAndHandleEveryMessageWithSeveralPollers() throws Exception {
+        for (int i = 0; i < 35; i++) {
+            sqsClient.sendMessage(SendMessageRequest.builder()
+                    .queueUrl(SqsTestDocker.getQueueUrl(QUEUE_NAME))
+                    .messageBody(snsMessage("payment-" + i))
+                    .build());
+        }
+
+        await().atMost(20, TimeUnit.SECONDS).untilAsserted(() -> {
+            Map<QueueAttributeName, String> attributes = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                            .queueUrl(SqsTestDocker.getQueueUrl(QUEUE_NAME))
+                            .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES,
+                                    QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE)
+                            .build())
+                    .attributes();
+            assertThat(attributes.get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES), is("0"));
+            assertThat(attributes.get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE), is("0"));
+        });
+    }
+
+    private String snsMessage(String resourceExternalId) throws JsonProcessingException {
+        String event = objectMapper.writeValueAsString(Map.of(
+                "resource_external_id", resourceExternalId,
+                "event_type", "PAYMENT_CREATED",
+                "live", false,
+                "event_details", Map.of()));
+        return objectMapper.writeValueAsString(Map.of("Message", event));
+    }
+}
@@ -0,0 +1,148 @@
+package uk.gov.pay.adminusers.queue.managed;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.adminusers.app.config.EventSubscriberQueueConfig;
+import uk.gov.pay.adminusers.queue.event.EventMessageHandler;
+import uk.gov.pay.adminusers.queue.model.EventMessage;
+import uk.gov.service.payments.commons.queue.exception.QueueException;
+
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventSubscriberQueueMessageReceiverTest {
+
+    private static final int MESSAGE_BATCH_SIZE = 10;
+    private static final Instant NOW = Instant.parse("2026-10-18T10:15:30Z");
+
+    @Mock
+    private EventMessageHandler eventMessageHandler;
+
+    @Mock
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @Mock
+    private ExecutorService idleWorkerExecutorService;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @Test
+    void shouldScheduleEachPollerStaggeredAcrossThePollDelay() {
+        var receiver = receiver(config(true, 2), idleWorkerExecutorService);
+
+        receiver.start();
+
+        verify(scheduledExecutorService).scheduleWithFixedDelay(any(Runnable.class), eq(1000L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        verify(scheduledExecutorService).scheduleWithFixedDelay(any(Runnable.class), eq(1500L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldNotPollWhenTheQueueIsDisabled() {
+        var receiver = receiver(config(false, 2), idleWorkerExecutorService);
+
+        receiver.start();
+
+        verifyNoInteractions(scheduledExecutorService);
+    }
+
+    @Test
+    void shouldHandEachReceivedMessageToAWorker() throws QueueException {
+        EventMessage handled = mock(EventMessage.class);
+        EventMessage failed = mock(EventMessage.class);
+        when(eventMessageHandler.retrieveEvents()).thenReturn(List.of(handled, failed));
+        when(eventMessageHandler.processMessage(handled)).thenReturn(true);
+        when(eventMessageHandler.processMessage(failed)).thenReturn(false);
+        var receiver = receiver(config(true, 1), MoreExecutors.newDirectExecutorService());
+
+        receiver.poll();
+
+        assertThat(metricRegistry.meter("event-subscriber-queue.messages.processed").getCount(), is(1L));
+        assertThat(metricRegistry.meter("event-subscriber-queue.messages.failed").getCount(), is(1L));
+        assertThat(inFlightMessages(), is(0));
+    }
+
+    @Test
+    void shouldRecordHowLongEachMessageWaitedSinceItWasSent() throws QueueException {
+        EventMessage eventMessage = mock(EventMessage.class);
+        when(eventMessage.getSentTimestamp()).thenReturn(Optional.of(NOW.minusSeconds(3)));
+        when(eventMessageHandler.retrieveEvents()).thenReturn(List.of(eventMessage));
+        var receiver = receiver(config(true, 1), MoreExecutors.newDirectExecutorService());
+
+        receiver.poll();
+
+        var queueLag = metricRegistry.histogram("event-subscriber-queue.messages.queue_lag");
+        assertThat(queueLag.getCount(), is(1L));
+        assertThat(queueLag.getSnapshot().getMax(), is(3000L));
+    }
+
+    @Test
+    void shouldSkipPollsUntilThereIsRoomForAFullBatch() throws QueueException {
+        when(eventMessageHandler.retrieveEvents()).thenReturn(Collections.nCopies(MESSAGE_BATCH_SIZE, mock(EventMessage.class)));
+        var receiver = receiver(config(true, 1), idleWorkerExecutorService);
+
+        receiver.poll();
+        receiver.poll();
+        receiver.poll();
+
+        verify(eventMessageHandler, times(2)).retrieveEvents();
+        assertThat(inFlightMessages(), is(20));
+    }
+
+    @Test
+    void shouldReleaseTheRoomReservedForMessagesThatWereNotReceived() throws QueueException {
+        when(eventMessageHandler.retrieveEvents())
+                .thenReturn(List.of(mock(EventMessage.class)))
+                .thenThrow(new IllegalStateException("Unable to reach SQS"))
+                .thenReturn(List.of());
+        var receiver = receiver(config(true, 1), idleWorkerExecutorService);
+
+        receiver.poll();
+        receiver.poll();
+        receiver.poll();
+
+        verify(eventMessageHandler, times(3)).retrieveEvents();
+        assertThat(inFlightMessages(), is(1));
+    }
+
+    private EventSubscriberQueueMessageReceiver receiver(EventSubscriberQueueConfig config, ExecutorService workerExecutorService) {
+        return new EventSubscriberQueueMessageReceiver(eventMessageHandler, config, MESSAGE_BATCH_SIZE,
+                scheduledExecutorService, workerExecutorService, InstantSource.fixed(NOW), metricRegistry);
+    }
+
+    private Integer inFlightMessages() {
+        return (Integer) metricRegistry.getGauges().get("event-subscriber-queue.messages.in_flight").getValue();
+    }
+
+    private static EventSubscriberQueueConfig config(boolean enabled, int numberOfPollers) {
+        return new ObjectMapper().convertValue(Map.of(
+                "eventSubscriberQueueEnabled", enabled,
+                "queueSchedulerNumberOfThreads", 1,
+                "queueSchedulerThreadDelayInMilliseconds", 1000,
+                "queueSchedulerShutdownTimeoutInSeconds", 1,
+                "maxInFlightMessages", 20,
+                "numberOfPollers", numberOfPollers), EventSubscriberQueueConfig.class);
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.pay.adminusers.resources;
 
+import jakarta.ws.rs.core.Link;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
@@ -13,15 +14,19 @@ import uk.gov.pay.adminusers.persistence.dao.RoleDao;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static io.restassured.http.ContentType.JSON;
 import static java.lang.String.format;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsIterableContaining.hasItem;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
@@ -169,6 +174,90 @@ public class ServiceResourceIT extends IntegrationTest {
                     .body("[2]._links[0].rel", is("self"));
         }
 
+        @Test
+        void should_return_users_a_page_at_a_time_with_link_to_next_page() {
+            String nextPage = givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .get(format("/v1/api/services/%s/users?limit=2", serviceExternalId))
+                    .then()
+                    .statusCode(200)
+                    .body("email", contains(user2WithRoleViewInService1.getEmail(), userWithRoleViewInService1.getEmail()))
+                    .extract().header("Link");
+
+            assertThat(nextPage, containsString("afterEmail="));
+
+            givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .queryParam("limit", 2)
+                    .queryParam("afterEmail", userWithRoleViewInService1.getEmail())
+                    .get(format("/v1/api/services/%s/users", serviceExternalId))
+                    .then()
+                    .statusCode(200)
+                    .header("Link", nullValue())
+                    .body("email", contains(userWithRoleAdminInService1.getEmail()));
+        }
+
+        @Test
+        void should_follow_link_to_next_page_when_emails_contain_a_plus() {
+            Service serviceWithPlusEmails = serviceDbFixture(databaseHelper).insertService();
+            String uuid = randomUuid();
+            User firstUser = userDbFixture(databaseHelper)
+                    .withServiceRole(serviceWithPlusEmails, viewRole)
+                    .withEmail("team+1-" + uuid + "@example.com")
+                    .insertUser();
+            User secondUser = userDbFixture(databaseHelper)
+                    .withServiceRole(serviceWithPlusEmails, viewRole)
+                    .withEmail("team+2-" + uuid + "@example.com")
+                    .insertUser();
+
+            String nextPage = givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .get(format("/v1/api/services/%s/users?limit=1&summary=true", serviceWithPlusEmails.getExternalId()))
+                    .then()
+                    .statusCode(200)
+                    .body("email", contains(firstUser.getEmail()))
+                    .extract().header("Link");
+
+            givenSetup()
+                    .urlEncodingEnabled(false)
+                    .when()
+                    .accept(JSON)
+                    .get(Link.valueOf(nextPage).getUri())
+                    .then()
+                    .statusCode(200)
+                    .body("email", contains(secondUser.getEmail()));
+        }
+
+        @Test
+        void should_return_summaries_of_users_with_role_filter() {
+            givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .get(format("/v1/api/services/%s/users?role=view-only&summary=true", serviceExternalId))
+                    .then()
+                    .statusCode(200)
+                    .body("$", hasSize(2))
+                    .body("[0].external_id", is(user2WithRoleViewInService1.getExternalId()))
+                    .body("[0].email", is(user2WithRoleViewInService1.getEmail()))
+                    .body("[0].role", is("view-only"))
+                    .body("[0].disabled", is(false))
+                    .body("[0].service_roles", nullValue())
+                    .body("[1].email", is(userWithRoleViewInService1.getEmail()));
+        }
+
+        @Test
+        void should_reject_a_users_limit_above_the_maximum_page_size() {
+            givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .get(format("/v1/api/services/%s/users?limit=501", serviceExternalId))
+                    .then()
+                    .statusCode(400);
+        }
+
         @Test
         void should_return_404_if_service_does_not_exist() {
             givenSetup()
@@ -334,4 +423,75 @@ public class ServiceResourceIT extends IntegrationTest {
                     .body(emptyString());
         }
     }
+
+    @Nested
+    class GetServicesList {
+
+        private List<Integer> serviceIds;
+
+        @BeforeEach
+        void setUp() {
+            serviceIds = Stream.of(service, serviceDbFixture(databaseHelper).insertService(), serviceDbFixture(databaseHelper).insertService())
+                    .map(Service::getId)
+                    .sorted()
+                    .toList();
+        }
+
+        @Test
+        void should_return_services_in_id_order_with_link_to_next_page() {
+            String nextPage = givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .get("/v1/api/services/list?limit=2")
+                    .then()
+                    .statusCode(200)
+                    .body("id", contains(serviceIds.get(0), serviceIds.get(1)))
+                    .extract().header("Link");
+
+            assertThat(nextPage, containsString(format("afterId=%d", serviceIds.get(1))));
+
+            givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .get(format("/v1/api/services/list?limit=2&afterId=%d", serviceIds.get(1)))
+                    .then()
+                    .statusCode(200)
+                    .header("Link", nullValue())
+                    .body("id", contains(serviceIds.get(2)));
+        }
+
+        @Test
+        void should_reject_a_limit_above_the_maximum_page_size() {
+            givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .get("/v1/api/services/list?limit=501")
+                    .then()
+                    .statusCode(400);
+        }
+
+        @Test
+        void should_stream_all_services_in_id_order() {
+            givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .get("/v1/api/services/list?stream=true")
+                    .then()
+                    .statusCode(200)
+                    .body("id", contains(serviceIds.toArray()))
+                    .body(format("find { it.external_id == '%s' }.links", serviceExternalId), hasSize(1));
+        }
+
+        @Test
+        void should_stream_a_page_of_services_after_id() {
+            givenSetup()
+                    .when()
+                    .accept(JSON)
+                    .get(format("/v1/api/services/list?stream=true&limit=1&afterId=%d", serviceIds.get(0)))
+                    .then()
+                    .statusCode(200)
+                    .header("Link", nullValue())
+                    .body("id", contains(serviceIds.get(1)));
+        }
+    }
 }
@@ -102,6 +102,34 @@ public class UserResourceAuthenticationIT extends IntegrationTest {
                 .body("errors[0]", is("invalid username and/or password"));
     }
 
+    @Test
+    public void shouldRejectAuthenticationAttempts_overTheEmailRateLimit() throws Exception {
+        String authPayload = mapper.writeValueAsString(Map.of(
+                "email", randomUuid() + "@example.com",
+                "password", "invalid-password"));
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            givenSetup()
+                    .when()
+                    .body(authPayload)
+                    .contentType(JSON)
+                    .accept(JSON)
+                    .post(USERS_AUTHENTICATE_URL)
+                    .then()
+                    .statusCode(401);
+        }
+
+        givenSetup()
+                .when()
+                .body(authPayload)
+                .contentType(JSON)
+                .accept(JSON)
+                .post(USERS_AUTHENTICATE_URL)
+                .then()
+                .statusCode(429)
+                .body("errors[0]", is("too many authentication attempts"));
+    }
+
     private String createAValidUser(Service service) throws JsonProcessingException {
         String email = "user-" + randomAlphanumeric(10) + UUID.randomUUID() + "@example.com";
         Map<Object, Object> userPayload = Map.of(
@@ -0,0 +1,130 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.adminusers.app.config.AuthenticationRateLimitConfig;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class AuthenticationRateLimiterTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final ManualTicker ticker = new ManualTicker();
+
+    private AuthenticationRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = rateLimiter(Map.of(
+                "emailLimitEnabled", true,
+                "emailBurstCapacity", 2,
+                "emailAttemptsPerMinute", 1));
+    }
+
+    @Test
+    void shouldRejectAttemptsForAnEmailOnceItsBurstCapacityIsUsed() {
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(true));
+        assertThat(rateLimiter.tryAcquire(EMAIL.toUpperCase()), is(true));
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(false));
+        assertThat(rateLimiter.tryAcquire("other@example.com"), is(true));
+
+        assertThat(metricRegistry.meter("authentication-rate-limiter.rejected.email").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldAllowAnotherAttemptForAnEmailOnceATokenHasRefilled() {
+        rateLimiter.tryAcquire(EMAIL);
+        rateLimiter.tryAcquire(EMAIL);
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(false));
+
+        ticker.advance(1, TimeUnit.MINUTES);
+
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(true));
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(false));
+    }
+
+    @Test
+    void shouldNotLimitByEmailWhenDisabled() {
+        rateLimiter = rateLimiter(Map.of("emailLimitEnabled", false, "emailBurstCapacity", 1));
+
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(true));
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(true));
+    }
+
+    @Test
+    void shouldNotLimitByEmailByDefault() {
+        rateLimiter = rateLimiter(Map.of("emailBurstCapacity", 1));
+
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(true));
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(true));
+    }
+
+    @Test
+    void shouldRejectAttemptsForDifferentEmailsOnceTheGlobalBurstCapacityIsUsed() {
+        rateLimiter = rateLimiter(Map.of("globalBurstCapacity", 3, "globalAttemptsPerSecond", 1));
+
+        assertThat(rateLimiter.tryAcquire("user-1@example.com"), is(true));
+        assertThat(rateLimiter.tryAcquire("user-2@example.com"), is(true));
+        assertThat(rateLimiter.tryAcquire("user-3@example.com"), is(true));
+        assertThat(rateLimiter.tryAcquire("user-4@example.com"), is(false));
+
+        ticker.advance(1, TimeUnit.SECONDS);
+
+        assertThat(rateLimiter.tryAcquire("user-5@example.com"), is(true));
+        assertThat(rateLimiter.tryAcquire("user-6@example.com"), is(false));
+        assertThat(metricRegistry.meter("authentication-rate-limiter.rejected.global").getCount(), is(2L));
+    }
+
+    @Test
+    void shouldNotUseAGlobalTokenForAnAttemptRejectedByEmail() {
+        rateLimiter = rateLimiter(Map.of(
+                "emailLimitEnabled", true,
+                "emailBurstCapacity", 1,
+                "globalBurstCapacity", 2,
+                "globalAttemptsPerSecond", 1));
+
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(true));
+        assertThat(rateLimiter.tryAcquire(EMAIL), is(false));
+        assertThat(rateLimiter.tryAcquire("other@example.com"), is(true));
+
+        assertThat(metricRegistry.meter("authentication-rate-limiter.rejected.email").getCount(), is(1L));
+        assertThat(metricRegistry.meter("authentication-rate-limiter.rejected.global").getCount(), is(0L));
+    }
+
+    @Test
+    void shouldNotLimitGloballyWhenDisabled() {
+        rateLimiter = rateLimiter(Map.of("globalLimitEnabled", false, "globalBurstCapacity", 1));
+
+        assertThat(rateLimiter.tryAcquire("user-1@example.com"), is(true));
+        assertThat(rateLimiter.tryAcquire("user-2@example.com"), is(true));
+    }
+
+    private AuthenticationRateLimiter rateLimiter(Map<String, Object> config) {
+        return new AuthenticationRateLimiter(new ObjectMapper().convertValue(config, AuthenticationRateLimitConfig.class),
+                metricRegistry, ticker);
+    }
+
+    private static class ManualTicker extends Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(duration));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.adminusers.app.config.GatewayAccountServiceCacheConfig;
+import uk.gov.pay.adminusers.model.Service;
+import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+class GatewayAccountServiceCacheTest {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final ManualTicker ticker = new ManualTicker();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Service service = Service.from();
+
+    private GatewayAccountServiceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = cache(Map.of("maximumSize", 2, "expireAfterWriteInSeconds", 60));
+    }
+
+    @Test
+    void shouldLoadAServiceOnceUntilItExpires() {
+        assertThat(cache.get("1", this::load).orElseThrow(), is(sameInstance(service)));
+        assertThat(cache.get("1", this::load).orElseThrow(), is(sameInstance(service)));
+        assertThat(loads.get(), is(1));
+        assertThat(metricRegistry.getGauges().get("gateway-account-service-cache.hit_ratio").getValue(), is(0.5));
+
+        ticker.advance(61, TimeUnit.SECONDS);
+
+        cache.get("1", this::load);
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    void shouldNotCacheGatewayAccountsWithoutAService() {
+        cache.get("1", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        cache.get("1", this::load);
+
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    void shouldLoadAgainAfterTheServiceIsInvalidated() {
+        ServiceEntity serviceEntity = new ServiceEntity();
+        serviceEntity.addGatewayAccountIds("1", "2");
+        cache.get("1", this::load);
+        cache.get("2", this::load);
+
+        cache.invalidate(serviceEntity);
+
+        cache.get("1", this::load);
+        cache.get("2", this::load);
+        assertThat(loads.get(), is(4));
+        assertThat(metricRegistry.meter("gateway-account-service-cache.invalidated").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldEvictTheOldestEntryOnceFull() {
+        cache.get("1", this::load);
+        cache.get("2", this::load);
+        cache.get("3", this::load);
+
+        cache.get("1", this::load);
+
+        assertThat(loads.get(), is(4));
+        assertThat(metricRegistry.getGauges().get("gateway-account-service-cache.evictions").getValue(), is(2L));
+    }
+
+    @Test
+    void shouldLoadEveryTimeWhenDisabled() {
+        cache = cache(Map.of("enabled", false));
+
+        cache.get("1", this::load);
+        cache.get("1", this::load);
+
+        assertThat(loads.get(), is(2));
+    }
+
+    private Optional<Service> load() {
+        loads.incrementAndGet();
+        return Optional.of(service);
+    }
+
+    private GatewayAccountServiceCache cache(Map<String, Object> config) {
+        return new GatewayAccountServiceCache(new ObjectMapper().convertValue(config, GatewayAccountServiceCacheConfig.class),
+                metricRegistry, ticker);
+    }
+
+    private static class ManualTicker extends Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(duration));
+        }
+    }
+}
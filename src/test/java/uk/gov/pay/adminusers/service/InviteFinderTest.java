@@ -9,10 +9,9 @@ import uk.gov.pay.adminusers.model.Invite;
 import uk.gov.pay.adminusers.model.Role;
 import uk.gov.pay.adminusers.model.RoleName;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
-import uk.gov.pay.adminusers.persistence.dao.UserDao;
+import uk.gov.pay.adminusers.persistence.dao.InviteDao.InviteWithUserExists;
 import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 import uk.gov.pay.adminusers.persistence.entity.RoleEntity;
-import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 
 import jakarta.ws.rs.WebApplicationException;
 import java.time.ZoneOffset;
@@ -23,7 +22,6 @@ import java.util.Optional;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 
@@ -34,8 +32,6 @@ public class InviteFinderTest {
     private static final String CODE = "invite-code";
     private static final String OTP_KEY = "otp-key";
 
-    @Mock
-    private UserDao mockUserDao;
     @Mock
     private InviteDao mockInviteDao;
     
@@ -45,14 +41,13 @@ public class InviteFinderTest {
 
     @BeforeEach
     public void before() {
-        inviteFinder = new InviteFinder(mockInviteDao, mockUserDao);
+        inviteFinder = new InviteFinder(mockInviteDao);
     }
 
     @Test
     public void shouldFindInvite_withNonExistingUser() {
         InviteEntity inviteEntity = new InviteEntity(EMAIL, CODE, OTP_KEY, adminRole);
-        when(mockInviteDao.findByCode(CODE)).thenReturn(Optional.of(inviteEntity));
-        when(mockUserDao.findByEmail(EMAIL)).thenReturn(Optional.empty());
+        when(mockInviteDao.findByCodeWithUserExists(CODE)).thenReturn(Optional.of(new InviteWithUserExists(inviteEntity, false)));
 
         Optional<Invite> inviteOptional = inviteFinder.find(CODE);
         assertThat(inviteOptional.isPresent(), is(true));
@@ -62,8 +57,7 @@ public class InviteFinderTest {
     @Test
     public void shouldFindInvite_withExistingUser() {
         InviteEntity inviteEntity = new InviteEntity(EMAIL, CODE, OTP_KEY, adminRole);
-        when(mockInviteDao.findByCode(CODE)).thenReturn(Optional.of(inviteEntity));
-        when(mockUserDao.findByEmail(EMAIL)).thenReturn(Optional.of(mock(UserEntity.class)));
+        when(mockInviteDao.findByCodeWithUserExists(CODE)).thenReturn(Optional.of(new InviteWithUserExists(inviteEntity, true)));
 
         Optional<Invite> inviteOptional = inviteFinder.find(CODE);
         assertThat(inviteOptional.isPresent(), is(true));
@@ -73,7 +67,7 @@ public class InviteFinderTest {
     @Test
     public void shouldHaveFlagToSayPasswordNotSet() {
         InviteEntity inviteEntity = new InviteEntity(EMAIL, CODE, OTP_KEY, adminRole);
-        when(mockInviteDao.findByCode(CODE)).thenReturn(Optional.of(inviteEntity));
+        when(mockInviteDao.findByCodeWithUserExists(CODE)).thenReturn(Optional.of(new InviteWithUserExists(inviteEntity, false)));
 
         Optional<Invite> inviteOptional = inviteFinder.find(CODE);
         assertThat(inviteOptional.isPresent(), is(true));
@@ -84,7 +78,7 @@ public class InviteFinderTest {
     public void shouldHaveFlagToSayPasswordIsSet() {
         InviteEntity inviteEntity = new InviteEntity(EMAIL, CODE, OTP_KEY, adminRole);
         inviteEntity.setPassword("password123");
-        when(mockInviteDao.findByCode(CODE)).thenReturn(Optional.of(inviteEntity));
+        when(mockInviteDao.findByCodeWithUserExists(CODE)).thenReturn(Optional.of(new InviteWithUserExists(inviteEntity, false)));
 
         Optional<Invite> inviteOptional = inviteFinder.find(CODE);
         assertThat(inviteOptional.isPresent(), is(true));
@@ -95,7 +89,7 @@ public class InviteFinderTest {
     public void shouldErrorLocked_ifInviteIsExpired() {
         InviteEntity inviteEntity = new InviteEntity(EMAIL, CODE, OTP_KEY, adminRole);
         inviteEntity.setExpiryDate(ZonedDateTime.now(ZoneOffset.UTC).minusDays(1));
-        when(mockInviteDao.findByCode(CODE)).thenReturn(Optional.of(inviteEntity));
+        when(mockInviteDao.findByCodeWithUserExists(CODE)).thenReturn(Optional.of(new InviteWithUserExists(inviteEntity, false)));
 
         WebApplicationException exception = assertThrows(WebApplicationException.class,
                 () -> inviteFinder.find(CODE));
@@ -106,8 +100,7 @@ public class InviteFinderTest {
     public void shouldErrorLocked_ifInviteIsDisabled() {
         InviteEntity inviteEntity = new InviteEntity(EMAIL, CODE, OTP_KEY, adminRole);
         inviteEntity.setDisabled(true);
-        Optional<InviteEntity> inviteEntityOptional = Optional.of(inviteEntity);
-        when(mockInviteDao.findByCode(CODE)).thenReturn(inviteEntityOptional);
+        when(mockInviteDao.findByCodeWithUserExists(CODE)).thenReturn(Optional.of(new InviteWithUserExists(inviteEntity, false)));
 
         WebApplicationException exception = assertThrows(WebApplicationException.class,
                 () -> inviteFinder.find(CODE));
@@ -117,7 +110,7 @@ public class InviteFinderTest {
     @Test
     public void shouldReturnEmptyOptional_forNonExistingInviteCode() {
         String code = "non-existent-code";
-        when(mockInviteDao.findByCode(code)).thenReturn(Optional.empty());
+        when(mockInviteDao.findByCodeWithUserExists(code)).thenReturn(Optional.empty());
 
         Optional<Invite> inviteOptional = inviteFinder.find(code);
 
@@ -131,21 +124,18 @@ public class InviteFinderTest {
         String secondEmail = "user2@mail.test";
         InviteEntity firstInviteEntity = new InviteEntity(firstEmail, randomUuid(), OTP_KEY, adminRole);
         InviteEntity secondInviteEntity = new InviteEntity(secondEmail, randomUuid(), OTP_KEY, adminRole);
-        InviteEntity disabledInviteEntity = new InviteEntity("email@email.test", randomUuid(), "otp-key", adminRole);
-        disabledInviteEntity.setDisabled(true);
-        InviteEntity expiredInviteEntity = new InviteEntity("email@email.test", randomUuid(), "otp-key", adminRole);
-        expiredInviteEntity.setExpiryDate(ZonedDateTime.now().minusMinutes(1));
-        when(mockUserDao.findByEmail(firstEmail)).thenReturn(Optional.empty());
-        when(mockUserDao.findByEmail(secondEmail)).thenReturn(Optional.empty());
-        when(mockInviteDao.findAllByServiceId(externalServiceId)).thenReturn(
-                List.of(firstInviteEntity, secondInviteEntity, disabledInviteEntity, expiredInviteEntity)
-        );
+        when(mockInviteDao.findActiveByServiceIdWithUserExists(externalServiceId)).thenReturn(List.of(
+                new InviteWithUserExists(firstInviteEntity, false),
+                new InviteWithUserExists(secondInviteEntity, true)
+        ));
         List<Invite> invites = inviteFinder.findAllActiveInvites(externalServiceId);
         assertThat(invites.size(), is(2));
         Invite firstInvite = invites.get(0);
         assertThat(firstInvite.getEmail(), is(firstEmail));
+        assertThat(firstInvite.isUserExist(), is(false));
         Invite secondInvite = invites.get(1);
         assertThat(secondInvite.getEmail(), is(secondEmail));
+        assertThat(secondInvite.isUserExist(), is(true));
     }
 
 }
@@ -0,0 +1,133 @@
+package uk.gov.pay.adminusers.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.adminusers.infra.AppWithPostgresExtension;
+import uk.gov.pay.adminusers.infra.NotifyStub;
+import uk.gov.pay.adminusers.utils.DatabaseTestHelper;
+import uk.gov.service.payments.commons.testing.port.PortFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.dropwizard.testing.ConfigOverride.config;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static uk.gov.pay.adminusers.service.NotificationService.OtpNotifySmsTemplateId.SIGN_IN;
+
+class NotificationOutboxDispatcherIT {
+
+    private static final int NOTIFY_PORT = PortFactory.findFreePort();
+
+    @RegisterExtension
+    static AppWithPostgresExtension app = new AppWithPostgresExtension(
+            config("notify.notificationBaseURL", "http://localhost:" + NOTIFY_PORT),
+            config("notificationOutbox.enabled", "true"),
+            config("notificationOutbox.initialRetryDelayInSeconds", "60"));
+
+    private static WireMockServer notifyServer;
+
+    private DatabaseTestHelper databaseHelper;
+    private NotifyStub notifyStub;
+    private NotificationService notificationService;
+
+    @BeforeAll
+    static void startNotify() {
+        notifyServer = new WireMockServer(options().port(NOTIFY_PORT));
+        notifyServer.start();
+    }
+
+    @AfterAll
+    static void stopNotify() {
+        notifyServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        notifyServer.resetAll();
+        databaseHelper = app.getDatabaseTestHelper();
+        databaseHelper.execute("TRUNCATE TABLE notification_outbox");
+        notifyStub = new NotifyStub(notifyServer);
+        notificationService = app.getInjector().getInstance(NotificationService.class);
+    }
+
+    @Test
+    void shouldSendQueuedEmailAndRemoveItFromTheOutbox() {
+        notifyStub.stubSendEmail();
+
+        notificationService.sendForgottenPasswordEmail("user@example.com", "https://example.com/reset");
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> notifyServer.verify(1,
+                postRequestedFor(urlPathEqualTo("/v2/notifications/email"))
+                        .withRequestBody(matchingJsonPath("$.email_address", equalTo("user@example.com")))
+                        .withRequestBody(matchingJsonPath("$.personalisation.code", equalTo("https://example.com/reset")))));
+        await().atMost(10, TimeUnit.SECONDS).until(() -> databaseHelper.findNotificationOutbox().isEmpty());
+    }
+
+    @Test
+    void shouldSendQueuedSmsToE164PhoneNumber() {
+        notifyStub.stubSendSms();
+
+        notificationService.sendSecondFactorPasscodeSms("07700900000", "123456", SIGN_IN);
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> notifyServer.verify(1,
+                postRequestedFor(urlPathEqualTo("/v2/notifications/sms"))
+                        .withRequestBody(matchingJsonPath("$.phone_number", equalTo("+447700900000")))
+                        .withRequestBody(matchingJsonPath("$.personalisation.code", equalTo("123456")))));
+        await().atMost(10, TimeUnit.SECONDS).until(() -> databaseHelper.findNotificationOutbox().isEmpty());
+    }
+
+    @Test
+    void shouldKeepNotificationForRetryWhenNotifyFails() {
+        notifyStub.stubSendEmail(500);
+
+        notificationService.sendForgottenPasswordEmail("user@example.com", "https://example.com/reset");
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> databaseHelper.findNotificationOutbox().stream()
+                .anyMatch(notification -> (int) notification.get("attempts") == 1));
+        List<Map<String, Object>> outbox = databaseHelper.findNotificationOutbox();
+        assertThat(outbox, hasSize(1));
+        assertThat(outbox.get(0).get("last_error"), is(notNullValue()));
+        assertThat(outbox.get(0).get("expiry_date"), is(notNullValue()));
+        notifyServer.verify(1, postRequestedFor(urlPathEqualTo("/v2/notifications/email")));
+    }
+
+    @Test
+    void shouldAbandonNotificationWhenNotifyRejectsIt() {
+        notifyStub.stubSendEmail(400);
+
+        notificationService.sendForgottenPasswordEmail("user@example.com", "https://example.com/reset");
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> notifyServer.verify(1,
+                postRequestedFor(urlPathEqualTo("/v2/notifications/email"))));
+        await().atMost(10, TimeUnit.SECONDS).until(() -> databaseHelper.findNotificationOutbox().isEmpty());
+        assertThat(databaseHelper.findNotificationOutbox(), is(empty()));
+        notifyServer.verify(1, postRequestedFor(urlPathEqualTo("/v2/notifications/email")));
+    }
+
+    @Test
+    void shouldDropNotificationThatExpiredBeforeItCouldBeSent() {
+        notifyStub.stubSendSms();
+        databaseHelper.execute("INSERT INTO notification_outbox " +
+                "(notification_type, template_id, recipient, personalisation, created_date, next_attempt_date, expiry_date) " +
+                "VALUES ('SMS', 'sign-in-template', '+447700900000', '{\"code\": \"123456\"}', " +
+                "now() - interval '10 minutes', now(), now() - interval '5 minutes')");
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> databaseHelper.findNotificationOutbox().isEmpty());
+        notifyServer.verify(0, postRequestedFor(urlPathEqualTo("/v2/notifications/sms")));
+    }
+}
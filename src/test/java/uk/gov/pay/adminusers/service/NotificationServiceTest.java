@@ -1,30 +1,44 @@
 package uk.gov.pay.adminusers.service;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.adminusers.app.config.NotifyConfiguration;
 import uk.gov.pay.adminusers.app.config.NotifyDirectDebitConfiguration;
+import uk.gov.pay.adminusers.persistence.dao.NotificationOutboxDao;
+import uk.gov.pay.adminusers.persistence.entity.NotificationOutboxEntity;
+import uk.gov.pay.adminusers.persistence.entity.NotificationOutboxEntity.NotificationType;
 import uk.gov.service.notify.NotificationClient;
 import uk.gov.service.notify.NotificationClientException;
 import uk.gov.service.notify.SendEmailResponse;
 import uk.gov.service.notify.SendSmsResponse;
 
+import jakarta.ws.rs.WebApplicationException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.BDDMockito.given;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static uk.gov.pay.adminusers.service.NotificationService.OtpNotifySmsTemplateId;
 
 @ExtendWith(MockitoExtension.class)
@@ -84,6 +98,7 @@ public class NotificationServiceTest {
         given(mockNotifyConfiguration.getStripeDisputeWonEmailTemplateId()).willReturn(STRIPE_DISPUTE_WON_EMAIL_TEMPLATE_ID);
         given(mockNotifyConfiguration.getNotifyEmailReplyToSupportId()).willReturn(NOTIFY_EMAIL_REPLY_TO_SUPPORT_ID);
         
+        given(mockNotifyConfiguration.getMaxConcurrentRequests()).willReturn(1);
         given(mockNotifyClientProvider.get()).willReturn(mockNotificationClient);
         
 
@@ -94,6 +109,7 @@ public class NotificationServiceTest {
     @Test
     public void sendSecondFactorPasscodeSmsWithSignInTemplate() throws NotificationClientException {
         given(mockMetricRegistry.histogram("notify-operations.sms.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.sms.template."))).willReturn(mock(Histogram.class));
         given(mockNotificationClient.sendSms(anyString(), anyString(), anyMap(), isNull())).willReturn(mockSendSmsResponse);
         given(mockSendSmsResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
         
@@ -105,6 +121,7 @@ public class NotificationServiceTest {
     @Test
     public void sendSecondFactorPasscodeSmsWithChangeSignIn2faToSmsTemplate() throws NotificationClientException {
         given(mockMetricRegistry.histogram("notify-operations.sms.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.sms.template."))).willReturn(mock(Histogram.class));
         given(mockNotificationClient.sendSms(anyString(), anyString(), anyMap(), isNull())).willReturn(mockSendSmsResponse);
         given(mockSendSmsResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
         
@@ -116,6 +133,7 @@ public class NotificationServiceTest {
     @Test
     public void sendSecondFactorPasscodeSmsWithSelfInitiatedCreateNewUserAndServiceTemplate() throws NotificationClientException {
         given(mockMetricRegistry.histogram("notify-operations.sms.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.sms.template."))).willReturn(mock(Histogram.class));
         given(mockNotificationClient.sendSms(anyString(), anyString(), anyMap(), isNull())).willReturn(mockSendSmsResponse);
         given(mockSendSmsResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
         
@@ -128,6 +146,7 @@ public class NotificationServiceTest {
     @Test
     public void sendSecondFactorPasscodeSmsWithCreateUserInResponseToInvitationToServiceTemplate() throws NotificationClientException {
         given(mockMetricRegistry.histogram("notify-operations.sms.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.sms.template."))).willReturn(mock(Histogram.class));
         given(mockNotificationClient.sendSms(anyString(), anyString(), anyMap(), isNull())).willReturn(mockSendSmsResponse);
         given(mockSendSmsResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
         
@@ -140,6 +159,7 @@ public class NotificationServiceTest {
     @Test
     public void sendEmailWithStripeDisputeCreatedEmailTemplateId() throws NotificationClientException {
         given(mockMetricRegistry.histogram("notify-operations.email.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.email.template."))).willReturn(mock(Histogram.class));
         given(mockNotificationClient.sendEmail(anyString(), anyString(), anyMap(), isNull(), anyString())).willReturn(mockSendEmailResponse);
         given(mockSendEmailResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
         
@@ -159,6 +179,7 @@ public class NotificationServiceTest {
     @Test
     public void sendEmailWithStripeDisputeLostEmailTemplateId() throws NotificationClientException {
         given(mockMetricRegistry.histogram("notify-operations.email.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.email.template."))).willReturn(mock(Histogram.class));
         given(mockNotificationClient.sendEmail(anyString(), anyString(), anyMap(), isNull(), anyString())).willReturn(mockSendEmailResponse);
         given(mockSendEmailResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
 
@@ -178,6 +199,7 @@ public class NotificationServiceTest {
     @Test
     public void sendEmailWithStripeDisputeLostAndServiceChargedEmailTemplateId() throws NotificationClientException {
         given(mockMetricRegistry.histogram("notify-operations.email.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.email.template."))).willReturn(mock(Histogram.class));
         given(mockNotificationClient.sendEmail(anyString(), anyString(), anyMap(), isNull(), anyString())).willReturn(mockSendEmailResponse);
         given(mockSendEmailResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
 
@@ -198,6 +220,7 @@ public class NotificationServiceTest {
     @Test
     public void sendEmailWithStripeDisputeEvidenceSubmittedEmailTemplateId() throws NotificationClientException {
         given(mockMetricRegistry.histogram("notify-operations.email.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.email.template."))).willReturn(mock(Histogram.class));
         given(mockNotificationClient.sendEmail(anyString(), anyString(), anyMap(), isNull(), anyString())).willReturn(mockSendEmailResponse);
         given(mockSendEmailResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
 
@@ -217,6 +240,7 @@ public class NotificationServiceTest {
     @Test
     public void sendEmailWithStripeDisputeWonEmailTemplateId() throws NotificationClientException {
         given(mockMetricRegistry.histogram("notify-operations.email.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.email.template."))).willReturn(mock(Histogram.class));
         given(mockNotificationClient.sendEmail(anyString(), anyString(), anyMap(), isNull(), anyString())).willReturn(mockSendEmailResponse);
         given(mockSendEmailResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
 
@@ -232,4 +256,65 @@ public class NotificationServiceTest {
         verify(mockNotificationClient).sendEmail(STRIPE_DISPUTE_WON_EMAIL_TEMPLATE_ID, "email1@service.gov.uk", personalisation, null, NOTIFY_EMAIL_REPLY_TO_SUPPORT_ID);
         verify(mockNotificationClient).sendEmail(STRIPE_DISPUTE_WON_EMAIL_TEMPLATE_ID, "email2@service.gov.uk", personalisation, null, NOTIFY_EMAIL_REPLY_TO_SUPPORT_ID);
     }
+
+    @Test
+    public void sendEmailRecordsResponseTimeForTemplate() throws NotificationClientException {
+        Histogram templateHistogram = mock(Histogram.class);
+        given(mockMetricRegistry.histogram("notify-operations.email.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram("notify-operations.email.template." + FORGOTTEN_PASSWORD_EMAIL_TEMPLATE_ID + ".response_time"))
+                .willReturn(templateHistogram);
+        given(mockNotificationClient.sendEmail(anyString(), anyString(), anyMap(), isNull(), isNull())).willReturn(mockSendEmailResponse);
+        given(mockSendEmailResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
+
+        notificationService.sendForgottenPasswordEmail("email@service.gov.uk", "https://example.com/reset-password");
+
+        verify(templateHistogram).update(anyLong());
+    }
+
+    @Test
+    public void sendEmailFailsWhenTooManyNotifyRequestsAreInFlight() throws NotificationClientException {
+        Counter waitTimeouts = mock(Counter.class);
+        given(mockMetricRegistry.counter("notify-operations.concurrency.wait_timeouts")).willReturn(waitTimeouts);
+        given(mockMetricRegistry.counter("notify-operations.email.failures")).willReturn(mock(Counter.class));
+        given(mockMetricRegistry.histogram("notify-operations.email.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.email.template."))).willReturn(mock(Histogram.class));
+        // the only request permit is still held by the outer send when the inner send asks for one
+        given(mockNotificationClient.sendEmail(anyString(), anyString(), anyMap(), isNull(), isNull())).willAnswer(invocation ->
+                notificationService.sendForgottenPasswordEmail("email2@service.gov.uk", "https://example.com/reset-password"));
+
+        assertThrows(WebApplicationException.class,
+                () -> notificationService.sendForgottenPasswordEmail("email1@service.gov.uk", "https://example.com/reset-password"));
+
+        verify(waitTimeouts).inc();
+    }
+
+    @Test
+    public void userNotificationsAreWrittenToTheOutboxWhileDisputeEmailsAreSentDirectly() throws NotificationClientException {
+        NotificationOutboxDao mockNotificationOutboxDao = mock(NotificationOutboxDao.class);
+        Counter enqueued = mock(Counter.class);
+        given(mockMetricRegistry.counter("notify-operations.email.enqueued")).willReturn(enqueued);
+        given(mockMetricRegistry.histogram("notify-operations.email.response_time")).willReturn(mock(Histogram.class));
+        given(mockMetricRegistry.histogram(startsWith("notify-operations.email.template."))).willReturn(mock(Histogram.class));
+        given(mockNotificationClient.sendEmail(anyString(), anyString(), anyMap(), isNull(), anyString())).willReturn(mockSendEmailResponse);
+        given(mockSendEmailResponse.getNotificationId()).willReturn(NOTIFICATION_ID);
+        var outboxNotificationService = new NotificationService(mockNotifyClientProvider, mockNotifyConfiguration,
+                mockNotifyDirectDebitConfiguration, mockMetricRegistry, mockNotificationOutboxDao,
+                Duration.ofMinutes(5), Duration.ofMinutes(90));
+
+        outboxNotificationService.sendForgottenPasswordEmail("email@service.gov.uk", "https://example.com/reset-password");
+        outboxNotificationService.sendStripeDisputeCreatedEmail(Set.of("email@service.gov.uk"), Map.of("k1", "v1"));
+
+        ArgumentCaptor<NotificationOutboxEntity> notification = ArgumentCaptor.forClass(NotificationOutboxEntity.class);
+        verify(mockNotificationOutboxDao).persist(notification.capture());
+        assertThat(notification.getValue().getNotificationType(), is(NotificationType.EMAIL));
+        assertThat(notification.getValue().getTemplateId(), is(FORGOTTEN_PASSWORD_EMAIL_TEMPLATE_ID));
+        assertThat(notification.getValue().getRecipient(), is("email@service.gov.uk"));
+        assertThat(notification.getValue().getPersonalisation(), is(Map.of("code", "https://example.com/reset-password")));
+        assertThat(notification.getValue().getExpiryDate(),
+                is(notification.getValue().getCreatedDate().plus(Duration.ofMinutes(90))));
+        verify(enqueued).inc();
+        verify(mockNotificationClient).sendEmail(STRIPE_DISPUTE_CREATED_EMAIL_TEMPLATE_ID, "email@service.gov.uk",
+                Map.of("k1", "v1"), null, NOTIFY_EMAIL_REPLY_TO_SUPPORT_ID);
+        verifyNoMoreInteractions(mockNotificationClient);
+    }
 }
@@ -1,12 +1,22 @@
 package uk.gov.pay.adminusers.service;
 
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
 import org.junit.jupiter.api.Test;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.PasswordHashingConfig;
+
+import java.util.Map;
 
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class PasswordHasherTest {
 
@@ -33,4 +43,22 @@ public class PasswordHasherTest {
 
         assertFalse(passwordHasher.isEqual("different password",hashedPassword));
     }
+
+    @Test
+    public void shouldHashAndMatchOnTheHashingExecutor_andRecordTimings() {
+        MetricRegistry metricRegistry = new MetricRegistry();
+        Environment environment = mock(Environment.class);
+        when(environment.lifecycle()).thenReturn(new LifecycleEnvironment(metricRegistry));
+        when(environment.metrics()).thenReturn(metricRegistry);
+        AdminUsersConfig adminUsersConfig = mock(AdminUsersConfig.class);
+        when(adminUsersConfig.getPasswordHashingConfig()).thenReturn(new ObjectMapper()
+                .convertValue(Map.of("numberOfThreads", 1, "maxQueueSize", 1), PasswordHashingConfig.class));
+
+        PasswordHasher passwordHasher = new PasswordHasher(adminUsersConfig, environment);
+        String hashedPassword = passwordHasher.hash("plain text password");
+
+        assertTrue(passwordHasher.isEqual("plain text password", hashedPassword));
+        assertThat(metricRegistry.timer("password-hasher.hashing_time").getCount(), is(2L));
+        assertThat(metricRegistry.timer("password-hasher.queue_wait_time").getCount(), is(2L));
+    }
 }
@@ -1,9 +1,11 @@
 package uk.gov.pay.adminusers.unit.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import io.dropwizard.testing.junit5.ResourceExtension;
 import io.restassured.path.json.JsonPath;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,21 +27,30 @@ import uk.gov.pay.adminusers.service.StripeAgreementService;
 import uk.gov.pay.adminusers.validations.RequestValidations;
 import uk.gov.service.payments.commons.model.SupportedLanguage;
 
+import java.io.ByteArrayOutputStream;
 import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.mock;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 import static uk.gov.pay.adminusers.resources.ServiceUpdateOperationValidator.FEATURES;
@@ -71,7 +82,8 @@ class ServiceResourceFindTest extends ServiceResourceBaseTest {
                     stripeAgreementService,
                     payAgreementRequestValidator,
                     agreementService,
-                    sendLiveAccountCreatedEmailService))
+                    sendLiveAccountCreatedEmailService,
+                    new ObjectMapper()))
             .build();
 
     @BeforeEach
@@ -149,6 +161,25 @@ class ServiceResourceFindTest extends ServiceResourceBaseTest {
         assertLinks(serviceExternalId, json);
     }
 
+    @Test
+    void shouldLeaveStreamedServicesListUnterminated_whenReadingFailsPartWayThrough() {
+        ServiceEntity serviceEntity = ServiceEntityFixture.aServiceEntity().build();
+        willAnswer(invocation -> {
+            Consumer<ServiceEntity> consumer = invocation.getArgument(3);
+            consumer.accept(serviceEntity);
+            throw new IllegalStateException("Connection lost");
+        }).given(mockedServiceDao).forEachService(eq(0), eq(Integer.MAX_VALUE), anyInt(), any());
+        ServiceResource serviceResource = new ServiceResource(mockedUserDao, mockedServiceDao, LINKS_BUILDER,
+                serviceRequestValidator, mockedServicesFactory, stripeAgreementService, payAgreementRequestValidator,
+                agreementService, sendLiveAccountCreatedEmailService, new ObjectMapper());
+
+        StreamingOutput services = (StreamingOutput) serviceResource.getServices(null, null, true, null).getEntity();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(IllegalStateException.class, () -> services.write(output));
+        assertThat(output.toString(UTF_8), not(endsWith("]")));
+    }
+
     @Test
     void shouldFind_existingServiceByGatewayAccountId() {
         GatewayAccountIdEntity gatewayAccountIdEntity = new GatewayAccountIdEntity();
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.adminusers.fixtures.ServiceEntityFixture;
+import uk.gov.pay.adminusers.model.ServiceSearchResult;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
 import uk.gov.pay.adminusers.persistence.entity.MerchantDetailsEntityBuilder;
@@ -25,11 +26,15 @@ import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.Response;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.anyOf;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
@@ -66,7 +71,8 @@ public class ServiceResourceSearchTest extends ServiceResourceBaseTest {
                     mockStripeAgreementService,
                     mockPayAgreementRequestValidator,
                     mockAgreementService,
-                    mockSendLiveAccountCreatedEmailService))
+                    mockSendLiveAccountCreatedEmailService,
+                    mapper))
             .build();
 
     @BeforeEach
@@ -117,6 +123,43 @@ public class ServiceResourceSearchTest extends ServiceResourceBaseTest {
         assertThat(json.get("merchant_results").size(), is(0));
     }
 
+    @Test
+    public void shouldOK_andReturnRankedSummaries_withLinkToNextPage_whenSummaryRequested() throws Exception {
+        var payload = load("fixtures/resource/service/post/service-search-request.json");
+        var cakeService = new ServiceSearchResult(randomUuid(), Map.of("en", "GOV.UK Cake Service"), "Government Bakery Office");
+        var bakeryService = new ServiceSearchResult(randomUuid(), Map.of("en", "Bakery licensing"), "Shire Council");
+
+        given(mockedServiceDao.searchByNameOrMerchantName("cake", "bakery", 2, 4)).willReturn(List.of(cakeService, bakeryService));
+
+        var response = underTest.target("/v1/api/services/search")
+                .queryParam("summary", true)
+                .queryParam("limit", 2)
+                .queryParam("offset", 4)
+                .request().post(Entity.json(payload));
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getLink("next").getUri().getQuery(), allOf(containsString("offset=6"), containsString("limit=2")));
+        var json = mapper.readTree(response.readEntity(String.class));
+        assertThat(json.size(), is(2));
+        assertThat(json.get(0).get("external_id").asText(), is(cakeService.externalId()));
+        assertThat(json.get(0).get("service_name").get("en").asText(), is("GOV.UK Cake Service"));
+        assertThat(json.get(0).get("merchant_name").asText(), is("Government Bakery Office"));
+        assertThat(json.get(1).get("external_id").asText(), is(bakeryService.externalId()));
+    }
+
+    @Test
+    public void shouldError_whenSummaryLimitIsTooLarge() throws Exception {
+        var payload = load("fixtures/resource/service/post/service-search-request.json");
+
+        var response = underTest.target("/v1/api/services/search")
+                .queryParam("summary", true)
+                .queryParam("limit", 101)
+                .request().post(Entity.json(payload));
+
+        assertThat(response.getStatus(), is(400));
+        verify(mockedServiceDao, never()).searchByNameOrMerchantName(anyString(), anyString(), anyInt(), anyInt());
+    }
+
     @Test
     public void shouldError_whenRequestValidationFails() throws JsonProcessingException {
         var payload = "{\"service_name\": \"!@£$%^\", \"service_merchant_name\": \"aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa\"}";
@@ -1,5 +1,6 @@
 package uk.gov.pay.adminusers.unit.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import io.dropwizard.testing.junit5.ResourceExtension;
 import io.restassured.path.json.JsonPath;
@@ -68,7 +69,8 @@ public class ServiceResourceUpdateTest extends ServiceResourceBaseTest {
                     stripeAgreementService,
                     payAgreementRequestValidator,
                     agreementService,
-                    sendLiveAccountCreatedEmailService))
+                    sendLiveAccountCreatedEmailService,
+                    new ObjectMapper()))
             .build();
 
     @BeforeEach
@@ -1,6 +1,8 @@
 package uk.gov.pay.adminusers.utils;
 
+import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.Query;
 import org.postgresql.util.PGobject;
 import uk.gov.pay.adminusers.model.MerchantDetails;
 import uk.gov.pay.adminusers.model.Permission;
@@ -76,6 +78,14 @@ public class DatabaseTestHelper {
                         .mapToMap().list());
     }
 
+    public List<Map<String, Object>> findNotificationOutbox() {
+        return jdbi.withHandle(h ->
+                h.createQuery("SELECT id, notification_type, template_id, recipient, attempts, last_error, expiry_date " +
+                                "FROM notification_outbox " +
+                                "ORDER BY id")
+                        .mapToMap().list());
+    }
+
     public List<Map<String, Object>> findInviteById(Integer inviteId) {
         return jdbi.withHandle(h ->
                 h.createQuery("SELECT id, sender_id, date, code, email, role_id, service_id, otp_key, telephone_number, disabled, login_counter " +
@@ -434,6 +444,42 @@ public class DatabaseTestHelper {
         return this;
     }
 
+    /**
+     * Returns the query plan for {@code query} with its positional parameters bound to {@code parameters} and
+     * sequential scans disabled, so that tests can assert an index is usable without having to seed enough rows for
+     * the planner to prefer it on cost.
+     */
+    public String explainWithoutSeqScan(String query, List<Object> parameters) {
+        return jdbi.withHandle(handle -> {
+            handle.execute("SET enable_seqscan = off");
+            try {
+                return explain(handle, query, parameters);
+            } finally {
+                handle.execute("RESET enable_seqscan");
+            }
+        });
+    }
+
+    /**
+     * Returns the query plan for {@code query} with its positional parameters bound to {@code parameters}, as the
+     * planner would choose it given the current table statistics.
+     */
+    public String explain(String query, List<Object> parameters) {
+        return jdbi.withHandle(handle -> explain(handle, query, parameters));
+    }
+
+    private static String explain(Handle handle, String query, List<Object> parameters) {
+        Query explain = handle.createQuery("EXPLAIN " + query);
+        for (int i = 0; i < parameters.size(); i++) {
+            explain.bind(i, parameters.get(i));
+        }
+        return String.join("\n", explain.mapTo(String.class).list());
+    }
+
+    public void execute(String sql) {
+        jdbi.useHandle(handle -> handle.execute(sql));
+    }
+
     public void truncateAllData() {
         jdbi.withHandle(handle -> handle.createUpdate("TRUNCATE TABLE users CASCADE").execute());
         jdbi.withHandle(handle -> handle.createUpdate("TRUNCATE TABLE services CASCADE").execute());